@@ -0,0 +1,61 @@
+package com.legaljava.benchmark;
+
+import com.legaljava.MockApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The application on a private in-memory H2 database, without the web server.
+ * Each benchmark trial gets a fresh one so fixtures of different sizes never mix.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final Path eventLogDirectory;
+    private final ConfigurableApplicationContext context;
+
+    BenchmarkApplication() {
+        try {
+            eventLogDirectory = Files.createTempDirectory("jmh-events");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        context = new SpringApplicationBuilder(MockApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("local")
+                // Command-line arguments, so they win over application-local.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                                + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--app.events.log-dir=" + eventLogDirectory,
+                        "--app.events.fsync=false");
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        deleteRecursively(eventLogDirectory);
+    }
+
+    static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not remove " + directory + ": " + e.getMessage());
+        }
+    }
+}
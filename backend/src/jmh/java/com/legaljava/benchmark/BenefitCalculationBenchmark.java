@@ -0,0 +1,71 @@
+package com.legaljava.benchmark;
+
+import com.legaljava.service.BenefitCalculationEngine;
+import com.legaljava.service.BenefitRateTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weekly TD rate for a rotating set of wages and injury dates. The wage mix decides how
+ * many calls hit the min/max clamps or need the exact BigDecimal fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenefitCalculationBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({ "cents", "clamped", "fractional" })
+    public String wages;
+
+    private AnnotationConfigApplicationContext context;
+    private BenefitCalculationEngine engine;
+    private BigDecimal[] weeklyWages;
+    private LocalDate[] injuryDates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenefitRateTable.class, BenefitCalculationEngine.class);
+        engine = context.getBean(BenefitCalculationEngine.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        weeklyWages = new BigDecimal[SAMPLES];
+        injuryDates = new LocalDate[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            weeklyWages[i] = switch (wages) {
+                case "cents" -> BigDecimal.valueOf(random.nextLong(40_000, 250_000), 2);
+                case "clamped" -> BigDecimal.valueOf(random.nextBoolean() ? random.nextLong(100, 20_000)
+                        : random.nextLong(1_000_000, 5_000_000), 2);
+                default -> BigDecimal.valueOf(random.nextLong(40_000_000, 250_000_000), 5);
+            };
+            injuryDates[i] = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(4000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BigDecimal temporaryDisabilityRate() {
+        int i = next++ & (SAMPLES - 1);
+        return engine.calculateTemporaryDisabilityRate(weeklyWages[i], injuryDates[i]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.legaljava.benchmark;
+
+import com.legaljava.service.DocumentChunkIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Top-5 retrieval from the chunk index for phrases lifted from indexed text. The corpus
+ * is synthetic prose over a Zipf-distributed vocabulary, one chunk per document, so the
+ * build in setup dominates the trial; larger sizes take minutes to index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DocumentChunkIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({ "10000", "100000" })
+    public int chunks;
+
+    private Path directory;
+    private DocumentChunkIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = 3 + random.nextInt(8); word.length() < length; ) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+
+        directory = Files.createTempDirectory("document-index");
+        index = new DocumentChunkIndex(true, directory.toString(), 512, 1000, 200, 16, 100, 100);
+        index.open();
+        queries = new String[QUERIES];
+        for (int document = 0; document < chunks; document++) {
+            String text = prose(random, vocabulary, 900);
+            index.index(document, 1, text);
+            if (document < QUERIES) {
+                int start = random.nextInt(text.length() - 100);
+                queries[document] = text.substring(start, start + 80);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<DocumentChunkIndex.ChunkHit> search() {
+        return index.search(queries[next++ & (QUERIES - 1)], 5);
+    }
+
+    private static String prose(SplittableRandom random, String[] vocabulary, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            int word = (int) Math.min(vocabulary.length - 1, Math.pow(vocabulary.length, random.nextDouble()) - 1);
+            text.append(vocabulary[word]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return text.toString();
+    }
+}
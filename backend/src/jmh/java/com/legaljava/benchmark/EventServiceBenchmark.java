@@ -0,0 +1,78 @@
+package com.legaljava.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legaljava.CalendarEvent;
+import com.legaljava.EventLog;
+import com.legaljava.EventService;
+import com.legaljava.service.ChangeBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calendar reads over an in-memory store of the given size, backed by a throwaway event log
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventServiceBenchmark {
+
+    private static final String[] TYPES = { "event", "meeting", "deadline", "consultation", "hearing",
+            "deposition", "appointment", "reminder" };
+
+    @Param({ "1000", "10000", "100000" })
+    public int events;
+
+    private Path directory;
+    private EventLog eventLog;
+    private ChangeBus changeBus;
+    private EventService eventService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("jmh-events");
+        eventLog = new EventLog(directory.toString(), 64L << 20, Long.MAX_VALUE, false);
+        changeBus = new ChangeBus(256, 16, 3600, 60_000, 1);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        eventService = new EventService(eventLog, objectMapper, changeBus);
+        eventService.recover();
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < events; i++) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("title", "Event " + i);
+            event.put("start", start.plusHours(i % 20_000).toString());
+            event.put("end", start.plusHours(i % 20_000).plusMinutes(45).toString());
+            event.put("type", TYPES[i % TYPES.length]);
+            eventService.createEvent(event);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventLog.close();
+        changeBus.shutdown();
+        BenchmarkApplication.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<CalendarEvent> eventsByType() {
+        return eventService.getEventsByType("hearing");
+    }
+}
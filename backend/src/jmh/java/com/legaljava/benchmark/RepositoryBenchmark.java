@@ -0,0 +1,105 @@
+package com.legaljava.benchmark;
+
+import com.legaljava.entity.CaseTask;
+import com.legaljava.entity.LegalDocument;
+import com.legaljava.entity.WorkersCompCase;
+import com.legaljava.repository.CaseTaskRepository;
+import com.legaljava.repository.LegalDocumentRepository;
+import com.legaljava.repository.WorkersCompCaseRepository;
+import com.legaljava.service.CaseTaskService;
+import com.legaljava.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database-backed service reads on H2. {@code rows} is the number of tasks and of
+ * documents loaded; tasks are spread over ten assignees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    private static final int ASSIGNEES = 10;
+    private static final String[] WORDS = { "claimant", "employer", "injury", "lumbar", "cervical", "deposition",
+            "apportionment", "settlement", "hearing", "treatment", "restrictions", "rating", "benefits",
+            "indemnity", "lien", "utilization", "review", "petition", "award", "compromise" };
+
+    @Param({ "1000", "10000", "50000" })
+    public int rows;
+
+    private BenchmarkApplication application;
+    private CaseTaskService caseTaskService;
+    private DocumentService documentService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new BenchmarkApplication();
+        caseTaskService = application.getBean(CaseTaskService.class);
+        documentService = application.getBean(DocumentService.class);
+        SplittableRandom random = new SplittableRandom(7);
+
+        WorkersCompCase workersCompCase = new WorkersCompCase();
+        workersCompCase.setCaseNumber("BENCH-1");
+        workersCompCase.setClaimantName("Benchmark Claimant");
+        workersCompCase.setEmployerName("Benchmark Employer");
+        workersCompCase.setInjuryDate(LocalDate.of(2023, 3, 14));
+        workersCompCase.setInjuryDescription("Lifting injury");
+        workersCompCase = application.getBean(WorkersCompCaseRepository.class).save(workersCompCase);
+
+        List<CaseTask> tasks = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            CaseTask task = new CaseTask(workersCompCase, "Task " + i,
+                    CaseTask.TaskType.values()[i % CaseTask.TaskType.values().length],
+                    LocalDate.now().plusDays(random.nextInt(-60, 60)),
+                    CaseTask.TaskPriority.values()[i % CaseTask.TaskPriority.values().length]);
+            task.setStatus(CaseTask.TaskStatus.values()[random.nextInt(4)]);
+            task.setAssignedTo("user" + (i % ASSIGNEES));
+            tasks.add(task);
+        }
+        application.getBean(CaseTaskRepository.class).saveAll(tasks);
+
+        List<LegalDocument> documents = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            StringBuilder content = new StringBuilder(600);
+            for (int w = 0; w < 80; w++) {
+                content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            // About one document in a hundred mentions the search term
+            if (random.nextInt(100) == 0) {
+                content.append("subrogation");
+            }
+            documents.add(new LegalDocument("Document " + i, content.toString(), "MEDICAL_REPORT"));
+        }
+        application.getBean(LegalDocumentRepository.class).saveAll(documents);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public CaseTaskService.TaskAnalytics userTaskAnalytics() {
+        return caseTaskService.getUserTaskAnalytics("user3");
+    }
+
+    @Benchmark
+    public List<LegalDocument> documentSearch() {
+        return documentService.searchDocuments("subrogation");
+    }
+}
@@ -0,0 +1,86 @@
+package com.legaljava.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated service time, parsed from a spec such as {@code fixed:200ms},
+ * {@code uniform:100ms:400ms}, {@code exponential:250ms} (mean) or
+ * {@code lognormal:200ms:1500ms} (median and p99).
+ */
+abstract class LatencyDistribution {
+
+    // z-score of the 99th percentile of a standard normal
+    private static final double Z_99 = 2.3263;
+
+    abstract long sampleNanos();
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        switch (parts[0]) {
+            case "fixed" -> {
+                long nanos = nanos(parts, 1);
+                return new LatencyDistribution() {
+                    @Override
+                    long sampleNanos() {
+                        return nanos;
+                    }
+                };
+            }
+            case "uniform" -> {
+                long low = nanos(parts, 1);
+                long high = nanos(parts, 2);
+                return new LatencyDistribution() {
+                    @Override
+                    long sampleNanos() {
+                        return low == high ? low : ThreadLocalRandom.current().nextLong(low, high);
+                    }
+                };
+            }
+            case "exponential" -> {
+                double mean = nanos(parts, 1);
+                return new LatencyDistribution() {
+                    @Override
+                    long sampleNanos() {
+                        return (long) (-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+                    }
+                };
+            }
+            case "lognormal" -> {
+                double mu = Math.log(nanos(parts, 1));
+                double sigma = Math.log((double) nanos(parts, 2) / nanos(parts, 1)) / Z_99;
+                return new LatencyDistribution() {
+                    @Override
+                    long sampleNanos() {
+                        return (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+                    }
+                };
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    private static long nanos(String[] parts, int index) {
+        if (parts.length <= index) {
+            throw new IllegalArgumentException("Missing duration in latency spec: " + String.join(":", parts));
+        }
+        return parseDuration(parts[index]).toNanos();
+    }
+
+    /**
+     * Durations as 250ms, 1.5s, 2m or plain milliseconds
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofNanos((long) (Double.parseDouble(text.substring(0, text.length() - 2)) * 1_000_000));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofNanos((long) (Double.parseDouble(text.substring(0, text.length() - 1)) * 1_000_000_000));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofSeconds((long) (Double.parseDouble(text.substring(0, text.length() - 1)) * 60));
+        }
+        return Duration.ofMillis(Long.parseLong(text));
+    }
+}
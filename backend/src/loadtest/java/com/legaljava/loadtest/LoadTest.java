@@ -0,0 +1,265 @@
+package com.legaljava.loadtest;
+
+import com.legaljava.MockApiApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load driver for the backend. By default it starts the application on H2 together with
+ * {@link StubRagService}, seeds data through the API, then runs a weighted mix of
+ * operations and prints throughput and p50/p99/p99.9 latency per operation.
+ *
+ * <p>The closed model keeps {@code users} virtual users in a request/think loop. The open
+ * model issues requests at a Poisson {@code rate} regardless of how the server keeps up,
+ * and measures each request from its scheduled start, so queueing delay is not hidden.
+ *
+ * <p>Options are {@code --name=value}: model (closed|open), users, think, rate, duration,
+ * warmup, mix (e.g. chat:1,cases:4,analytics:2,search:3,summary:1), seed-cases,
+ * seed-tasks, seed-documents, query-latency, ingest-latency, summarize-latency (see
+ * {@link LatencyDistribution}), stub-port, and target to drive an already running server
+ * (e.g. http://localhost:8080/api) instead of starting one.
+ */
+public final class LoadTest {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, String> options;
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private volatile boolean recording;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+        System.exit(0);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private void run() throws Exception {
+        try (StubRagService stub = new StubRagService(Integer.parseInt(option("stub-port", "0")),
+                LatencyDistribution.parse(option("query-latency", "lognormal:400ms:2s")),
+                LatencyDistribution.parse(option("ingest-latency", "lognormal:150ms:800ms")),
+                LatencyDistribution.parse(option("summarize-latency", "lognormal:1s:4s")))) {
+            stub.start();
+            System.out.println("Stub py-rag listening on " + stub.baseUrl());
+
+            ConfigurableApplicationContext application = null;
+            Path eventLogDirectory = null;
+            String target = options.get("target");
+            if (target == null) {
+                eventLogDirectory = Files.createTempDirectory("loadtest-events");
+                application = new SpringApplicationBuilder(MockApiApplication.class)
+                        .profiles("local")
+                        // Command-line arguments, so they win over the profile's properties
+                        .run("--server.port=0",
+                                "--spring.jpa.show-sql=false",
+                                "--spring.main.banner-mode=off",
+                                "--logging.level.root=WARN",
+                                "--app.py-rag.base-url=" + stub.baseUrl(),
+                                "--app.py-rag.summarize-base-url=" + stub.baseUrl(),
+                                "--app.events.log-dir=" + eventLogDirectory,
+                                "--app.events.fsync=false");
+                target = "http://localhost:" + application.getEnvironment().getProperty("local.server.port")
+                        + application.getEnvironment().getProperty("server.servlet.context-path", "");
+                System.out.println("Backend started at " + target);
+            }
+            try {
+                drive(target, stub);
+            } finally {
+                if (application != null) {
+                    application.close();
+                }
+                if (eventLogDirectory != null) {
+                    try (var paths = Files.walk(eventLogDirectory)) {
+                        paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                    }
+                }
+            }
+        }
+    }
+
+    private void drive(String target, StubRagService stub) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Workload workload = new Workload(target, client, Duration.ofSeconds(60));
+        long seedStarted = System.nanoTime();
+        workload.seed(Integer.parseInt(option("seed-cases", "200")), Integer.parseInt(option("seed-tasks", "5")),
+                Integer.parseInt(option("seed-documents", "500")));
+        System.out.printf("Seeded in %.1fs%n", (System.nanoTime() - seedStarted) / 1e9);
+
+        Mix mix = Mix.parse(option("mix", "chat:1,cases:4,analytics:2,search:3,summary:1"));
+        for (String operation : mix.operations) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+
+        Duration warmup = LatencyDistribution.parseDuration(option("warmup", "10s"));
+        Duration duration = LatencyDistribution.parseDuration(option("duration", "60s"));
+        String model = option("model", "closed");
+        System.out.println("Running " + model + " model: warmup " + warmup + ", measuring " + duration);
+
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        Thread recorderSwitch = Thread.ofVirtual().start(() -> {
+            LockSupport.parkNanos(measureStart - System.nanoTime());
+            recording = true;
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (model.equals("closed")) {
+                runClosed(workload, mix, executor, end);
+            } else if (model.equals("open")) {
+                runOpen(workload, mix, executor, end);
+            } else {
+                throw new IllegalArgumentException("model must be closed or open");
+            }
+        }
+        recorderSwitch.join();
+        report(duration, stub);
+    }
+
+    private void runClosed(Workload workload, Mix mix, ExecutorService executor, long end) {
+        int users = Integer.parseInt(option("users", "32"));
+        LatencyDistribution think = LatencyDistribution.parse(option("think", "exponential:100ms"));
+        for (int i = 0; i < users; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    call(workload, mix.next(), System.nanoTime());
+                    LockSupport.parkNanos(think.sampleNanos());
+                }
+            });
+        }
+    }
+
+    private void runOpen(Workload workload, Mix mix, ExecutorService executor, long end) {
+        double ratePerSecond = Double.parseDouble(option("rate", "50"));
+        double meanGapNanos = 1e9 / ratePerSecond;
+        long scheduled = System.nanoTime();
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intendedStart = scheduled;
+            String operation = mix.next();
+            executor.execute(() -> call(workload, operation, intendedStart));
+            scheduled += (long) (-meanGapNanos * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+        }
+    }
+
+    private void call(Workload workload, String operation, long startNanos) {
+        boolean failed;
+        try {
+            failed = workload.execute(operation) >= 400;
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (recording) {
+            long micros = Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - startNanos) / 1000);
+            latencies.get(operation).recordValue(micros);
+            if (failed) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+    }
+
+    private void report(Duration duration, StubRagService stub) {
+        double seconds = duration.toNanos() / 1e9;
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        System.out.println();
+        System.out.printf("%-10s %10s %10s %8s %10s %10s %10s %10s%n", "operation", "requests", "req/s", "errors",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long operationErrors = errors.get(entry.getKey()).get();
+            total.add(histogram);
+            totalErrors += operationErrors;
+            printRow(entry.getKey(), histogram, operationErrors, seconds);
+        }
+        printRow("all", total, totalErrors, seconds);
+        System.out.println();
+        System.out.println("Stub py-rag calls: " + stub.callCounts());
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-10s %10d %10.1f %8d %10.1f %10.1f %10.1f %10.1f%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds, errors,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Weighted choice of operation, e.g. chat:1,cases:4
+     */
+    private static final class Mix {
+        private final List<String> operations = new ArrayList<>();
+        private final List<Integer> cumulative = new ArrayList<>();
+        private int totalWeight;
+
+        static Mix parse(String spec) {
+            Mix mix = new Mix();
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (!Workload.OPERATIONS.contains(pair[0])) {
+                    throw new IllegalArgumentException("Unknown operation " + pair[0] + "; expected one of "
+                            + Workload.OPERATIONS);
+                }
+                int weight = pair.length > 1 ? Integer.parseInt(pair[1]) : 1;
+                if (weight > 0) {
+                    mix.totalWeight += weight;
+                    mix.operations.add(pair[0]);
+                    mix.cumulative.add(mix.totalWeight);
+                }
+            }
+            if (mix.totalWeight == 0) {
+                throw new IllegalArgumentException("mix has no operations");
+            }
+            return mix;
+        }
+
+        String next() {
+            int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (int i = 0; i < cumulative.size(); i++) {
+                if (roll < cumulative.get(i)) {
+                    return operations.get(i);
+                }
+            }
+            return operations.get(operations.size() - 1);
+        }
+    }
+}
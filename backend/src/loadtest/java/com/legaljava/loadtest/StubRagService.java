@@ -0,0 +1,138 @@
+package com.legaljava.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for py-rag: answers /query, /ingest, /ingest/batch and /summarize_ame_report
+ * in py-rag's response shapes after a simulated service time, with no model or network
+ * behind it.
+ * Each request is handled on its own virtual thread, so the stub itself never queues.
+ */
+final class StubRagService implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, AtomicLong> calls = new LinkedHashMap<>();
+
+    StubRagService(int port, LatencyDistribution queryLatency, LatencyDistribution ingestLatency,
+            LatencyDistribution summarizeLatency) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/query", handler("/query", queryLatency, this::query));
+        server.createContext("/ingest", handler("/ingest", ingestLatency, this::ingest));
+        server.createContext("/ingest/batch", handler("/ingest/batch", ingestLatency, this::ingestBatch));
+        server.createContext("/summarize_ame_report", handler("/summarize_ame_report", summarizeLatency,
+                this::summarize));
+        server.createContext("/health", handler("/health", null,
+                (exchange, body) -> Map.of("status", "healthy", "service", "LegalJava RAG stub")));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    Map<String, Long> callCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        calls.forEach((path, count) -> counts.put(path, count.get()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private Object query(HttpExchange exchange, JsonNode body) {
+        String query = body != null && body.hasNonNull("query") ? body.get("query").asText() : "";
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("response", "Stub answer to: " + query);
+        response.put("citations", List.of("Labor Code 4650", "Labor Code 4658"));
+        response.put("sessionId", body != null && body.hasNonNull("sessionId") ? body.get("sessionId").asText() : null);
+        response.put("confidence", 0.5);
+        return response;
+    }
+
+    private Object ingest(HttpExchange exchange, JsonNode body) {
+        // py-rag takes document_id and content as query parameters
+        String query = exchange.getRequestURI().getRawQuery();
+        int contentLength = query != null ? query.length() : 0;
+        return Map.of("message", "Document processed successfully", "chunks", Math.max(1, contentLength / 800));
+    }
+
+    private Object ingestBatch(HttpExchange exchange, JsonNode body) {
+        int documents = 0;
+        int chunks = 0;
+        if (body != null && body.has("documents")) {
+            for (JsonNode document : body.get("documents")) {
+                documents++;
+                chunks += document.path("chunks").size();
+            }
+        }
+        return Map.of("documents", documents, "chunks", chunks);
+    }
+
+    private Object summarize(HttpExchange exchange, JsonNode body) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("summary", "Stub summary: work-related injury with a recommended treatment plan.");
+        response.put("disabilityRating", 15.5);
+        response.put("workRestrictions", "Light duty, no lifting over 20 pounds");
+        response.put("treatmentRecommendations", "Physical therapy 3x per week for 6 weeks");
+        return response;
+    }
+
+    private interface Responder {
+        Object respond(HttpExchange exchange, JsonNode body) throws IOException;
+    }
+
+    private HttpHandler handler(String path, LatencyDistribution latency, Responder responder) {
+        AtomicLong count = new AtomicLong();
+        calls.put(path, count);
+        return exchange -> {
+            try (exchange) {
+                count.incrementAndGet();
+                JsonNode body = null;
+                try (InputStream in = exchange.getRequestBody()) {
+                    byte[] bytes = in.readAllBytes();
+                    if (bytes.length > 0) {
+                        body = objectMapper.readTree(bytes);
+                    }
+                }
+                if (latency != null) {
+                    TimeUnit.NANOSECONDS.sleep(latency.sampleNanos());
+                }
+                byte[] response = objectMapper.writeValueAsString(responder.respond(exchange, body))
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.legaljava.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The requests the driver issues, grouped into the operations of the mix, plus the seed
+ * data they read. Every operation is a single HTTP round trip against the backend.
+ */
+final class Workload {
+
+    static final List<String> OPERATIONS = List.of("chat", "cases", "analytics", "search", "summary");
+
+    private static final String[] WORDS = { "claimant", "employer", "injury", "lumbar", "cervical", "deposition",
+            "apportionment", "settlement", "hearing", "treatment", "restrictions", "rating", "benefits",
+            "indemnity", "lien", "utilization", "review", "petition", "award", "compromise" };
+    private static final String[] QUESTIONS = {
+            "What is the TD rate for a weekly wage of $1,200?",
+            "How is permanent disability apportioned between injuries?",
+            "What deadlines apply after a denied claim?",
+            "When can an AME report be challenged?" };
+    private static final int ASSIGNEES = 20;
+
+    private final String apiBase;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration timeout;
+    private final List<Long> caseIds = new ArrayList<>();
+    private final List<Long> reportIds = new ArrayList<>();
+    private final AtomicLong caseNumbers = new AtomicLong();
+
+    /**
+     * @param baseUrl server root including the servlet context path, e.g. http://localhost:8080/api
+     */
+    Workload(String baseUrl, HttpClient client, Duration timeout) {
+        this.apiBase = baseUrl;
+        this.client = client;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Load cases, tasks, AME reports and documents through the public API
+     */
+    void seed(int cases, int tasksPerCase, int documents) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < cases; i++) {
+            JsonNode created = send("POST", "/api/workers-comp-cases/create?" + form(newCase()), null);
+            long caseId = created.get("id").asLong();
+            caseIds.add(caseId);
+            for (int t = 0; t < tasksPerCase; t++) {
+                send("POST", "/api/case-tasks/create-detailed?" + form(Map.of(
+                        "caseId", caseId,
+                        "title", "Follow up " + t,
+                        "taskType", "DOCUMENT_REVIEW",
+                        "dueDate", LocalDate.now().plusDays(random.nextInt(-30, 60)),
+                        "priority", t % 3 == 0 ? "HIGH" : "MEDIUM",
+                        "assignedTo", "user" + random.nextInt(ASSIGNEES))), null);
+            }
+            if (i % 4 == 0) {
+                JsonNode report = send("POST", "/api/ame-reports/create?" + form(Map.of(
+                        "caseId", caseId,
+                        "doctorName", "Dr. Stub " + i,
+                        "specialty", "Orthopedics",
+                        "examinationDate", LocalDate.now().minusDays(30),
+                        "filePath", "/reports/" + i + ".pdf")), null);
+                reportIds.add(report.get("id").asLong());
+            }
+        }
+        for (int i = 0; i < documents; i++) {
+            StringBuilder content = new StringBuilder(600);
+            for (int w = 0; w < 80; w++) {
+                content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            send("POST", "/documents", objectMapper.writeValueAsString(Map.of(
+                    "title", "Document " + i, "content", content.toString(), "documentType", "MEDICAL_REPORT")));
+        }
+    }
+
+    /**
+     * Run one request of the named operation and return its HTTP status
+     */
+    int execute(String operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case "chat" -> status("POST", "/chat/query", objectMapper.writeValueAsString(Map.of(
+                    "query", QUESTIONS[random.nextInt(QUESTIONS.length)],
+                    "userId", "user" + random.nextInt(ASSIGNEES),
+                    "sessionId", "load-" + random.nextInt(1000))));
+            case "cases" -> {
+                // Mostly reads, some creates and updates
+                int roll = random.nextInt(10);
+                if (roll < 6) {
+                    yield status("GET", "/api/workers-comp-cases/" + pick(caseIds), null);
+                } else if (roll < 8) {
+                    yield status("POST", "/api/workers-comp-cases/create?" + form(newCase()), null);
+                } else {
+                    long id = pick(caseIds);
+                    JsonNode current = send("GET", "/api/workers-comp-cases/" + id, null);
+                    ((ObjectNode) current)
+                            .put("caseNotes", "Reviewed " + System.nanoTime());
+                    yield status("PUT", "/api/workers-comp-cases/" + id, objectMapper.writeValueAsString(current));
+                }
+            }
+            case "analytics" -> status("GET", "/api/case-tasks/analytics/user/user" + random.nextInt(ASSIGNEES), null);
+            case "search" -> status("GET", "/documents/search?" + form(Map.of("keyword",
+                    WORDS[random.nextInt(WORDS.length)])), null);
+            case "summary" -> status("POST", "/api/ame-reports/" + pick(reportIds) + "/generate-summary", null);
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+    }
+
+    private Map<String, Object> newCase() {
+        long number = caseNumbers.incrementAndGet();
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("caseNumber", "LOAD-" + System.identityHashCode(this) + "-" + number);
+        params.put("claimantName", "Claimant " + number);
+        params.put("employerName", "Employer " + (number % 50));
+        params.put("injuryDate", LocalDate.now().minusDays(number % 900));
+        params.put("injuryDescription", "Lifting injury");
+        return params;
+    }
+
+    private static long pick(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No seed data for this operation");
+        }
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private HttpRequest request(String method, String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(apiBase + path)).timeout(timeout);
+        if (json != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        return builder.method(method, json != null ? HttpRequest.BodyPublishers.ofString(json)
+                : HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private int status(String method, String path, String json) throws IOException, InterruptedException {
+        return client.send(request(method, path, json), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private JsonNode send(String method, String path, String json) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request(method, path, json), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IOException(method + " " + path + " returned " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String form(Map<String, ?> params) {
+        StringBuilder query = new StringBuilder();
+        params.forEach((name, value) -> {
+            if (!query.isEmpty()) {
+                query.append('&');
+            }
+            query.append(name).append('=').append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+        });
+        return query.toString();
+    }
+}
@@ -0,0 +1,509 @@
+package com.legaljava;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable calendar event.
+ * Timestamps are epoch seconds with a few flag bits recording how they were written
+ * (date only, local date-time or UTC), so range checks compare longs and the JSON form
+ * round-trips unchanged. Fields the calendar does not model are kept in {@code extras}.
+ * Every change produces a new instance with the next {@code version}, which doubles as the ETag.
+ * A recurring event is stored once with its {@link EventRecurrence}; instances are only
+ * materialised for the window a range query asks for.
+ */
+public final class CalendarEvent {
+
+    private static final int START_DATE_ONLY = 1;
+    private static final int START_UTC = 2;
+    private static final int HAS_END = 4;
+    private static final int END_DATE_ONLY = 8;
+    private static final int END_UTC = 16;
+    private static final int HAS_UPDATED_AT = 32;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final String id;
+    private final String title;
+    private final long start;
+    private final long end;
+    private final long createdAt;
+    private final long updatedAt;
+    private final long version;
+    private final EventType type;
+    private final EventPriority priority;
+    private final byte flags;
+    // Null unless the event repeats
+    private final EventRecurrence recurrence;
+    // Unmodelled fields, null when there are none
+    private final Map<String, Object> extras;
+    // Overlap bounds, fixed at construction since range queries compare them constantly
+    private final long intervalStart;
+    private final long intervalEnd;
+
+    private CalendarEvent(String id, String title, long start, long end, long createdAt, long updatedAt,
+            long version, EventType type, EventPriority priority, int flags, EventRecurrence recurrence,
+            Map<String, Object> extras) {
+        this.id = id;
+        this.title = title;
+        this.start = start;
+        this.end = end;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+        this.type = type;
+        this.priority = priority;
+        this.flags = (byte) flags;
+        this.recurrence = recurrence;
+        this.extras = extras;
+        this.intervalStart = intervalStart();
+        this.intervalEnd = intervalEnd();
+    }
+
+    /**
+     * Build from the JSON form; title and a parseable start are required
+     */
+    public static CalendarEvent fromWire(Map<String, Object> wire) {
+        Object id = wire.get("id");
+        Object title = wire.get("title");
+        if (id == null || title == null || wire.get("start") == null) {
+            throw new IllegalArgumentException("Event must have title and start time");
+        }
+
+        int flags = 0;
+        long[] parsed = new long[1];
+        int startFormat = parseTimestamp(wire.get("start"), parsed);
+        if (startFormat < 0) {
+            throw new IllegalArgumentException("Event start must be an ISO date or date-time");
+        }
+        long start = parsed[0];
+        flags |= startFormat == DATE ? START_DATE_ONLY : startFormat == UTC ? START_UTC : 0;
+
+        long end = 0;
+        if (wire.get("end") != null) {
+            int endFormat = parseTimestamp(wire.get("end"), parsed);
+            if (endFormat < 0) {
+                throw new IllegalArgumentException("Event end must be an ISO date or date-time");
+            }
+            end = parsed[0];
+            flags |= HAS_END | (endFormat == DATE ? END_DATE_ONLY : endFormat == UTC ? END_UTC : 0);
+        }
+
+        long createdAt = parseTimestamp(wire.get("createdAt"), parsed) >= 0 ? parsed[0] : now();
+        long updatedAt = 0;
+        if (parseTimestamp(wire.get("updatedAt"), parsed) >= 0) {
+            updatedAt = parsed[0];
+            flags |= HAS_UPDATED_AT;
+        }
+
+        long version = 1;
+        if (wire.get("version") != null) {
+            try {
+                version = Long.parseLong(wire.get("version").toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Event version must be a number");
+            }
+        }
+
+        EventRecurrence recurrence = wire.get("rrule") != null
+                ? EventRecurrence.parse(wire.get("rrule"), wire.get("exdate"), wire.get("overrides"), start)
+                : null;
+
+        Map<String, Object> extras = null;
+        EventType type = EventType.fromWire(wire.get("type"));
+        EventPriority priority = EventPriority.fromWire(wire.get("priority"));
+        for (Map.Entry<String, Object> entry : wire.entrySet()) {
+            String key = entry.getKey();
+            boolean modelled = switch (key) {
+                case "id", "title", "start", "end", "createdAt", "updatedAt", "version", "rrule", "exdate",
+                        "overrides" -> true;
+                case "type" -> type != null;
+                case "priority" -> priority != null;
+                default -> false;
+            };
+            if (!modelled && entry.getValue() != null) {
+                if (extras == null) {
+                    extras = new HashMap<>(4);
+                }
+                extras.put(key, entry.getValue());
+            }
+        }
+        // Unrecognised type/priority strings stay in extras so they round-trip as sent
+        if (type == null && (extras == null || !extras.containsKey("type"))) {
+            type = EventType.EVENT;
+        }
+        if (priority == null && (extras == null || !extras.containsKey("priority"))) {
+            priority = EventPriority.MEDIUM;
+        }
+
+        return new CalendarEvent(id.toString(), title.toString(), start, end, createdAt, updatedAt, version, type,
+                priority, flags, recurrence, extras != null ? Collections.unmodifiableMap(extras) : null);
+    }
+
+    /**
+     * Next version with the given fields replaced; a null value clears an optional field
+     */
+    public CalendarEvent withChanges(Map<String, Object> changes) {
+        Map<String, Object> wire = toWire();
+        wire.putAll(changes);
+        wire.put("id", id); // Ensure ID doesn't change
+        wire.put("version", version + 1);
+        wire.put("updatedAt", LocalDateTime.now().format(FORMATTER));
+        return fromWire(wire);
+    }
+
+    /**
+     * Next version of a recurring event with one instance cancelled
+     */
+    public CalendarEvent withExcludedOccurrence(long originalStart) {
+        return withRecurrence(recurrence.withExdate(originalStart));
+    }
+
+    /**
+     * Next version of a recurring event with field changes for one instance
+     */
+    public CalendarEvent withOccurrenceChanges(long originalStart, Map<String, Object> changes) {
+        Map<String, Object> instanceChanges = new HashMap<>(changes);
+        for (String seriesField : List.of("id", "seriesId", "recurrenceId", "rrule", "exdate", "overrides",
+                "version", "createdAt", "updatedAt")) {
+            instanceChanges.remove(seriesField);
+        }
+        // Validate the changes the same way a full instance would be
+        instance(originalStart, instanceChanges);
+        return withRecurrence(recurrence.withOverride(originalStart, instanceChanges));
+    }
+
+    private CalendarEvent withRecurrence(EventRecurrence updatedRecurrence) {
+        return new CalendarEvent(id, title, start, end, createdAt, now(), version + 1, type, priority,
+                flags | HAS_UPDATED_AT, updatedRecurrence, extras);
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    public EventRecurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Whether a recurring event has a (not cancelled) instance starting at this original start
+     */
+    public boolean isOccurrence(long originalStart) {
+        if (recurrence == null) {
+            return false;
+        }
+        boolean[] found = new boolean[1];
+        recurrence.forEachStart(start, originalStart, originalStart + 1, candidate -> {
+            found[0] = candidate == originalStart;
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * Instances of a recurring event overlapping [from, to), capped at {@code limit};
+     * overridden instances are included wherever their changes move them
+     */
+    public List<CalendarEvent> occurrencesBetween(long from, long to, int limit) {
+        List<CalendarEvent> instances = new ArrayList<>();
+        long duration = singleIntervalEnd() - start;
+        long searchFrom = from == Long.MIN_VALUE ? from : from - duration + 1;
+        Map<Long, Map<String, Object>> overrides = recurrence.getOverrides();
+        recurrence.forEachStart(start, searchFrom, to, originalStart -> {
+            if (!overrides.containsKey(originalStart)) {
+                instances.add(instance(originalStart, null));
+            }
+            return instances.size() < limit;
+        });
+        for (Map.Entry<Long, Map<String, Object>> entry : overrides.entrySet()) {
+            if (instances.size() >= limit) {
+                break;
+            }
+            CalendarEvent moved = instance(entry.getKey(), entry.getValue());
+            if (moved.start < to && moved.singleIntervalEnd() > from) {
+                instances.add(moved);
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * One instance of a recurring event, shifted from the series start and with its overrides applied
+     */
+    private CalendarEvent instance(long originalStart, Map<String, Object> changes) {
+        long shift = originalStart - start;
+        boolean dateOnly = (flags & START_DATE_ONLY) != 0;
+        boolean utc = (flags & START_UTC) != 0;
+        Map<String, Object> wire = toWire();
+        wire.remove("rrule");
+        wire.remove("exdate");
+        wire.remove("overrides");
+        String recurrenceId = format(originalStart, dateOnly, utc);
+        wire.put("id", id + "@" + recurrenceId);
+        wire.put("seriesId", id);
+        wire.put("recurrenceId", recurrenceId);
+        wire.put("start", recurrenceId);
+        if ((flags & HAS_END) != 0) {
+            wire.put("end", format(end + shift, (flags & END_DATE_ONLY) != 0, (flags & END_UTC) != 0));
+        }
+        if (changes != null) {
+            Long movedStart = changes.containsKey("start") ? parseEpochSecond(changes.get("start")) : null;
+            if (movedStart != null && !changes.containsKey("end") && (flags & HAS_END) != 0) {
+                // Moving an instance keeps its length unless a new end is given
+                wire.put("end", format(movedStart + (end - start), (flags & END_DATE_ONLY) != 0,
+                        (flags & END_UTC) != 0));
+            }
+            wire.putAll(changes);
+            wire.put("id", id + "@" + recurrenceId);
+            wire.put("seriesId", id);
+            wire.put("recurrenceId", recurrenceId);
+        }
+        return fromWire(wire);
+    }
+
+    /**
+     * JSON form, identical in shape to what clients send
+     */
+    @JsonValue
+    public Map<String, Object> toWire() {
+        Map<String, Object> wire = new LinkedHashMap<>(12);
+        wire.put("id", id);
+        wire.put("title", title);
+        wire.put("start", format(start, (flags & START_DATE_ONLY) != 0, (flags & START_UTC) != 0));
+        if ((flags & HAS_END) != 0) {
+            wire.put("end", format(end, (flags & END_DATE_ONLY) != 0, (flags & END_UTC) != 0));
+        }
+        if (type != null) {
+            wire.put("type", type.wire);
+        }
+        if (priority != null) {
+            wire.put("priority", priority.wire);
+        }
+        wire.put("createdAt", format(createdAt, false, false));
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            wire.put("updatedAt", format(updatedAt, false, false));
+        }
+        wire.put("version", version);
+        if (recurrence != null) {
+            boolean dateOnly = (flags & START_DATE_ONLY) != 0;
+            boolean utc = (flags & START_UTC) != 0;
+            wire.put("rrule", recurrence.getRule());
+            long[] exdates = recurrence.getExdates();
+            if (exdates.length > 0) {
+                List<String> formatted = new ArrayList<>(exdates.length);
+                for (long exdate : exdates) {
+                    formatted.add(format(exdate, dateOnly, utc));
+                }
+                wire.put("exdate", formatted);
+            }
+            if (!recurrence.getOverrides().isEmpty()) {
+                Map<String, Object> overrides = new LinkedHashMap<>();
+                recurrence.getOverrides().forEach((originalStart, changes) ->
+                        overrides.put(format(originalStart, dateOnly, utc), changes));
+                wire.put("overrides", overrides);
+            }
+        }
+        if (extras != null) {
+            wire.putAll(extras);
+        }
+        return wire;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public long getStartEpochSecond() {
+        return start;
+    }
+
+    /**
+     * Earliest instant the event can occupy; a recurring event's overrides may move an instance earlier
+     */
+    public long getIntervalStartEpochSecond() {
+        return intervalStart;
+    }
+
+    /**
+     * Exclusive end used for overlap checks. For a single event: the given end, a whole day
+     * for date-only events without one, otherwise the start instant itself. For a recurring
+     * event: a bound past its last instance, Long.MAX_VALUE when it never ends.
+     */
+    public long getIntervalEndEpochSecond() {
+        return intervalEnd;
+    }
+
+    private long intervalStart() {
+        long earliest = start;
+        if (recurrence != null) {
+            for (Map<String, Object> changes : recurrence.getOverrides().values()) {
+                Long movedStart = parseEpochSecond(changes.get("start"));
+                if (movedStart != null) {
+                    earliest = Math.min(earliest, movedStart);
+                }
+            }
+        }
+        return earliest;
+    }
+
+    private long intervalEnd() {
+        if (recurrence == null) {
+            return singleIntervalEnd();
+        }
+        long lastStart = recurrence.lastStartBound(start);
+        long duration = singleIntervalEnd() - start;
+        long latest = lastStart > Long.MAX_VALUE - duration ? Long.MAX_VALUE : lastStart + duration;
+        for (Map.Entry<Long, Map<String, Object>> entry : recurrence.getOverrides().entrySet()) {
+            Object movedEnd = entry.getValue().containsKey("end") ? entry.getValue().get("end")
+                    : entry.getValue().get("start");
+            Long moved = parseEpochSecond(movedEnd);
+            if (moved != null) {
+                latest = Math.max(latest, moved + duration + 1);
+            }
+        }
+        return latest;
+    }
+
+    private long singleIntervalEnd() {
+        if ((flags & HAS_END) != 0 && end > start) {
+            return end;
+        }
+        return (flags & START_DATE_ONLY) != 0 && (flags & HAS_END) == 0 ? start + SECONDS_PER_DAY : start + 1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Strong entity tag for this version
+     */
+    public String getETag() {
+        return "\"" + version + "\"";
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Type as sent on the wire, including values the enum does not know
+     */
+    public String getTypeName() {
+        if (type != null) {
+            return type.wire;
+        }
+        Object raw = extras != null ? extras.get("type") : null;
+        return raw != null ? raw.toString() : null;
+    }
+
+    private static final int DATE = 0;
+    private static final int LOCAL = 1;
+    private static final int UTC = 2;
+
+    /**
+     * Epoch second (UTC wall clock) of an ISO date, local date-time or offset date-time, or null
+     */
+    public static Long parseEpochSecond(Object value) {
+        long[] parsed = new long[1];
+        return parseTimestamp(value, parsed) >= 0 ? parsed[0] : null;
+    }
+
+    /**
+     * Parse into out[0] and return the format, or -1 when absent or unparseable
+     */
+    private static int parseTimestamp(Object value, long[] out) {
+        if (value == null) {
+            return -1;
+        }
+        String text = value.toString().trim();
+        try {
+            if (text.length() <= 10) {
+                out[0] = LocalDate.parse(text).toEpochDay() * SECONDS_PER_DAY;
+                return DATE;
+            }
+            if (text.endsWith("Z") || text.lastIndexOf('+') > 10 || text.lastIndexOf('-') > 10) {
+                out[0] = OffsetDateTime.parse(text).toEpochSecond();
+                return UTC;
+            }
+            out[0] = LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC);
+            return LOCAL;
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static String format(long epochSecond, boolean dateOnly, boolean utc) {
+        if (dateOnly) {
+            return LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY)).toString();
+        }
+        if (utc) {
+            return Instant.ofEpochSecond(epochSecond).toString();
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(FORMATTER);
+    }
+
+    private static long now() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public enum EventType {
+        EVENT, MEETING, DEADLINE, CONSULTATION, HEARING, DEPOSITION, APPOINTMENT, REMINDER;
+
+        private final String wire = name().toLowerCase(Locale.ROOT);
+
+        static EventType fromWire(Object value) {
+            if (value == null) {
+                return null;
+            }
+            for (EventType candidate : values()) {
+                if (candidate.wire.equals(value)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum EventPriority {
+        LOW, MEDIUM, HIGH, URGENT;
+
+        private final String wire = name().toLowerCase(Locale.ROOT);
+
+        static EventPriority fromWire(Object value) {
+            if (value == null) {
+                return null;
+            }
+            for (EventPriority candidate : values()) {
+                if (candidate.wire.equals(value)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+}
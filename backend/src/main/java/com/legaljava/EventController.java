@@ -1,12 +1,17 @@
 package com.legaljava;
 
+import com.legaljava.config.VersionedResource;
+import com.legaljava.dto.ChangeNotification;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/events")
@@ -17,31 +22,38 @@ public class EventController {
     private EventService eventService;
     
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllEvents() {
+    @VersionedResource(ChangeNotification.Topic.EVENTS)
+    public ResponseEntity<List<CalendarEvent>> getAllEvents(
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end) {
         try {
-            List<Map<String, Object>> events = eventService.getAllEvents();
+            List<CalendarEvent> events = start == null && end == null
+                    ? eventService.getAllEvents()
+                    : eventService.getEventsByDateRange(start, end);
             return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createEvent(@RequestBody Map<String, Object> eventData) {
+    public ResponseEntity<CalendarEvent> createEvent(@RequestBody Map<String, Object> eventData) {
         try {
-            Map<String, Object> createdEvent = eventService.createEvent(eventData);
+            CalendarEvent createdEvent = eventService.createEvent(eventData);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdEvent);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            return failure(e);
         }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getEventById(@PathVariable String id) {
+    public ResponseEntity<CalendarEvent> getEventById(@PathVariable String id) {
         try {
-            Map<String, Object> event = eventService.getEventById(id);
+            CalendarEvent event = eventService.getEventById(id);
             if (event != null) {
-                return ResponseEntity.ok(event);
+                return ResponseEntity.ok().eTag(event.getETag()).body(event);
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -51,30 +63,111 @@ public class EventController {
     }
     
     @PatchMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateEvent(@PathVariable String id, @RequestBody Map<String, Object> eventData) {
+    public ResponseEntity<CalendarEvent> updateEvent(@PathVariable String id, @RequestBody Map<String, Object> eventData,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Map<String, Object> updatedEvent = eventService.updateEvent(id, eventData);
+            CalendarEvent updatedEvent = eventService.updateEvent(id, eventData, parseIfMatch(ifMatch));
             if (updatedEvent != null) {
-                return ResponseEntity.ok(updatedEvent);
+                return ResponseEntity.ok().eTag(updatedEvent.getETag()).body(updatedEvent);
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (EventService.VersionConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            return failure(e);
         }
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteEvent(@PathVariable String id) {
+    public ResponseEntity<?> deleteEvent(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            boolean deleted = eventService.deleteEvent(id);
+            boolean deleted = eventService.deleteEvent(id, parseIfMatch(ifMatch));
             if (deleted) {
                 return ResponseEntity.noContent().build();
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (EventService.VersionConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return failure(e);
+        }
+    }
+    
+    @PatchMapping("/{id}/occurrences/{recurrenceId}")
+    public ResponseEntity<CalendarEvent> updateOccurrence(@PathVariable String id, @PathVariable String recurrenceId,
+            @RequestBody Map<String, Object> changes,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            CalendarEvent series = eventService.updateOccurrence(id, recurrenceId, changes, parseIfMatch(ifMatch));
+            if (series != null) {
+                return ResponseEntity.ok().eTag(series.getETag()).body(series);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (EventService.VersionConflictException e) {
+            return conflict(e);
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+    
+    @DeleteMapping("/{id}/occurrences/{recurrenceId}")
+    public ResponseEntity<CalendarEvent> deleteOccurrence(@PathVariable String id, @PathVariable String recurrenceId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            CalendarEvent series = eventService.deleteOccurrence(id, recurrenceId, parseIfMatch(ifMatch));
+            if (series != null) {
+                return ResponseEntity.ok().eTag(series.getETag()).body(series);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (EventService.VersionConflictException e) {
+            return conflict(e);
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+    
+    /**
+     * 400 for a change the event model rejects, 503 when it could not be made durable, 500 otherwise
+     */
+    private static <T> ResponseEntity<T> failure(Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().build();
+        }
+        HttpStatus status = e instanceof IllegalStateException ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).build();
+    }
+    
+    // 412 with the current event, so the client can re-apply its change on top of it
+    private static ResponseEntity<CalendarEvent> conflict(EventService.VersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(e.getCurrent().getETag())
+                .body(e.getCurrent());
+    }
+    
+    /**
+     * Versions accepted by an If-Match header; null when absent or "*". Weak tags never match.
+     */
+    private static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.length() > 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(trimmed.substring(1, trimmed.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not one of our tags; it can never match
+                }
+            }
         }
+        return versions;
     }
 }
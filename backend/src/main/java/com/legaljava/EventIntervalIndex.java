@@ -0,0 +1,161 @@
+package com.legaljava;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval index over calendar events for month/week range queries.
+ * Events are kept in a persistent treap ordered by start and augmented with the
+ * largest end in each subtree, so an overlap query visits O(log n + k) nodes.
+ * Writers path-copy under a lock and publish a new root; readers never block.
+ * Callers serialize changes per event id, passing the event being replaced.
+ */
+public class EventIntervalIndex {
+
+    private volatile Node root;
+
+    /**
+     * Replace {@code previous} (may be null) with {@code event} (may be null) in one publish
+     */
+    public synchronized void replace(CalendarEvent previous, CalendarEvent event) {
+        Node updated = root;
+        if (previous != null) {
+            updated = remove(updated, previous.getIntervalStartEpochSecond(), previous.getId());
+        }
+        if (event != null) {
+            updated = insert(updated, new Node(event));
+        }
+        root = updated;
+    }
+
+    public synchronized void clear() {
+        root = null;
+    }
+
+    /**
+     * Events overlapping [from, to), ordered by start
+     */
+    public List<CalendarEvent> overlapping(long fromEpochSecond, long toEpochSecond) {
+        List<CalendarEvent> events = new ArrayList<>();
+        collect(root, fromEpochSecond, toEpochSecond, events);
+        return events;
+    }
+
+    public int size() {
+        Node current = root;
+        return current != null ? current.size : 0;
+    }
+
+    private static void collect(Node node, long from, long to, List<CalendarEvent> out) {
+        // Nothing in this subtree ends after the window opens
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, out);
+        // This node and everything to its right start at or after the window closes
+        if (node.event.getIntervalStartEpochSecond() >= to) {
+            return;
+        }
+        if (node.event.getIntervalEndEpochSecond() > from) {
+            out.add(node.event);
+        }
+        collect(node.right, from, to, out);
+    }
+
+    // Persistent treap operations: every change copies only the nodes on its path
+
+    private static Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (fresh.priority > node.priority) {
+            Node[] parts = split(node, fresh.event.getIntervalStartEpochSecond(), fresh.event.getId());
+            return fresh.withChildren(parts[0], parts[1]);
+        }
+        return compare(fresh.event.getIntervalStartEpochSecond(), fresh.event.getId(), node) < 0
+                ? node.withChildren(insert(node.left, fresh), node.right)
+                : node.withChildren(node.left, insert(node.right, fresh));
+    }
+
+    private static Node remove(Node node, long start, String id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        return cmp < 0
+                ? node.withChildren(remove(node.left, start, id), node.right)
+                : node.withChildren(node.left, remove(node.right, start, id));
+    }
+
+    /**
+     * Split into nodes ordered before (start, id) and the rest
+     */
+    private static Node[] split(Node node, long start, String id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(start, id, node) <= 0) {
+            Node[] parts = split(node.left, start, id);
+            return new Node[] { parts[0], node.withChildren(parts[1], node.right) };
+        }
+        Node[] parts = split(node.right, start, id);
+        return new Node[] { node.withChildren(node.left, parts[0]), parts[1] };
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return left.priority > right.priority
+                ? left.withChildren(left.left, merge(left.right, right))
+                : right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static int compare(long start, String id, Node node) {
+        int cmp = Long.compare(start, node.event.getIntervalStartEpochSecond());
+        return cmp != 0 ? cmp : id.compareTo(node.event.getId());
+    }
+
+    private static final class Node {
+        final CalendarEvent event;
+        final int priority;
+        final Node left;
+        final Node right;
+        final long maxEnd;
+        final int size;
+
+        Node(CalendarEvent event) {
+            this(event, ThreadLocalRandom.current().nextInt(), null, null);
+        }
+
+        private Node(CalendarEvent event, int priority, Node left, Node right) {
+            this.event = event;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            long max = event.getIntervalEndEpochSecond();
+            int count = 1;
+            if (left != null) {
+                max = Math.max(max, left.maxEnd);
+                count += left.size;
+            }
+            if (right != null) {
+                max = Math.max(max, right.maxEnd);
+                count += right.size;
+            }
+            this.maxEnd = max;
+            this.size = count;
+        }
+
+        Node withChildren(Node newLeft, Node newRight) {
+            return new Node(event, priority, newLeft, newRight);
+        }
+    }
+}
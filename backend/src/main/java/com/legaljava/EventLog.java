@@ -0,0 +1,551 @@
+package com.legaljava;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable append-only log behind {@link EventService}.
+ * <p>
+ * Records are framed as {@code [int length][int crc32c][long seq][byte op][payload]} and
+ * appended to numbered segment files by a single writer thread, which fsyncs once per
+ * drained batch (group commit). Every {@code snapshot-every} records the owner's state is
+ * written to a snapshot in the same framing, and segments it fully covers are deleted, so
+ * startup replays at most one snapshot interval of log. A batch whose write or fsync fails
+ * is cut back off its segment and the writer continues in a new one, so nothing acknowledged
+ * later can sit behind a torn frame, where recovery would stop reading.
+ */
+@Component
+public class EventLog {
+
+    public static final byte PUT = 1;
+    public static final byte DELETE = 2;
+    private static final byte SNAPSHOT_BEGIN = 3;
+    private static final byte SNAPSHOT_END = 4;
+
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int RECORD_PREFIX_BYTES = 9;
+    private static final int MAX_BATCH = 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long snapshotEvery;
+    private final boolean fsync;
+
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(64 * 1024);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    // Appends hold the read side while they queue, so close() never strands a record behind the writer
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    // Highest sequence number written to each segment, used to drop segments a snapshot covers
+    private final ConcurrentSkipListMap<Long, Long> segmentMaxSequence = new ConcurrentSkipListMap<>();
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-log-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+    private Thread writer;
+    private Supplier<Snapshot> snapshotSource;
+    private FileChannel segment;
+    private volatile long segmentIndex;
+    private long segmentSize;
+    private long recordsSinceSnapshot;
+
+    public EventLog(@Value("${app.events.log-dir:data/events}") String directory,
+            @Value("${app.events.segment-bytes:67108864}") long segmentBytes,
+            @Value("${app.events.snapshot-every:50000}") long snapshotEvery,
+            @Value("${app.events.fsync:true}") boolean fsync) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.snapshotEvery = snapshotEvery;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replay the latest snapshot and every later record into the handler, then start the writer.
+     * The snapshot source is called by the log whenever it wants a new snapshot.
+     *
+     * @return number of records applied
+     */
+    public synchronized long open(ReplayHandler handler, Supplier<Snapshot> snapshotSource) throws IOException {
+        if (running) {
+            throw new IllegalStateException("Event log already open");
+        }
+        Files.createDirectories(directory);
+        this.snapshotSource = snapshotSource;
+
+        long applied = 0;
+        long snapshotSequence = 0;
+        List<Path> snapshots = list(SNAPSHOT_PREFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            List<Record> records = readSnapshot(snapshots.get(i));
+            if (records != null) {
+                snapshotSequence = fileNumber(snapshots.get(i), SNAPSHOT_PREFIX);
+                for (Record record : records) {
+                    handler.apply(record.op, record.payload);
+                }
+                applied += records.size();
+                break;
+            }
+            System.err.println("Ignoring incomplete event snapshot " + snapshots.get(i));
+        }
+
+        long maxSequence = snapshotSequence;
+        long lastSegment = 0;
+        for (Path path : list(SEGMENT_PREFIX)) {
+            long index = fileNumber(path, SEGMENT_PREFIX);
+            lastSegment = Math.max(lastSegment, index);
+            long segmentMax = 0;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    InputStream in = Files.newInputStream(path)) {
+                SegmentReader reader = new SegmentReader(in);
+                Record record;
+                while ((record = reader.next()) != null) {
+                    segmentMax = Math.max(segmentMax, record.sequence);
+                    if (record.sequence > snapshotSequence) {
+                        handler.apply(record.op, record.payload);
+                        applied++;
+                    }
+                }
+                if (reader.validBytes < channel.size()) {
+                    // Torn write from a crash: drop the tail so the next append starts on a record boundary
+                    System.err.println("Truncating corrupt event log tail in " + path + " at byte " + reader.validBytes);
+                    channel.truncate(reader.validBytes);
+                    channel.force(true);
+                }
+            }
+            segmentMaxSequence.put(index, segmentMax);
+            maxSequence = Math.max(maxSequence, segmentMax);
+        }
+
+        sequence.set(maxSequence);
+        recordsSinceSnapshot = applied;
+        openSegment(lastSegment + 1);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return applied;
+    }
+
+    /**
+     * Next sequence number; callers must take it in the same critical section that orders their state change
+     */
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Queue a record; the future completes once it is on disk (fsynced when enabled)
+     */
+    public CompletableFuture<Void> append(long seq, byte op, byte[] payload) {
+        Pending pending = new Pending(seq, op, payload);
+        lifecycle.readLock().lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Event log is not open");
+            }
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to event log", e);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Drain pending writes, take a final snapshot so the next start replays nothing, and close
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        lifecycle.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        try {
+            writer.join();
+            snapshotExecutor.shutdown();
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            if (recordsSinceSnapshot > 0) {
+                writeSnapshot(snapshotSource.get());
+            }
+            if (segment != null) {
+                segment.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Failed to close event log cleanly: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Everything that queued up during the previous fsync shares this one
+                queue.drainTo(batch, MAX_BATCH - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        try {
+            if (segment == null) {
+                openSegment(segmentIndex);
+            }
+            int size = 0;
+            for (Pending pending : batch) {
+                size += FRAME_HEADER_BYTES + RECORD_PREFIX_BYTES + pending.payload.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            long maxSequence = segmentMaxSequence.getOrDefault(segmentIndex, 0L);
+            for (Pending pending : batch) {
+                frame(buffer, pending.sequence, pending.op, pending.payload);
+                maxSequence = Math.max(maxSequence, pending.sequence);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            if (fsync) {
+                segment.force(false);
+            }
+            segmentSize += size;
+            segmentMaxSequence.put(segmentIndex, maxSequence);
+            for (Pending pending : batch) {
+                pending.future.complete(null);
+            }
+        } catch (IOException e) {
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+            abandonSegment();
+            return;
+        }
+
+        recordsSinceSnapshot += batch.size();
+        try {
+            if (segmentSize >= segmentBytes) {
+                segment.close();
+                segment = null;
+                openSegment(segmentIndex + 1);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to roll event log segment: " + e.getMessage());
+        }
+        if (recordsSinceSnapshot >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+            recordsSinceSnapshot = 0;
+            snapshotExecutor.execute(() -> {
+                try {
+                    writeSnapshot(snapshotSource.get());
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Event snapshot failed: " + e.getMessage());
+                } finally {
+                    snapshotRunning.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop whatever a failed batch left past the last good record and move on to a new
+     * segment; after a failed fsync the old file's cached pages cannot be trusted either
+     */
+    private void abandonSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.truncate(segmentSize);
+            segment.force(true);
+        } catch (IOException e) {
+            // Recovery truncates at the torn frame; later records are in the next segment
+            System.err.println("Failed to cut failed write off event log segment " + segmentIndex + ": " + e.getMessage());
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close event log segment " + segmentIndex + ": " + e.getMessage());
+        }
+        segment = null;
+        // The next batch opens this one
+        segmentIndex++;
+    }
+
+    private void writeSnapshot(Snapshot snapshot) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d.log", SNAPSHOT_PREFIX, snapshot.sequence));
+        if (Files.exists(target)) {
+            return;
+        }
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+            frameInto(channel, buffer, SNAPSHOT_BEGIN, new byte[0]);
+            for (byte[] payload : snapshot.events) {
+                frameInto(channel, buffer, PUT, payload);
+            }
+            frameInto(channel, buffer, SNAPSHOT_END, ByteBuffer.allocate(4).putInt(snapshot.events.size()).array());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        // The rename must be durable before anything it replaces is deleted
+        forceDirectory();
+
+        // The new snapshot supersedes older snapshots and every closed segment it covers
+        for (Path old : list(SNAPSHOT_PREFIX)) {
+            if (fileNumber(old, SNAPSHOT_PREFIX) < snapshot.sequence) {
+                Files.deleteIfExists(old);
+            }
+        }
+        for (Map.Entry<Long, Long> entry : segmentMaxSequence.headMap(segmentIndex).entrySet()) {
+            if (entry.getValue() <= snapshot.sequence) {
+                Files.deleteIfExists(segmentPath(entry.getKey()));
+                segmentMaxSequence.remove(entry.getKey());
+            }
+        }
+    }
+
+    private void forceDirectory() throws IOException {
+        if (WINDOWS) {
+            // Directories cannot be opened as channels there; NTFS journals the rename itself
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void frameInto(FileChannel channel, ByteBuffer buffer, byte op, byte[] payload) throws IOException {
+        int needed = FRAME_HEADER_BYTES + RECORD_PREFIX_BYTES + payload.length;
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        if (buffer.remaining() < needed) {
+            ByteBuffer large = ByteBuffer.allocate(needed);
+            frame(large, 0, op, payload);
+            large.flip();
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+            return;
+        }
+        frame(buffer, 0, op, payload);
+    }
+
+    private static void frame(ByteBuffer buffer, long seq, byte op, byte[] payload) {
+        int length = RECORD_PREFIX_BYTES + payload.length;
+        CRC32C crc = new CRC32C();
+        ByteBuffer prefix = ByteBuffer.allocate(RECORD_PREFIX_BYTES).putLong(seq).put(op);
+        crc.update(prefix.array());
+        crc.update(payload);
+        buffer.putInt(length).putInt((int) crc.getValue()).put(prefix.array()).put(payload);
+    }
+
+    private void openSegment(long index) throws IOException {
+        segmentIndex = index;
+        segment = openSegmentChannel(segmentPath(index));
+        segmentSize = segment.size();
+    }
+
+    // Package-private so tests can make writes fail
+    FileChannel openSegmentChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%020d.log", SEGMENT_PREFIX, index));
+    }
+
+    /**
+     * Records of a snapshot, or null when it was never completed
+     */
+    private static List<Record> readSnapshot(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            SegmentReader reader = new SegmentReader(in);
+            Record begin = reader.next();
+            if (begin == null || begin.op != SNAPSHOT_BEGIN) {
+                return null;
+            }
+            List<Record> records = new ArrayList<>();
+            Record record;
+            while ((record = reader.next()) != null) {
+                if (record.op == SNAPSHOT_END) {
+                    return ByteBuffer.wrap(record.payload).getInt() == records.size() ? records : null;
+                }
+                records.add(record);
+            }
+            return null;
+        }
+    }
+
+    private List<Path> list(String prefix) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*.log")) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+        return paths;
+    }
+
+    private static long fileNumber(Path path, String prefix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - ".log".length()));
+    }
+
+    /**
+     * Reads framed records until end of file or the first torn or corrupt record
+     */
+    private static final class SegmentReader {
+        private final DataInputStream in;
+        long validBytes;
+
+        SegmentReader(InputStream in) {
+            this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        }
+
+        Record next() throws IOException {
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < RECORD_PREFIX_BYTES || length > 64 * 1024 * 1024) {
+                    return null;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                CRC32C crc = new CRC32C();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    return null;
+                }
+                validBytes += FRAME_HEADER_BYTES + length;
+                ByteBuffer buffer = ByteBuffer.wrap(body);
+                long seq = buffer.getLong();
+                byte op = buffer.get();
+                byte[] payload = new byte[length - RECORD_PREFIX_BYTES];
+                buffer.get(payload);
+                return new Record(seq, op, payload);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Record {
+        final long sequence;
+        final byte op;
+        final byte[] payload;
+
+        Record(long sequence, byte op, byte[] payload) {
+            this.sequence = sequence;
+            this.op = op;
+            this.payload = payload;
+        }
+    }
+
+    private static final class Pending {
+        final long sequence;
+        final byte op;
+        final byte[] payload;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Pending(long sequence, byte op, byte[] payload) {
+            this.sequence = sequence;
+            this.op = op;
+            this.payload = payload;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ReplayHandler {
+        void apply(byte op, byte[] payload) throws IOException;
+    }
+
+    /**
+     * Owner state as of a sequence number: every record up to it is included, none after
+     */
+    public static final class Snapshot {
+        private final long sequence;
+        private final List<byte[]> events;
+
+        public Snapshot(long sequence, List<byte[]> events) {
+            this.sequence = sequence;
+            this.events = events;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public List<byte[]> getEvents() {
+            return events;
+        }
+    }
+}
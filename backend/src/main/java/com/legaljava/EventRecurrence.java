@@ -0,0 +1,364 @@
+package com.legaljava;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Recurrence rule of a repeating calendar event plus its per-instance exceptions.
+ * Supports the RRULE subset FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL, COUNT,
+ * UNTIL and BYDAY (weekly only). Instances are never stored: {@link #forEachStart}
+ * walks the occurrences inside a window, jumping straight to it where the
+ * frequency allows, so the work done tracks the window rather than the series length.
+ * <p>
+ * Exceptions are keyed by an instance's original start: {@code exdates} cancel an
+ * instance and {@code overrides} replace some of its fields.
+ */
+public final class EventRecurrence {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final DateTimeFormatter RRULE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter RRULE_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+
+    private final String rule;
+    private final Frequency frequency;
+    private final int interval;
+    private final long count;
+    private final long until;
+    // Monday = bit 0; only used for WEEKLY
+    private final int byDay;
+    // Sorted original starts of cancelled instances
+    private final long[] exdates;
+    // Original start -> field changes for that instance
+    private final Map<Long, Map<String, Object>> overrides;
+
+    private EventRecurrence(String rule, Frequency frequency, int interval, long count, long until, int byDay,
+            long[] exdates, Map<Long, Map<String, Object>> overrides) {
+        this.rule = rule;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+        this.exdates = exdates;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Parse an RRULE string and the exception fields; the series start supplies the default BYDAY
+     */
+    public static EventRecurrence parse(Object rrule, Object exdate, Object overrideField, long seriesStart) {
+        String rule = rrule.toString().trim();
+        String body = rule.regionMatches(true, 0, "RRULE:", 0, 6) ? rule.substring(6) : rule;
+
+        Frequency frequency = null;
+        int interval = 1;
+        long count = 0;
+        long until = Long.MAX_VALUE;
+        int byDay = 0;
+        for (String part : body.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Malformed RRULE part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Long.parseLong(value);
+                    case "UNTIL" -> until = parseUntil(value);
+                    case "BYDAY" -> byDay = parseByDay(value);
+                    case "WKST" -> {
+                        if (!value.equals("MO")) {
+                            throw new IllegalArgumentException("Only WKST=MO is supported");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported RRULE part: " + name);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed RRULE value: " + part);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("RRULE must have FREQ");
+        }
+        if (interval < 1 || count < 0) {
+            throw new IllegalArgumentException("RRULE INTERVAL and COUNT must be positive");
+        }
+        if (byDay != 0 && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        if (frequency == Frequency.WEEKLY && byDay == 0) {
+            byDay = 1 << dayOfWeek(Math.floorDiv(seriesStart, SECONDS_PER_DAY));
+        }
+
+        long[] exdates = new long[0];
+        if (exdate instanceof Collection<?> values) {
+            exdates = new long[values.size()];
+            int i = 0;
+            for (Object value : values) {
+                exdates[i++] = requireTimestamp(value, "exdate");
+            }
+            Arrays.sort(exdates);
+        } else if (exdate != null) {
+            throw new IllegalArgumentException("exdate must be a list of instance start times");
+        }
+
+        Map<Long, Map<String, Object>> overrides = Collections.emptyMap();
+        if (overrideField instanceof Map<?, ?> values && !values.isEmpty()) {
+            overrides = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : values.entrySet()) {
+                if (!(entry.getValue() instanceof Map<?, ?> changes)) {
+                    throw new IllegalArgumentException("Each override must be an object of field changes");
+                }
+                Map<String, Object> copy = new HashMap<>();
+                changes.forEach((key, value) -> copy.put(key.toString(), value));
+                overrides.put(requireTimestamp(entry.getKey(), "override"), Collections.unmodifiableMap(copy));
+            }
+            overrides = Collections.unmodifiableMap(overrides);
+        } else if (overrideField != null && !(overrideField instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException("overrides must map instance start times to field changes");
+        }
+
+        return new EventRecurrence(rule, frequency, interval, count, until, byDay, exdates, overrides);
+    }
+
+    /**
+     * Same rule with one more cancelled instance; its override, if any, is dropped
+     */
+    public EventRecurrence withExdate(long originalStart) {
+        long[] updated = exdates;
+        if (Arrays.binarySearch(exdates, originalStart) < 0) {
+            updated = Arrays.copyOf(exdates, exdates.length + 1);
+            updated[exdates.length] = originalStart;
+            Arrays.sort(updated);
+        }
+        Map<Long, Map<String, Object>> remaining = overrides;
+        if (overrides.containsKey(originalStart)) {
+            remaining = new TreeMap<>(overrides);
+            remaining.remove(originalStart);
+            remaining = Collections.unmodifiableMap(remaining);
+        }
+        return new EventRecurrence(rule, frequency, interval, count, until, byDay, updated, remaining);
+    }
+
+    /**
+     * Same rule with the instance's override merged with further changes
+     */
+    public EventRecurrence withOverride(long originalStart, Map<String, Object> changes) {
+        Map<Long, Map<String, Object>> updated = new TreeMap<>(overrides);
+        Map<String, Object> merged = new HashMap<>(overrides.getOrDefault(originalStart, Collections.emptyMap()));
+        merged.putAll(changes);
+        updated.put(originalStart, Collections.unmodifiableMap(merged));
+        return new EventRecurrence(rule, frequency, interval, count, until, byDay, exdates,
+                Collections.unmodifiableMap(updated));
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public long[] getExdates() {
+        return exdates.clone();
+    }
+
+    public Map<Long, Map<String, Object>> getOverrides() {
+        return overrides;
+    }
+
+    public boolean isExcluded(long originalStart) {
+        return Arrays.binarySearch(exdates, originalStart) >= 0;
+    }
+
+    /**
+     * Upper bound on the start of the last instance, or Long.MAX_VALUE for an open-ended series
+     */
+    public long lastStartBound(long seriesStart) {
+        long bound = until;
+        if (count > 0) {
+            long periodSeconds = switch (frequency) {
+                case DAILY -> SECONDS_PER_DAY;
+                case WEEKLY -> 7 * SECONDS_PER_DAY;
+                case MONTHLY -> 31 * SECONDS_PER_DAY;
+                case YEARLY -> 366 * SECONDS_PER_DAY;
+            };
+            // Monthly/yearly instances on the 29th-31st skip short months, so allow for that
+            long periods = frequency == Frequency.MONTHLY || frequency == Frequency.YEARLY ? count * 4 : count;
+            long byCount = periods > Long.MAX_VALUE / periodSeconds / interval
+                    ? Long.MAX_VALUE
+                    : seriesStart + periods * periodSeconds * interval;
+            bound = Math.min(bound, byCount);
+        }
+        return bound;
+    }
+
+    /**
+     * Visit original starts of occurrences in [from, to), in order, until the visitor returns false.
+     * Cancelled instances are skipped; overridden ones are still visited.
+     */
+    public void forEachStart(long seriesStart, long from, long to, LongPredicate visitor) {
+        long end = Math.min(to, until == Long.MAX_VALUE ? Long.MAX_VALUE : until + 1);
+        switch (frequency) {
+            case DAILY -> daily(seriesStart, from, end, visitor);
+            case WEEKLY -> weekly(seriesStart, from, end, visitor);
+            case MONTHLY, YEARLY -> monthly(seriesStart, from, end, visitor);
+        }
+    }
+
+    private void daily(long seriesStart, long from, long end, LongPredicate visitor) {
+        long step = interval * SECONDS_PER_DAY;
+        long index = from > seriesStart ? ceilDiv(from - seriesStart, step) : 0;
+        for (long start = seriesStart + index * step; start < end; start += step, index++) {
+            if (count > 0 && index >= count) {
+                return;
+            }
+            if (!isExcluded(start) && !visitor.test(start)) {
+                return;
+            }
+        }
+    }
+
+    private void weekly(long seriesStart, long from, long end, LongPredicate visitor) {
+        long startDay = Math.floorDiv(seriesStart, SECONDS_PER_DAY);
+        long timeOfDay = seriesStart - startDay * SECONDS_PER_DAY;
+        int startDow = dayOfWeek(startDay);
+        long firstWeek = startDay - startDow;
+        long weekStep = 7L * interval;
+        int perWeek = Integer.bitCount(byDay);
+        // Instances in the first week fall on or after the series start
+        int firstWeekCount = Integer.bitCount(byDay & (-1 << startDow));
+
+        long period = from > seriesStart ? Math.max(0, Math.floorDiv(
+                Math.floorDiv(from, SECONDS_PER_DAY) - firstWeek, weekStep)) : 0;
+        long index = period == 0 ? 0 : firstWeekCount + (period - 1) * perWeek;
+        while (true) {
+            long weekDay = firstWeek + period * weekStep;
+            if (weekDay * SECONDS_PER_DAY >= end) {
+                return;
+            }
+            for (int dow = 0; dow < 7; dow++) {
+                if ((byDay & (1 << dow)) == 0) {
+                    continue;
+                }
+                long start = (weekDay + dow) * SECONDS_PER_DAY + timeOfDay;
+                if (start < seriesStart) {
+                    continue;
+                }
+                if (start >= end || (count > 0 && index >= count)) {
+                    return;
+                }
+                index++;
+                if (start >= from && !isExcluded(start) && !visitor.test(start)) {
+                    return;
+                }
+            }
+            period++;
+        }
+    }
+
+    private void monthly(long seriesStart, long from, long end, LongPredicate visitor) {
+        LocalDateTime first = LocalDateTime.ofEpochSecond(seriesStart, 0, ZoneOffset.UTC);
+        int monthStep = frequency == Frequency.YEARLY ? 12 * interval : interval;
+        int dayOfMonth = first.getDayOfMonth();
+        boolean alwaysValid = dayOfMonth <= 28 && !(frequency == Frequency.YEARLY && first.getMonthValue() == 2
+                && dayOfMonth == 29);
+
+        long period = 0;
+        if (alwaysValid && from > seriesStart) {
+            // Every period has an instance, so jump straight to the window
+            LocalDateTime target = LocalDateTime.ofEpochSecond(from, 0, ZoneOffset.UTC);
+            long months = (target.getYear() - first.getYear()) * 12L + target.getMonthValue() - first.getMonthValue();
+            period = Math.max(0, months / monthStep - 1);
+        }
+        long index = period;
+        for (;; period++) {
+            LocalDateTime month = first.withDayOfMonth(1).plusMonths(period * monthStep);
+            if (month.toEpochSecond(ZoneOffset.UTC) >= end) {
+                return;
+            }
+            if (dayOfMonth > month.toLocalDate().lengthOfMonth()) {
+                continue; // No such day this month; RFC 5545 skips the instance
+            }
+            long start = month.withDayOfMonth(dayOfMonth).toEpochSecond(ZoneOffset.UTC);
+            if (start >= end || (count > 0 && index >= count)) {
+                return;
+            }
+            index++;
+            if (start >= from && !isExcluded(start) && !visitor.test(start)) {
+                return;
+            }
+        }
+    }
+
+    private static long parseUntil(String value) {
+        String text = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        try {
+            if (text.length() == 8) {
+                // A date-only UNTIL includes the whole day
+                return LocalDate.parse(text, RRULE_DATE).toEpochDay() * SECONDS_PER_DAY + SECONDS_PER_DAY - 1;
+            }
+            if (text.length() == 15) {
+                return LocalDateTime.parse(text, RRULE_DATE_TIME).toEpochSecond(ZoneOffset.UTC);
+            }
+            if (text.length() == 10) {
+                return LocalDate.parse(text).toEpochDay() * SECONDS_PER_DAY + SECONDS_PER_DAY - 1;
+            }
+            return value.endsWith("Z") ? OffsetDateTime.parse(value).toEpochSecond()
+                    : LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed RRULE UNTIL: " + value);
+        }
+    }
+
+    private static int parseByDay(String value) {
+        String[] days = { "MO", "TU", "WE", "TH", "FR", "SA", "SU" };
+        int mask = 0;
+        for (String day : value.split(",")) {
+            int dow = Arrays.asList(days).indexOf(day.trim());
+            if (dow < 0) {
+                throw new IllegalArgumentException("Unsupported BYDAY value: " + day);
+            }
+            mask |= 1 << dow;
+        }
+        return mask;
+    }
+
+    private static long requireTimestamp(Object value, String field) {
+        Long parsed = CalendarEvent.parseEpochSecond(value);
+        if (parsed == null) {
+            throw new IllegalArgumentException(field + " entries must be ISO dates or date-times");
+        }
+        return parsed;
+    }
+
+    /**
+     * Monday = 0; 1970-01-01 was a Thursday
+     */
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
@@ -1,21 +1,136 @@
 package com.legaljava;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.service.ChangeBus;
+import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
 
 @Service
 public class EventService {
     
-    private final Map<String, Map<String, Object>> eventStorage = new ConcurrentHashMap<>();
+    private static final TypeReference<Map<String, Object>> WIRE_TYPE = new TypeReference<>() {
+    };
+    
+    // Guards open-ended range queries against never-ending series
+    private static final int MAX_OCCURRENCES_PER_SERIES = 1000;
+    private static final int CHANGE_LOCK_STRIPES = 64;
+    
+    private final Map<String, CalendarEvent> eventStorage = new ConcurrentHashMap<>();
+    private final EventIntervalIndex dateIndex = new EventIntervalIndex();
     private final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
-    public EventService() {
-        // Initialize with some sample events
-        initializeSampleEvents();
+    private final EventLog eventLog;
+    private final ObjectMapper objectMapper;
+    private final ChangeBus changeBus;
+    // Mutations share the read side; a snapshot takes the write side to see a consistent sequence number
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    // Orders changes to one event from reading it until its new version is durable and visible
+    private final Lock[] changeLocks = new Lock[CHANGE_LOCK_STRIPES];
+    
+    public EventService(EventLog eventLog, ObjectMapper objectMapper, ChangeBus changeBus) {
+        this.eventLog = eventLog;
+        this.objectMapper = objectMapper;
+        this.changeBus = changeBus;
+        for (int i = 0; i < changeLocks.length; i++) {
+            changeLocks[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Rebuild the in-memory store from the event log; sample events are only written on first start
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        eventLog.open(this::replay, this::snapshot);
+        if (eventLog.lastSequence() == 0 && eventStorage.isEmpty()) {
+            initializeSampleEvents();
+        }
+    }
+    
+    private void replay(byte op, byte[] payload) throws IOException {
+        if (op == EventLog.PUT) {
+            CalendarEvent event = CalendarEvent.fromWire(objectMapper.readValue(payload, WIRE_TYPE));
+            dateIndex.replace(eventStorage.put(event.getId(), event), event);
+        } else if (op == EventLog.DELETE) {
+            dateIndex.replace(eventStorage.remove(new String(payload, StandardCharsets.UTF_8)), null);
+        }
+    }
+    
+    private EventLog.Snapshot snapshot() {
+        long sequence;
+        List<CalendarEvent> events;
+        snapshotLock.writeLock().lock();
+        try {
+            sequence = eventLog.lastSequence();
+            events = new ArrayList<>(eventStorage.values());
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        
+        // Events are immutable, so serializing outside the lock is safe
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (CalendarEvent event : events) {
+            payloads.add(serialize(event));
+        }
+        return new EventLog.Snapshot(sequence, payloads);
+    }
+    
+    private byte[] serialize(CalendarEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Lock changeLock(String id) {
+        return changeLocks[Math.floorMod(id.hashCode(), changeLocks.length)];
+    }
+    
+    /**
+     * Wait for the group commit carrying this change
+     */
+    private static void awaitDurable(CompletableFuture<Void> written) {
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to persist event change", e.getCause());
+        }
+    }
+    
+    /**
+     * Log a change and, once it is durable, make it visible; a failed write leaves the
+     * stored event and its index entry as they were
+     */
+    private void storeEvent(CalendarEvent event) {
+        byte[] payload = serialize(event);
+        Lock changeLock = changeLock(event.getId());
+        snapshotLock.readLock().lock();
+        changeLock.lock();
+        try {
+            awaitDurable(eventLog.append(eventLog.nextSequence(), EventLog.PUT, payload));
+            dateIndex.replace(eventStorage.put(event.getId(), event), event);
+        } finally {
+            changeLock.unlock();
+            snapshotLock.readLock().unlock();
+        }
     }
     
     private void initializeSampleEvents() {
@@ -46,69 +161,190 @@ public class EventService {
         event3.put("priority", "high");
         event3.put("createdAt", LocalDateTime.now().format(formatter));
         
-        eventStorage.put("1", event1);
-        eventStorage.put("2", event2);
-        eventStorage.put("3", event3);
+        for (Map<String, Object> event : List.of(event1, event2, event3)) {
+            storeEvent(CalendarEvent.fromWire(event));
+        }
     }
     
-    public List<Map<String, Object>> getAllEvents() {
+    public List<CalendarEvent> getAllEvents() {
         return new ArrayList<>(eventStorage.values());
     }
     
-    public Map<String, Object> getEventById(String id) {
+    public CalendarEvent getEventById(String id) {
         return eventStorage.get(id);
     }
     
-    public Map<String, Object> createEvent(Map<String, Object> eventData) {
-        String id = UUID.randomUUID().toString();
-        eventData.put("id", id);
-        eventData.put("createdAt", LocalDateTime.now().format(formatter));
+    public CalendarEvent createEvent(Map<String, Object> eventData) {
+        Map<String, Object> wire = new HashMap<>(eventData);
+        wire.put("id", UUID.randomUUID().toString());
+        wire.put("createdAt", LocalDateTime.now().format(formatter));
+        wire.remove("updatedAt");
+        wire.remove("version");
         
-        // Validate required fields
-        if (!eventData.containsKey("title") || !eventData.containsKey("start")) {
-            throw new IllegalArgumentException("Event must have title and start time");
-        }
-        
-        // Set default values if not provided
-        if (!eventData.containsKey("type")) {
-            eventData.put("type", "event");
-        }
-        if (!eventData.containsKey("priority")) {
-            eventData.put("priority", "medium");
+        // Validates title/start and applies the type and priority defaults
+        CalendarEvent event = CalendarEvent.fromWire(wire);
+        storeEvent(event);
+        publish(ChangeNotification.Action.CREATED, event);
+        return event;
+    }
+    
+    public CalendarEvent updateEvent(String id, Map<String, Object> eventData) {
+        return updateEvent(id, eventData, null);
+    }
+    
+    /**
+     * Apply a partial update as a new immutable version.
+     * With {@code expectedVersions} set, the update only applies if the current version is one
+     * of them; otherwise a {@link VersionConflictException} carries the current event.
+     */
+    public CalendarEvent updateEvent(String id, Map<String, Object> eventData, Set<Long> expectedVersions) {
+        return applyChange(id, expectedVersions, existingEvent -> existingEvent.withChanges(eventData));
+    }
+    
+    /**
+     * Change one instance of a recurring event; returns the updated series, or null when the
+     * series or the instance does not exist
+     */
+    public CalendarEvent updateOccurrence(String id, String recurrenceId, Map<String, Object> changes,
+            Set<Long> expectedVersions) {
+        long originalStart = parseRecurrenceId(recurrenceId);
+        return applyChange(id, expectedVersions, existingEvent -> existingEvent.isOccurrence(originalStart)
+                ? existingEvent.withOccurrenceChanges(originalStart, changes)
+                : null);
+    }
+    
+    /**
+     * Cancel one instance of a recurring event; returns the updated series, or null when the
+     * series or the instance does not exist
+     */
+    public CalendarEvent deleteOccurrence(String id, String recurrenceId, Set<Long> expectedVersions) {
+        long originalStart = parseRecurrenceId(recurrenceId);
+        return applyChange(id, expectedVersions, existingEvent -> existingEvent.isOccurrence(originalStart)
+                ? existingEvent.withExcludedOccurrence(originalStart)
+                : null);
+    }
+    
+    private static long parseRecurrenceId(String recurrenceId) {
+        Long originalStart = CalendarEvent.parseEpochSecond(recurrenceId);
+        if (originalStart == null) {
+            throw new IllegalArgumentException("Recurrence id must be the instance's original start");
         }
-        
-        eventStorage.put(id, eventData);
-        return eventData;
+        return originalStart;
     }
     
-    public Map<String, Object> updateEvent(String id, Map<String, Object> eventData) {
-        Map<String, Object> existingEvent = eventStorage.get(id);
-        if (existingEvent == null) {
-            return null;
+    /**
+     * Swap in the next version of an event; a change that returns null leaves it untouched
+     */
+    private CalendarEvent applyChange(String id, Set<Long> expectedVersions, UnaryOperator<CalendarEvent> change) {
+        // The change lock is held until the new version is visible, so the stored event, its
+        // index entry and its log record are ordered the same way for concurrent edits of one event
+        CalendarEvent changed;
+        Lock changeLock = changeLock(id);
+        snapshotLock.readLock().lock();
+        changeLock.lock();
+        try {
+            CalendarEvent existingEvent = eventStorage.get(id);
+            if (existingEvent == null) {
+                return null;
+            }
+            checkVersion(existingEvent, expectedVersions);
+            changed = change.apply(existingEvent);
+            if (changed == null) {
+                return null;
+            }
+            awaitDurable(eventLog.append(eventLog.nextSequence(), EventLog.PUT, serialize(changed)));
+            eventStorage.put(id, changed);
+            dateIndex.replace(existingEvent, changed);
+        } finally {
+            changeLock.unlock();
+            snapshotLock.readLock().unlock();
         }
-        
-        // Update fields that are provided
-        existingEvent.putAll(eventData);
-        existingEvent.put("id", id); // Ensure ID doesn't change
-        existingEvent.put("updatedAt", LocalDateTime.now().format(formatter));
-        
-        eventStorage.put(id, existingEvent);
-        return existingEvent;
+        publish(ChangeNotification.Action.UPDATED, changed);
+        return changed;
     }
     
     public boolean deleteEvent(String id) {
-        return eventStorage.remove(id) != null;
+        return deleteEvent(id, null);
+    }
+    
+    public boolean deleteEvent(String id, Set<Long> expectedVersions) {
+        Lock changeLock = changeLock(id);
+        snapshotLock.readLock().lock();
+        changeLock.lock();
+        try {
+            CalendarEvent existingEvent = eventStorage.get(id);
+            if (existingEvent == null) {
+                return false;
+            }
+            checkVersion(existingEvent, expectedVersions);
+            awaitDurable(eventLog.append(eventLog.nextSequence(), EventLog.DELETE, id.getBytes(StandardCharsets.UTF_8)));
+            eventStorage.remove(id);
+            dateIndex.replace(existingEvent, null);
+        } finally {
+            changeLock.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        changeBus.publish(ChangeNotification.Topic.EVENTS, ChangeNotification.Action.DELETED, id, null, null);
+        return true;
     }
     
-    public List<Map<String, Object>> getEventsByDateRange(String startDate, String endDate) {
-        // For now, return all events. In a real implementation,
-        // this would filter events by the specified date range
-        return getAllEvents();
+    private void publish(ChangeNotification.Action action, CalendarEvent event) {
+        changeBus.publish(ChangeNotification.Topic.EVENTS, action, event.getId(), null, event.getVersion());
     }
     
-    public List<Map<String, Object>> getEventsByType(String type) {
+    /**
+     * Events overlapping [startDate, endDate), ordered by start. Either bound may be
+     * omitted; bounds are ISO dates or date-times, matching what calendar views send.
+     * Recurring events are expanded into their instances inside the window only.
+     */
+    public List<CalendarEvent> getEventsByDateRange(String startDate, String endDate) {
+        Long from = startDate != null ? CalendarEvent.parseEpochSecond(startDate) : Long.valueOf(Long.MIN_VALUE);
+        Long to = endDate != null ? CalendarEvent.parseEpochSecond(endDate) : Long.valueOf(Long.MAX_VALUE);
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range bounds must be ISO dates or date-times");
+        }
+        
+        List<CalendarEvent> events = new ArrayList<>();
+        boolean expanded = false;
+        for (CalendarEvent event : dateIndex.overlapping(from, to)) {
+            if (event.isRecurring()) {
+                events.addAll(event.occurrencesBetween(from, to, MAX_OCCURRENCES_PER_SERIES));
+                expanded = true;
+            } else {
+                events.add(event);
+            }
+        }
+        if (expanded) {
+            events.sort(Comparator.comparingLong(CalendarEvent::getStartEpochSecond));
+        }
+        return events;
+    }
+    
+    public List<CalendarEvent> getEventsByType(String type) {
         return eventStorage.values().stream()
-                .filter(event -> type.equals(event.get("type")))
+                .filter(event -> type.equals(event.getTypeName()))
                 .collect(ArrayList::new, (list, event) -> list.add(event), ArrayList::addAll);
     }
+    
+    private static void checkVersion(CalendarEvent current, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(current.getVersion())) {
+            throw new VersionConflictException(current);
+        }
+    }
+    
+    /**
+     * Conditional change rejected because the event has moved on to another version
+     */
+    public static class VersionConflictException extends RuntimeException {
+        private final CalendarEvent current;
+        
+        public VersionConflictException(CalendarEvent current) {
+            super("Event " + current.getId() + " is at version " + current.getVersion());
+            this.current = current;
+        }
+        
+        public CalendarEvent getCurrent() {
+            return current;
+        }
+    }
 }
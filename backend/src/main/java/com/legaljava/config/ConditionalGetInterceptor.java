@@ -0,0 +1,61 @@
+package com.legaljava.config;
+
+import com.legaljava.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+
+/**
+ * Conditional GET for endpoints marked {@link VersionedResource}.
+ * The ETag comes from in-memory change counters, so a client holding the current
+ * version gets a 304 without the handler or the database being involved. Clients that
+ * accept gzip are served from {@link PrecompressedResponseFilter} when it has the body.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private PrecompressedResponseFilter precompressedResponses;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        VersionedResource versioned = handlerMethod.getMethodAnnotation(VersionedResource.class);
+        if (versioned == null) {
+            return true;
+        }
+
+        String etag = resourceVersions.etag(versioned.value(), versioned.daily() ? LocalDate.now().toString() : null);
+        // Sets the ETag header as well, so the handler's response carries it
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return false;
+        }
+        // Browsers may otherwise reuse a stale body without revalidating
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // The body is labelled with the version read above; a lagging replica could still be before it
+        ReplicaRoutingDataSource.pinRequestToPrimary();
+
+        if (precompressedResponses.isEnabled() && PrecompressedResponseFilter.acceptsGzip(request)) {
+            String query = request.getQueryString();
+            String key = request.getRequestURI() + (query != null ? "?" + query : "") + "|" + etag;
+            if (precompressedResponses.serveCached(key, response)) {
+                return false;
+            }
+            request.setAttribute(PrecompressedResponseFilter.CACHE_KEY_ATTRIBUTE, key);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.legaljava.config;
+
+import com.legaljava.service.ChangeBus;
+import com.legaljava.service.DocumentChunkIndex;
+import com.legaljava.service.DocumentIngestionService;
+import com.legaljava.service.SemanticAnswerCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for the application's own caches and streams. Endpoint, repository, py-rag
+ * client and connection-pool metrics come from Spring Boot's auto-configuration; see
+ * the management.* settings in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder precompressedResponseMetrics(PrecompressedResponseFilter precompressedResponses) {
+        return registry -> {
+            Gauge.builder("cache.size", precompressedResponses, PrecompressedResponseFilter::getCachedEntries)
+                    .tag("cache", "precompressed-responses")
+                    .description("Gzipped response bodies held in memory")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", precompressedResponses, PrecompressedResponseFilter::getHits)
+                    .tags("cache", "precompressed-responses", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", precompressedResponses, PrecompressedResponseFilter::getMisses)
+                    .tags("cache", "precompressed-responses", "result", "miss")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder semanticAnswerCacheMetrics(SemanticAnswerCache answerCache) {
+        return registry -> {
+            Gauge.builder("cache.size", answerCache, SemanticAnswerCache::size)
+                    .tag("cache", "semantic-answers")
+                    .description("Chat answers held for reuse by similar questions")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", answerCache, SemanticAnswerCache::getHits)
+                    .tags("cache", "semantic-answers", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", answerCache, SemanticAnswerCache::getMisses)
+                    .tags("cache", "semantic-answers", "result", "miss")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder documentIndexMetrics(DocumentChunkIndex chunkIndex) {
+        return registry -> {
+            Gauge.builder("document.index.chunks", chunkIndex, DocumentChunkIndex::size)
+                    .description("Document chunks searchable in the in-process vector index")
+                    .register(registry);
+            Gauge.builder("document.index.documents", chunkIndex, DocumentChunkIndex::getDocumentCount)
+                    .description("Documents covered by the in-process vector index")
+                    .register(registry);
+            Gauge.builder("document.index.ready", chunkIndex, index -> index.isReady() ? 1 : 0)
+                    .description("1 once the vector index has loaded and serves retrieval")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ragIngestMetrics(DocumentIngestionService ingestionService) {
+        return registry -> {
+            Gauge.builder("rag.ingest.lag", ingestionService, DocumentIngestionService::getLagSeconds)
+                    .baseUnit("seconds")
+                    .description("Age of the oldest saved document not yet ingested for retrieval")
+                    .register(registry);
+            Gauge.builder("rag.ingest.pending", ingestionService, DocumentIngestionService::getPendingCount)
+                    .description("Saved documents queued or in flight for ingestion")
+                    .register(registry);
+            FunctionCounter.builder("rag.ingest.documents", ingestionService, DocumentIngestionService::getIngestedCount)
+                    .tag("result", "ingested")
+                    .register(registry);
+            FunctionCounter.builder("rag.ingest.documents", ingestionService, DocumentIngestionService::getFailedCount)
+                    .tag("result", "failed")
+                    .register(registry);
+            FunctionCounter.builder("rag.ingest.batches", ingestionService, DocumentIngestionService::getBatchCount)
+                    .description("Batches sent to py-rag for embedding")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder changeFeedMetrics(ChangeBus changeBus) {
+        return registry -> Gauge.builder("changes.subscribers", changeBus, ChangeBus::getSubscriberCount)
+                .description("Open change-feed streams")
+                .register(registry);
+    }
+}
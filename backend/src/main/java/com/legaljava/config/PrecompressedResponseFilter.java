@@ -0,0 +1,294 @@
+package com.legaljava.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps gzip-compressed bodies of versioned responses keyed by URL and ETag.
+ * {@link ConditionalGetInterceptor} serves hits before the handler runs; on a miss it
+ * marks the request, and this filter buffers, compresses and stores the body on the way
+ * out. Unmarked responses, including streams and SSE, pass through untouched and are
+ * left to the container's own compression, as are async responses: their body is
+ * written after this filter has returned, so there is nothing here to compress.
+ */
+@Component
+public class PrecompressedResponseFilter extends OncePerRequestFilter {
+
+    static final String CACHE_KEY_ATTRIBUTE = PrecompressedResponseFilter.class.getName() + ".key";
+
+    private final int maxEntries;
+    private final long minBytes;
+    private final Map<String, CachedBody> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PrecompressedResponseFilter(@Value("${app.http.precompressed-cache-entries:256}") int maxEntries,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minSize) {
+        this.maxEntries = maxEntries;
+        this.minBytes = minSize.toBytes();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedBody> eldest) {
+                return size() > PrecompressedResponseFilter.this.maxEntries;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Write a cached body for this key, if there is one
+     */
+    boolean serveCached(String key, HttpServletResponse response) throws IOException {
+        CachedBody cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        writeCompressed(response, cached.contentType, cached.gzipped);
+        return true;
+    }
+
+    public int getCachedEntries() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String accepted = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accepted != null && accepted.toLowerCase().contains("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isEnabled() || !"GET".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        DeferredBufferingResponse wrapped = new DeferredBufferingResponse(request, response);
+        chain.doFilter(request, wrapped);
+        if (!wrapped.isBuffering()) {
+            return;
+        }
+        if (request.isAsyncStarted()) {
+            // Went async after writing; the rest follows on the async dispatch, uncompressed
+            wrapped.stopBuffering();
+            return;
+        }
+
+        byte[] body = wrapped.toByteArray();
+        if (response.getStatus() == HttpServletResponse.SC_OK && body.length >= minBytes) {
+            byte[] gzipped = gzip(body);
+            synchronized (cache) {
+                cache.put((String) request.getAttribute(CACHE_KEY_ATTRIBUTE),
+                        new CachedBody(response.getContentType(), gzipped));
+            }
+            writeCompressed(response, response.getContentType(), gzipped);
+        } else {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static void writeCompressed(HttpServletResponse response, String contentType, byte[] gzipped)
+            throws IOException {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(gzipped.length);
+        response.getOutputStream().write(gzipped);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(256, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private record CachedBody(String contentType, byte[] gzipped) {
+    }
+
+    /**
+     * Decides at the first write whether to buffer: only requests the interceptor
+     * marked for caching are held back, everything else streams straight through
+     */
+    private static final class DeferredBufferingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private ByteArrayOutputStream buffer;
+        private ServletOutputStream bufferStream;
+        // The real stream, once buffering has been given up part way
+        private ServletOutputStream direct;
+        private PrintWriter bufferWriter;
+        private Boolean buffering;
+
+        DeferredBufferingResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        boolean isBuffering() {
+            return Boolean.TRUE.equals(buffering);
+        }
+
+        byte[] toByteArray() {
+            if (bufferWriter != null) {
+                bufferWriter.flush();
+            }
+            return buffer.toByteArray();
+        }
+
+        // Writes what was buffered so far and sends later writes straight through
+        void stopBuffering() throws IOException {
+            if (direct != null) {
+                return;
+            }
+            byte[] written = toByteArray();
+            buffering = false;
+            direct = getResponse().getOutputStream();
+            direct.write(written);
+        }
+
+        private boolean decide() {
+            if (buffering == null) {
+                // An async body is written after doFilterInternal has returned, too late to compress
+                buffering = request.getAttribute(CACHE_KEY_ATTRIBUTE) != null && !request.isAsyncStarted()
+                        && request.getDispatcherType() != DispatcherType.ASYNC;
+                if (buffering) {
+                    buffer = new ByteArrayOutputStream(8192);
+                }
+            }
+            return buffering;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (!decide() && bufferStream == null) {
+                return super.getOutputStream();
+            }
+            if (bufferStream == null) {
+                bufferStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        if (direct == null) {
+                            buffer.write(b);
+                        } else {
+                            direct.write(b);
+                        }
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        if (direct == null) {
+                            buffer.write(b, off, len);
+                        } else {
+                            direct.write(b, off, len);
+                        }
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (direct != null) {
+                            direct.flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return direct == null || direct.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        // Non-blocking writes only happen once the request has gone async
+                        stopBuffering(listener);
+                    }
+                };
+            }
+            return bufferStream;
+        }
+
+        private void stopBuffering(WriteListener listener) {
+            try {
+                stopBuffering();
+                direct.setWriteListener(listener);
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (!decide() && bufferStream == null) {
+                return super.getWriter();
+            }
+            if (bufferWriter == null) {
+                String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : "UTF-8";
+                bufferWriter = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                        Charset.forName(encoding, StandardCharsets.UTF_8)));
+            }
+            return bufferWriter;
+        }
+
+        // A buffered body's length is only known once it has been compressed
+        @Override
+        public void setContentLength(int len) {
+            if (!decide()) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (!decide()) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!isBuffering()) {
+                super.flushBuffer();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.legaljava.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in app.datasource.replica-urls.
+ * Read-only transactions, including Spring Data's finder methods, go to a replica;
+ * see {@link ReplicaRoutingDataSource}. Without replicas Spring Boot's single pool is used.
+ * <p>
+ * An entry that Hibernate's shared caches load from a lagging replica after a write would
+ * outlive the write's invalidation and stay stale until the next one. So read-only
+ * transactions here read the second-level cache but do not fill it, and the query cache
+ * is off: Hibernate fills it on a miss whatever the session's cache mode.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica-lag-query:}") String lagQuery,
+            @Value("${app.datasource.replica-max-lag-ms:3000}") long maxLagMillis,
+            @Value("${app.datasource.replica-check-interval-ms:1000}") long checkIntervalMillis,
+            @Value("${app.sync.settle-millis:5000}") long syncSettleMillis) {
+        // A replica can be up to max lag plus one check interval behind; sync's settle window must outlast that
+        if (syncSettleMillis <= maxLagMillis + checkIntervalMillis) {
+            throw new IllegalArgumentException("app.sync.settle-millis must exceed app.datasource.replica-max-lag-ms"
+                    + " plus app.datasource.replica-check-interval-ms");
+        }
+        HikariDataSource primary = pool(properties, environment, meterRegistry);
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = pool(properties, environment, meterRegistry);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagMillis, checkIntervalMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaQueryCache() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaReadCacheMode() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // After initialization, which would otherwise reset the dialect to the factory's
+                if (bean instanceof JpaTransactionManager transactionManager) {
+                    transactionManager.setJpaDialect(new ReplicaReadJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaRoutingDataSource routingDataSource) {
+        return registry -> {
+            for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+                Gauge.builder("db.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                        .tag("pool", replica.name())
+                        .baseUnit("seconds")
+                        .register(registry);
+                Gauge.builder("db.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                        .tag("pool", replica.name())
+                        .register(registry);
+                FunctionCounter.builder("db.reads", replica, ReplicaRoutingDataSource.Replica::getReads)
+                        .tag("pool", replica.name())
+                        .description("Read-only transactions routed to this pool")
+                        .register(registry);
+            }
+            FunctionCounter.builder("db.reads", routingDataSource, ReplicaRoutingDataSource::getPrimaryReads)
+                    .tag("pool", ReplicaRoutingDataSource.PRIMARY)
+                    .description("Read-only transactions routed to this pool")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Switches read-only transactions to {@link CacheStoreMode#BYPASS} for their duration
+     */
+    private static final class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+        private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws SQLException {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            if (!definition.isReadOnly()) {
+                return transactionData;
+            }
+            Object previous = entityManager.getProperties().get(STORE_MODE);
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+            return new ReadOnlyTransactionData(transactionData, entityManager,
+                    previous != null ? previous : CacheStoreMode.USE);
+        }
+
+        @Override
+        public void cleanupTransaction(Object transactionData) {
+            if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+                // The entity manager may outlive the transaction under open-in-view
+                if (readOnly.entityManager.isOpen()) {
+                    readOnly.entityManager.setProperty(STORE_MODE, readOnly.previous);
+                }
+                super.cleanupTransaction(readOnly.delegate);
+            } else {
+                super.cleanupTransaction(transactionData);
+            }
+        }
+
+        private record ReadOnlyTransactionData(Object delegate, EntityManager entityManager, Object previous) {
+        }
+    }
+
+    // Every pool takes the spring.datasource settings, including spring.datasource.hikari.*
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        meterRegistry.ifAvailable(pool::setMetricRegistry);
+        return pool;
+    }
+}
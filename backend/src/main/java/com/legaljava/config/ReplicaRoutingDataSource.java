@@ -0,0 +1,288 @@
+package com.legaljava.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions declared by this application's own services to a replica
+ * and everything else to the primary. Spring Data marks its repository methods read-only
+ * too, but a bare {@code findById} is usually the read half of a read-modify-write; those
+ * stay on the primary, so replicas only serve methods that opted in with
+ * {@code @Transactional(readOnly = true)}. Replicas are polled for replication lag and skipped while they are unreachable or
+ * further behind than the configured limit; with none available, reads fall back to
+ * the primary. Once a request has used the primary, its later reads stay there too,
+ * so a request always sees its own writes. Reads whose results are cached under a
+ * version taken beforehand, or that hand out a resume position, cannot tolerate lag at
+ * all; they run through {@link #onPrimary} or {@link #pinRequestToPrimary}.
+ * <p>
+ * On PostgreSQL lag is measured against the primary: each check samples the primary's
+ * WAL position, and a replica's lag is the age of the newest sample it has replayed.
+ * That bounds how stale its reads can be, to within one check interval, and keeps
+ * growing when its WAL receiver stalls or disconnects while the primary takes writes.
+ * <p>
+ * The key is looked up when a connection is first used, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; the
+ * transaction's read-only flag is not set yet when Hibernate asks for the connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final String PINNED_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".pinned";
+    // Transactions are named after the method that began them
+    private static final String APPLICATION_PACKAGE = "com.legaljava.";
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private static final String PRIMARY_POSITION_QUERY = "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')";
+    // -1 when the server is not a standby, i.e. it is the primary itself; null before anything is replayed
+    private static final String REPLAY_POSITION_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN -1 "
+            + "ELSE pg_wal_lsn_diff(pg_last_wal_replay_lsn(), '0/0') END";
+    private static final int MAX_PRIMARY_SAMPLES = 1024;
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final ScheduledExecutorService lagChecks;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, String lagQuery,
+            long maxLagMillis, long checkIntervalMillis) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.replicas = replicaPools.stream()
+                .map(pool -> new Replica(pool, lagQuery != null && !lagQuery.isBlank() ? lagQuery : lagQueryFor(pool)))
+                .toList();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name(), replica.pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.lagChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecks.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        lagChecks.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+        ((HikariDataSource) getResolvedDefaultDataSource()).close();
+    }
+
+    /**
+     * Run reads that must see every committed write on the primary. Only connections first
+     * used inside the call are affected; a transaction already reading elsewhere stays there.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (PRIMARY_ONLY.get() != null) {
+            return reads.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    /**
+     * Send the rest of the current request's reads to the primary, as a write would
+     */
+    public static void pinRequestToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null) {
+                request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return PRIMARY;
+        }
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transaction == null || !transaction.startsWith(APPLICATION_PACKAGE)) {
+            primaryReads.incrementAndGet();
+            return PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() != null
+                || request != null && request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            primaryReads.incrementAndGet();
+            return PRIMARY;
+        }
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.available) {
+                replica.reads.incrementAndGet();
+                return replica.name();
+            }
+        }
+        primaryReads.incrementAndGet();
+        return PRIMARY;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Read-only transactions that ran on the primary: pinned by an earlier write, marked
+     * primary-only, or for lack of a replica
+     */
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    private void checkReplicas() {
+        // Sampled before any replica is asked, so replaying it means holding everything committed by now
+        PrimaryPosition position = null;
+        if (replicas.stream().anyMatch(replica -> replica.lagQuery == null)) {
+            try (Connection connection = primary.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(PRIMARY_POSITION_QUERY)) {
+                if (rs.next()) {
+                    position = new PrimaryPosition(rs.getLong(1), System.currentTimeMillis());
+                }
+            } catch (SQLException e) {
+                // Without a fresh sample the replicas' lag simply ages from the last one they replayed
+                System.err.println("Could not read the primary's WAL position: " + e.getMessage());
+            }
+        }
+
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.pool.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(replica.lagQuery != null ? replica.lagQuery
+                            : REPLAY_POSITION_QUERY)) {
+                if (replica.lagQuery != null) {
+                    replica.lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                    replica.available = replica.lagSeconds * 1000 <= maxLagMillis;
+                } else {
+                    long replayed = rs.next() ? rs.getLong(1) : 0;
+                    replica.available = replayed < 0 ? markCurrent(replica) : measureLag(replica, position, replayed);
+                }
+                if (wasAvailable && !replica.available) {
+                    System.err.println("Replica " + replica.name() + " is " + replica.lagSeconds
+                            + "s behind; reading from the primary until it catches up");
+                }
+            } catch (SQLException e) {
+                replica.available = false;
+                replica.lagSeconds = Double.NaN;
+                if (wasAvailable) {
+                    System.err.println("Replica " + replica.name() + " is unreachable; reading from the primary: "
+                            + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean markCurrent(Replica replica) {
+        replica.primarySamples.clear();
+        replica.lagSeconds = 0;
+        return true;
+    }
+
+    // Lag is the age of the newest primary sample the replica has replayed; none replayed means too far behind
+    private boolean measureLag(Replica replica, PrimaryPosition position, long replayed) {
+        ArrayDeque<PrimaryPosition> samples = replica.primarySamples;
+        if (position != null) {
+            samples.addLast(position);
+            if (samples.size() > MAX_PRIMARY_SAMPLES) {
+                samples.pollFirst();
+            }
+        }
+        while (samples.size() > 1) {
+            PrimaryPosition first = samples.pollFirst();
+            if (samples.peekFirst().lsn > replayed) {
+                samples.addFirst(first);
+                break;
+            }
+        }
+        PrimaryPosition oldest = samples.peekFirst();
+        if (oldest == null) {
+            replica.lagSeconds = Double.NaN;
+            return false;
+        }
+        replica.lagSeconds = (System.currentTimeMillis() - oldest.sampledAt) / 1000.0;
+        return oldest.lsn <= replayed && replica.lagSeconds * 1000 <= maxLagMillis;
+    }
+
+    // PostgreSQL replicas are compared with the primary's WAL position; see measureLag
+    private static String lagQueryFor(HikariDataSource pool) {
+        return pool.getJdbcUrl().startsWith("jdbc:postgresql:") ? null : "SELECT 0";
+    }
+
+    private record PrimaryPosition(long lsn, long sampledAt) {
+    }
+
+    public static final class Replica {
+        private final HikariDataSource pool;
+        private final String lagQuery;
+        private final AtomicLong reads = new AtomicLong();
+        // WAL positions of the primary, oldest first, from the newest one this replica has replayed on
+        private final ArrayDeque<PrimaryPosition> primarySamples = new ArrayDeque<>();
+        // Unavailable until the first lag check has passed
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(HikariDataSource pool, String lagQuery) {
+            this.pool = pool;
+            this.lagQuery = lagQuery;
+        }
+
+        public String name() {
+            return pool.getPoolName();
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        public long getReads() {
+            return reads.get();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.legaljava.config;
+
+import com.legaljava.dto.ChangeNotification;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response only changes when records of the given types change.
+ * {@link ConditionalGetInterceptor} answers matching If-None-Match requests with 304
+ * before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VersionedResource {
+
+    ChangeNotification.Topic[] value();
+
+    /**
+     * The response also depends on today's date, e.g. "due today" counts
+     */
+    boolean daily() default false;
+}
@@ -1,20 +1,19 @@
 package com.legaljava.config;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Outbound HTTP clients. Both come from Spring Boot's builders so that calls to py-rag
+ * are recorded as http.client.requests; the WebClient.Builder is Boot's auto-configured one.
+ */
 @Configuration
 public class WebClientConfig {
 
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
-    }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
     }
 }
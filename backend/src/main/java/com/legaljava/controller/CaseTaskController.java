@@ -1,8 +1,11 @@
 package com.legaljava.controller;
 
+import com.legaljava.config.VersionedResource;
+import com.legaljava.dto.ChangeNotification;
 import com.legaljava.entity.CaseTask;
 import com.legaljava.entity.WorkersCompCase;
 import com.legaljava.service.CaseTaskService;
+import com.legaljava.service.ResourceVersions;
 import com.legaljava.service.WorkersCompCaseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +34,7 @@ public class CaseTaskController {
 
     @GetMapping
     @Operation(summary = "Get all tasks", description = "Retrieve all case tasks")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getAllTasks() {
         List<CaseTask> tasks = caseTaskService.getAllTasks();
         return ResponseEntity.ok(tasks);
@@ -39,7 +44,7 @@ public class CaseTaskController {
     @Operation(summary = "Get task by ID", description = "Retrieve a specific case task by ID")
     public ResponseEntity<CaseTask> getTaskById(@PathVariable Long id) {
         Optional<CaseTask> taskOpt = caseTaskService.getTaskById(id);
-        return taskOpt.map(ResponseEntity::ok)
+        return taskOpt.map(CaseTaskController::withValidators)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -119,6 +124,7 @@ public class CaseTaskController {
     // Search and filtering endpoints
     @GetMapping("/case/{caseId}")
     @Operation(summary = "Get tasks by case", description = "Retrieve tasks for a specific case")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksByCase(@PathVariable Long caseId) {
         List<CaseTask> tasks = caseTaskService.getTasksByCaseId(caseId);
         return ResponseEntity.ok(tasks);
@@ -126,6 +132,7 @@ public class CaseTaskController {
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get tasks by status", description = "Retrieve tasks by status")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksByStatus(@PathVariable CaseTask.TaskStatus status) {
         List<CaseTask> tasks = caseTaskService.getTasksByStatus(status);
         return ResponseEntity.ok(tasks);
@@ -133,6 +140,7 @@ public class CaseTaskController {
 
     @GetMapping("/type/{taskType}")
     @Operation(summary = "Get tasks by type", description = "Retrieve tasks by task type")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksByType(@PathVariable CaseTask.TaskType taskType) {
         List<CaseTask> tasks = caseTaskService.getTasksByType(taskType);
         return ResponseEntity.ok(tasks);
@@ -140,6 +148,7 @@ public class CaseTaskController {
 
     @GetMapping("/priority/{priority}")
     @Operation(summary = "Get tasks by priority", description = "Retrieve tasks by priority")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksByPriority(@PathVariable CaseTask.TaskPriority priority) {
         List<CaseTask> tasks = caseTaskService.getTasksByPriority(priority);
         return ResponseEntity.ok(tasks);
@@ -147,6 +156,7 @@ public class CaseTaskController {
 
     @GetMapping("/assignee/{assignedTo}")
     @Operation(summary = "Get tasks by assignee", description = "Retrieve tasks assigned to a specific user")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksByAssignee(@PathVariable String assignedTo) {
         List<CaseTask> tasks = caseTaskService.getTasksByAssignee(assignedTo);
         return ResponseEntity.ok(tasks);
@@ -154,6 +164,7 @@ public class CaseTaskController {
 
     @GetMapping("/assignee/{assignedTo}/pending")
     @Operation(summary = "Get pending tasks by assignee", description = "Retrieve pending tasks for a user ordered by priority and due date")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getPendingTasksByAssignee(@PathVariable String assignedTo) {
         List<CaseTask> tasks = caseTaskService.getPendingTasksByAssignee(assignedTo);
         return ResponseEntity.ok(tasks);
@@ -161,6 +172,7 @@ public class CaseTaskController {
 
     @GetMapping("/date-range")
     @Operation(summary = "Get tasks by date range", description = "Retrieve tasks due within a date range")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksByDateRange(
             @RequestParam LocalDate startDate,
             @RequestParam LocalDate endDate) {
@@ -170,6 +182,7 @@ public class CaseTaskController {
 
     @GetMapping("/overdue")
     @Operation(summary = "Get overdue tasks", description = "Retrieve all overdue tasks")
+    @VersionedResource(value = { ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES }, daily = true)
     public ResponseEntity<List<CaseTask>> getOverdueTasks() {
         List<CaseTask> tasks = caseTaskService.getOverdueTasks();
         return ResponseEntity.ok(tasks);
@@ -177,6 +190,7 @@ public class CaseTaskController {
 
     @GetMapping("/due-today")
     @Operation(summary = "Get tasks due today", description = "Retrieve tasks due today")
+    @VersionedResource(value = { ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES }, daily = true)
     public ResponseEntity<List<CaseTask>> getTasksDueToday() {
         List<CaseTask> tasks = caseTaskService.getTasksDueToday();
         return ResponseEntity.ok(tasks);
@@ -184,6 +198,7 @@ public class CaseTaskController {
 
     @GetMapping("/due-this-week")
     @Operation(summary = "Get tasks due this week", description = "Retrieve tasks due this week")
+    @VersionedResource(value = { ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES }, daily = true)
     public ResponseEntity<List<CaseTask>> getTasksDueThisWeek() {
         List<CaseTask> tasks = caseTaskService.getTasksDueThisWeek();
         return ResponseEntity.ok(tasks);
@@ -191,6 +206,7 @@ public class CaseTaskController {
 
     @GetMapping("/due-by/{date}")
     @Operation(summary = "Get tasks due by date", description = "Retrieve tasks due by a specific date")
+    @VersionedResource({ ChangeNotification.Topic.TASKS, ChangeNotification.Topic.CASES })
     public ResponseEntity<List<CaseTask>> getTasksDueByDate(@PathVariable LocalDate date) {
         List<CaseTask> tasks = caseTaskService.getTasksDueByDate(date);
         return ResponseEntity.ok(tasks);
@@ -292,6 +308,7 @@ public class CaseTaskController {
     // Analytics endpoints
     @GetMapping("/analytics")
     @Operation(summary = "Get task analytics", description = "Get task analytics and statistics")
+    @VersionedResource(value = ChangeNotification.Topic.TASKS, daily = true)
     public ResponseEntity<CaseTaskService.TaskAnalytics> getTaskAnalytics() {
         CaseTaskService.TaskAnalytics analytics = caseTaskService.getTaskAnalytics();
         return ResponseEntity.ok(analytics);
@@ -299,6 +316,7 @@ public class CaseTaskController {
 
     @GetMapping("/analytics/user/{assignedTo}")
     @Operation(summary = "Get user task analytics", description = "Get task analytics for a specific user")
+    @VersionedResource(value = ChangeNotification.Topic.TASKS, daily = true)
     public ResponseEntity<CaseTaskService.TaskAnalytics> getUserTaskAnalytics(@PathVariable String assignedTo) {
         CaseTaskService.TaskAnalytics analytics = caseTaskService.getUserTaskAnalytics(assignedTo);
         return ResponseEntity.ok(analytics);
@@ -306,12 +324,33 @@ public class CaseTaskController {
 
     @GetMapping("/case/{caseId}/count/{status}")
     @Operation(summary = "Count tasks by case and status", description = "Count tasks for a case by status")
+    @VersionedResource(ChangeNotification.Topic.TASKS)
     public ResponseEntity<Long> countTasksByCaseAndStatus(@PathVariable Long caseId,
             @PathVariable CaseTask.TaskStatus status) {
         long count = caseTaskService.countTasksByCaseAndStatus(caseId, status);
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * ETag and Last-Modified from the later of the task's and its case's update times,
+     * since the task is serialized with its case; Spring answers a matching conditional GET with 304
+     */
+    private static ResponseEntity<CaseTask> withValidators(CaseTask task) {
+        LocalDateTime updatedAt = task.getUpdatedAt();
+        WorkersCompCase workersCompCase = task.getWorkersCompCase();
+        if (workersCompCase != null && workersCompCase.getUpdatedAt() != null
+                && (updatedAt == null || workersCompCase.getUpdatedAt().isAfter(updatedAt))) {
+            updatedAt = workersCompCase.getUpdatedAt();
+        }
+        if (updatedAt == null) {
+            return ResponseEntity.ok(task);
+        }
+        return ResponseEntity.ok()
+                .eTag(ResourceVersions.entityETag(updatedAt))
+                .lastModified(ResourceVersions.toEpochMilli(updatedAt))
+                .body(task);
+    }
+
     // Exception handler for this controller
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException e) {
@@ -0,0 +1,53 @@
+package com.legaljava.controller;
+
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.service.ChangeBus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "*")
+@Tag(name = "Change Feed", description = "Server-sent events for calendar event, task and case changes")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeBus changeBus;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to changes",
+            description = "Stream change notifications for the given topics (events, tasks, cases; default all). "
+                    + "Reconnects resume from Last-Event-ID; a reset event means reload before applying changes.")
+    public ResponseEntity<SseEmitter> stream(
+            @RequestParam(required = false) String topics,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Set<ChangeNotification.Topic> selected = EnumSet.noneOf(ChangeNotification.Topic.class);
+        Long resumeFrom = null;
+        try {
+            if (topics != null) {
+                for (String topic : topics.split(",")) {
+                    if (!topic.isBlank()) {
+                        selected.add(ChangeNotification.Topic.fromWire(topic));
+                    }
+                }
+            }
+            resumeFrom = changeBus.resumePosition(lastEventId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SseEmitter emitter = changeBus.subscribe(selected, resumeFrom);
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -4,14 +4,21 @@ import com.legaljava.dto.QueryRequest;
 import com.legaljava.dto.QueryResponse;
 import com.legaljava.entity.LegalQuery;
 import com.legaljava.service.LegalQueryService;
+import com.legaljava.service.QueryArchive;
+import com.legaljava.service.QueryHeavyHitters;
+import com.legaljava.service.QueryRetentionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,6 +29,15 @@ public class ChatController {
     
     @Autowired
     private LegalQueryService legalQueryService;
+
+    @Autowired
+    private QueryRetentionService queryRetentionService;
+
+    @Autowired
+    private QueryArchive queryArchive;
+
+    @Autowired
+    private QueryHeavyHitters queryHeavyHitters;
     
     @PostMapping("/query")
     @Operation(summary = "Process a legal query", description = "Submit a legal question and get an AI-powered response with citations")
@@ -32,12 +48,57 @@ public class ChatController {
     }
     
     @GetMapping("/history/{userId}")
-    @Operation(summary = "Get user query history", description = "Retrieve the query history for a specific user")
-    public ResponseEntity<List<LegalQuery>> getUserHistory(@PathVariable String userId) {
-        List<LegalQuery> history = legalQueryService.getUserQueryHistory(userId);
-        return ResponseEntity.ok(history);
+    @Operation(summary = "Get user query history", description = "Newest-first page of a user's queries with truncated previews; pass nextCursor to continue")
+    public ResponseEntity<LegalQueryService.HistoryPage> getUserHistory(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "30") int limit) {
+        try {
+            return ResponseEntity.ok(legalQueryService.getUserQueryHistory(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/queries/{id}")
+    @Operation(summary = "Get a query", description = "Full question and response for one history entry")
+    public ResponseEntity<LegalQuery> getQuery(@PathVariable Long id) {
+        return legalQueryService.getQuery(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/archive/{userId}")
+    @Operation(summary = "Get archived queries", description = "A user's queries moved out of the database by retention, created in [from, to), newest first")
+    public ResponseEntity<List<LegalQuery>> getArchivedQueries(
+            @PathVariable String userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) throws IOException {
+        if (!from.isBefore(to) || limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(queryArchive.find(userId, from, to, limit));
+    }
+
+    @PostMapping("/retention/run")
+    @Operation(summary = "Apply query retention", description = "Archive or delete queries past the retention policy now instead of waiting for the next scheduled run")
+    public ResponseEntity<QueryRetentionService.RetentionResult> runRetention() {
+        QueryRetentionService.RetentionResult result = queryRetentionService.runOnce();
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/analytics/top-queries")
+    @Operation(summary = "Most asked questions", description = "Estimated counts of the most frequent normalized questions over the last HOUR or DAY, from in-memory sketches")
+    public ResponseEntity<QueryHeavyHitters.TopQueries> getTopQueries(
+            @RequestParam(defaultValue = "HOUR") QueryHeavyHitters.Window window,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit <= 0 || limit > 200) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(queryHeavyHitters.top(window, limit));
+    }
+
     @GetMapping("/session/{sessionId}")
     @Operation(summary = "Get session queries", description = "Retrieve all queries for a specific session")
     public ResponseEntity<List<LegalQuery>> getSessionQueries(@PathVariable String sessionId) {
@@ -0,0 +1,75 @@
+package com.legaljava.controller;
+
+import com.legaljava.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/exports")
+@CrossOrigin(origins = "*")
+@Tag(name = "Data Exports", description = "Streaming bulk extracts of cases, tasks and AME reports")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/cases")
+    @Operation(summary = "Export cases", description = "Stream all workers' compensation cases as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportCases(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(ExportService.Dataset.CASES, "cases", format, gzip);
+    }
+
+    @GetMapping("/tasks")
+    @Operation(summary = "Export tasks", description = "Stream all case tasks as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(ExportService.Dataset.TASKS, "case-tasks", format, gzip);
+    }
+
+    @GetMapping("/reports")
+    @Operation(summary = "Export AME reports", description = "Stream all AME reports as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(ExportService.Dataset.REPORTS, "ame-reports", format, gzip);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportService.Dataset dataset, String name,
+            ExportService.Format format, boolean gzip) {
+        String fileName = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (OutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    exportService.export(dataset, format, compressed);
+                }
+            } else {
+                exportService.export(dataset, format, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    // Exception handler for this controller
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<String> handleRuntimeException(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+    }
+}
@@ -1,15 +1,17 @@
 package com.legaljava.controller;
 
+import com.legaljava.config.VersionedResource;
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.dto.KanbanCard;
+import com.legaljava.dto.KanbanMoveRequest;
+import com.legaljava.service.KanbanService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.util.List;
-import java.util.Map;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,24 +22,28 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Kanban Board", description = "Endpoints for managing the kanban board")
 public class KanbanController {
 
-    @Operation(summary = "Get kanban columns", description = "Returns all columns for the kanban board")
+    @Autowired
+    private KanbanService kanbanService;
+
+    @Operation(summary = "Get kanban columns", description = "Returns one column per task status with its cards in board order")
     @GetMapping("/columns")
-    public ResponseEntity<String> getColumns() {
-        try {
-            // Load the mock data from the static JSON file
-            Resource resource = new ClassPathResource("public/mock/columns.json");
-            String content = new String(Files.readAllBytes(resource.getFile().toPath()), StandardCharsets.UTF_8);
-            return ResponseEntity.ok(content);
-        } catch (IOException e) {
-            return ResponseEntity.status(500).body("Error loading columns data");
-        }
+    @VersionedResource(ChangeNotification.Topic.TASKS)
+    public ResponseEntity<List<KanbanService.Column>> getColumns() {
+        return ResponseEntity.ok(kanbanService.getBoard());
     }
 
-    @Operation(summary = "Update kanban columns", description = "Updates the columns for the kanban board")
-    @PatchMapping("/columns")
-    public ResponseEntity<String> updateColumns(@RequestBody String columns) {
-        // In a real implementation, this would save the data
-        // For now, we just return the data that was sent
-        return ResponseEntity.ok(columns);
+    @Operation(summary = "Move a card", description = "Move one task to a column, directly below afterTaskId or at the top when it is omitted")
+    @PatchMapping("/columns/tasks/{taskId}")
+    public ResponseEntity<KanbanCard> moveCard(@PathVariable Long taskId, @Valid @RequestBody KanbanMoveRequest move) {
+        try {
+            return ResponseEntity.ok(kanbanService.moveCard(taskId, move.getStatus(), move.getAfterTaskId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // The client's board is out of date; it should reload before retrying
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.legaljava.controller;
+
+import com.legaljava.service.ExportService;
+import com.legaljava.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+@Tag(name = "Delta Sync", description = "Incremental changes to cases, tasks and AME reports since a resume token")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping("/cases")
+    @Operation(summary = "Case changes", description = "Cases changed and deleted since the given token or ISO date-time")
+    public ResponseEntity<SyncService.SyncPage> syncCases(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return sync(ExportService.Dataset.CASES, since, limit);
+    }
+
+    @GetMapping("/tasks")
+    @Operation(summary = "Task changes", description = "Case tasks changed and deleted since the given token or ISO date-time")
+    public ResponseEntity<SyncService.SyncPage> syncTasks(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return sync(ExportService.Dataset.TASKS, since, limit);
+    }
+
+    @GetMapping("/reports")
+    @Operation(summary = "AME report changes", description = "AME reports changed and deleted since the given token or ISO date-time")
+    public ResponseEntity<SyncService.SyncPage> syncReports(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return sync(ExportService.Dataset.REPORTS, since, limit);
+    }
+
+    private ResponseEntity<SyncService.SyncPage> sync(ExportService.Dataset dataset, String since, int limit) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(dataset, since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
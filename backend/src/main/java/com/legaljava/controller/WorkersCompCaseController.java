@@ -1,6 +1,15 @@
 package com.legaljava.controller;
 
+import com.legaljava.config.VersionedResource;
+import com.legaljava.dto.BenefitCalculationRequest;
+import com.legaljava.dto.BenefitCalculationResult;
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.dto.ProjectionScenario;
+import com.legaljava.dto.StatuteRiskCase;
 import com.legaljava.entity.WorkersCompCase;
+import com.legaljava.service.CaseImportService;
+import com.legaljava.service.ReserveProjectionService;
+import com.legaljava.service.ResourceVersions;
 import com.legaljava.service.WorkersCompCaseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,8 +19,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,8 +36,15 @@ public class WorkersCompCaseController {
     @Autowired
     private WorkersCompCaseService workersCompCaseService;
 
+    @Autowired
+    private ReserveProjectionService reserveProjectionService;
+
+    @Autowired
+    private CaseImportService caseImportService;
+
     @GetMapping
     @Operation(summary = "Get all cases", description = "Retrieve all workers' compensation cases")
+    @VersionedResource(ChangeNotification.Topic.CASES)
     public ResponseEntity<List<WorkersCompCase>> getAllCases() {
         List<WorkersCompCase> cases = workersCompCaseService.getAllCases();
         return ResponseEntity.ok(cases);
@@ -35,7 +54,7 @@ public class WorkersCompCaseController {
     @Operation(summary = "Get case by ID", description = "Retrieve a specific workers' compensation case by ID")
     public ResponseEntity<WorkersCompCase> getCaseById(@PathVariable Long id) {
         Optional<WorkersCompCase> caseOpt = workersCompCaseService.getCaseById(id);
-        return caseOpt.map(ResponseEntity::ok)
+        return caseOpt.map(workersCompCase -> withValidators(workersCompCase, workersCompCase.getUpdatedAt()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -97,6 +116,7 @@ public class WorkersCompCaseController {
     // Search and filtering endpoints
     @GetMapping("/search/claimant")
     @Operation(summary = "Search cases by claimant", description = "Search cases by claimant name")
+    @VersionedResource(ChangeNotification.Topic.CASES)
     public ResponseEntity<List<WorkersCompCase>> searchByClaimant(@RequestParam String claimantName) {
         List<WorkersCompCase> cases = workersCompCaseService.searchCasesByClaimant(claimantName);
         return ResponseEntity.ok(cases);
@@ -104,6 +124,7 @@ public class WorkersCompCaseController {
 
     @GetMapping("/search/employer")
     @Operation(summary = "Search cases by employer", description = "Search cases by employer name")
+    @VersionedResource(ChangeNotification.Topic.CASES)
     public ResponseEntity<List<WorkersCompCase>> searchByEmployer(@RequestParam String employerName) {
         List<WorkersCompCase> cases = workersCompCaseService.searchCasesByEmployer(employerName);
         return ResponseEntity.ok(cases);
@@ -111,6 +132,7 @@ public class WorkersCompCaseController {
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get cases by status", description = "Retrieve cases by status")
+    @VersionedResource(ChangeNotification.Topic.CASES)
     public ResponseEntity<List<WorkersCompCase>> getCasesByStatus(@PathVariable WorkersCompCase.CaseStatus status) {
         List<WorkersCompCase> cases = workersCompCaseService.getCasesByStatus(status);
         return ResponseEntity.ok(cases);
@@ -118,6 +140,7 @@ public class WorkersCompCaseController {
 
     @GetMapping("/adjuster/{adjusterName}")
     @Operation(summary = "Get cases by adjuster", description = "Retrieve cases assigned to a specific adjuster")
+    @VersionedResource(ChangeNotification.Topic.CASES)
     public ResponseEntity<List<WorkersCompCase>> getCasesByAdjuster(@PathVariable String adjusterName) {
         List<WorkersCompCase> cases = workersCompCaseService.getCasesByAdjuster(adjusterName);
         return ResponseEntity.ok(cases);
@@ -136,6 +159,23 @@ public class WorkersCompCaseController {
         return ResponseEntity.ok(approaching);
     }
 
+    @GetMapping("/statute-scan")
+    @Operation(summary = "Scan statute of limitations", description = "Find all cases whose injury date falls inside the statute-of-limitations warning window")
+    @VersionedResource(value = ChangeNotification.Topic.CASES, daily = true)
+    public ResponseEntity<List<StatuteRiskCase>> scanStatuteOfLimitations(
+            @RequestParam(required = false) Integer warningDays,
+            @RequestParam(required = false) Integer limitDays,
+            @RequestParam(defaultValue = "false") boolean includeExpired,
+            @RequestParam(required = false) List<WorkersCompCase.CaseStatus> status) {
+        try {
+            List<StatuteRiskCase> cases = workersCompCaseService.scanStatuteOfLimitations(
+                    warningDays, limitDays, includeExpired, status);
+            return ResponseEntity.ok(cases);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}/days-since-injury")
     @Operation(summary = "Get days since injury", description = "Calculate days since injury date")
     public ResponseEntity<Long> getDaysSinceInjury(@PathVariable Long id) {
@@ -165,13 +205,54 @@ public class WorkersCompCaseController {
         return ResponseEntity.ok(indemnity);
     }
 
+    @PostMapping("/benefits/batch")
+    @Operation(summary = "Batch calculate benefits", description = "Calculate TD rate and PD indemnity for many cases in one request")
+    public ResponseEntity<List<BenefitCalculationResult>> calculateBenefitsBatch(
+            @RequestBody List<BenefitCalculationRequest> requests) {
+        List<BenefitCalculationResult> results = workersCompCaseService.calculateBenefitsBatch(requests);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/reserve-projection")
+    @Operation(summary = "Project portfolio reserves", description = "Project TD/PD exposure for all open and litigated cases under one or more rate scenarios")
+    public ResponseEntity<ReserveProjectionService.PortfolioProjection> projectReserves(
+            @RequestBody(required = false) List<ProjectionScenario> scenarios) {
+        ReserveProjectionService.PortfolioProjection projection = reserveProjectionService.projectPortfolio(scenarios);
+        return ResponseEntity.ok(projection);
+    }
+
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson", "text/plain",
+            "application/octet-stream" })
+    @Operation(summary = "Bulk import cases", description = "Import historical cases from a CSV or NDJSON body; invalid and duplicate rows are reported per row")
+    public ResponseEntity<CaseImportService.ImportResult> importCases(InputStream body,
+            @RequestParam(defaultValue = "CSV") CaseImportService.Format format,
+            @RequestParam(defaultValue = "false") boolean createTasks) throws IOException {
+        CaseImportService.ImportResult result = caseImportService.importCases(body, format, createTasks);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/dashboard")
     @Operation(summary = "Get dashboard statistics", description = "Get workers' compensation dashboard statistics")
+    @VersionedResource(ChangeNotification.Topic.CASES)
     public ResponseEntity<WorkersCompCaseService.WorkersCompDashboard> getDashboardStats() {
         WorkersCompCaseService.WorkersCompDashboard dashboard = workersCompCaseService.getDashboardStats();
         return ResponseEntity.ok(dashboard);
     }
 
+    /**
+     * ETag and Last-Modified from the row's update time; Spring answers a matching
+     * conditional GET with 304
+     */
+    private static <T> ResponseEntity<T> withValidators(T body, LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+                .eTag(ResourceVersions.entityETag(updatedAt))
+                .lastModified(ResourceVersions.toEpochMilli(updatedAt))
+                .body(body);
+    }
+
     // Exception handler for this controller
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException e) {
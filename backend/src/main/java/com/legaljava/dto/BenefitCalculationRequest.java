@@ -0,0 +1,35 @@
+package com.legaljava.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class BenefitCalculationRequest {
+    private Long caseId;
+    private BigDecimal weeklyWage;
+    private BigDecimal disabilityRating;
+    private LocalDate injuryDate;
+
+    // Constructors
+    public BenefitCalculationRequest() {}
+
+    public BenefitCalculationRequest(Long caseId, BigDecimal weeklyWage, BigDecimal disabilityRating,
+            LocalDate injuryDate) {
+        this.caseId = caseId;
+        this.weeklyWage = weeklyWage;
+        this.disabilityRating = disabilityRating;
+        this.injuryDate = injuryDate;
+    }
+
+    // Getters and Setters
+    public Long getCaseId() { return caseId; }
+    public void setCaseId(Long caseId) { this.caseId = caseId; }
+
+    public BigDecimal getWeeklyWage() { return weeklyWage; }
+    public void setWeeklyWage(BigDecimal weeklyWage) { this.weeklyWage = weeklyWage; }
+
+    public BigDecimal getDisabilityRating() { return disabilityRating; }
+    public void setDisabilityRating(BigDecimal disabilityRating) { this.disabilityRating = disabilityRating; }
+
+    public LocalDate getInjuryDate() { return injuryDate; }
+    public void setInjuryDate(LocalDate injuryDate) { this.injuryDate = injuryDate; }
+}
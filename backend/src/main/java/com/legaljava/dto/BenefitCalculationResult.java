@@ -0,0 +1,46 @@
+package com.legaljava.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class BenefitCalculationResult {
+    private Long caseId;
+    private BigDecimal temporaryDisabilityRate;
+    private BigDecimal permanentDisabilityIndemnity;
+    private LocalDate rateScheduleEffectiveFrom;
+    private String error;
+
+    // Constructors
+    public BenefitCalculationResult() {}
+
+    public BenefitCalculationResult(Long caseId, BigDecimal temporaryDisabilityRate,
+            BigDecimal permanentDisabilityIndemnity, LocalDate rateScheduleEffectiveFrom) {
+        this.caseId = caseId;
+        this.temporaryDisabilityRate = temporaryDisabilityRate;
+        this.permanentDisabilityIndemnity = permanentDisabilityIndemnity;
+        this.rateScheduleEffectiveFrom = rateScheduleEffectiveFrom;
+    }
+
+    public static BenefitCalculationResult failed(Long caseId, String error) {
+        BenefitCalculationResult result = new BenefitCalculationResult();
+        result.setCaseId(caseId);
+        result.setError(error);
+        return result;
+    }
+
+    // Getters and Setters
+    public Long getCaseId() { return caseId; }
+    public void setCaseId(Long caseId) { this.caseId = caseId; }
+
+    public BigDecimal getTemporaryDisabilityRate() { return temporaryDisabilityRate; }
+    public void setTemporaryDisabilityRate(BigDecimal temporaryDisabilityRate) { this.temporaryDisabilityRate = temporaryDisabilityRate; }
+
+    public BigDecimal getPermanentDisabilityIndemnity() { return permanentDisabilityIndemnity; }
+    public void setPermanentDisabilityIndemnity(BigDecimal permanentDisabilityIndemnity) { this.permanentDisabilityIndemnity = permanentDisabilityIndemnity; }
+
+    public LocalDate getRateScheduleEffectiveFrom() { return rateScheduleEffectiveFrom; }
+    public void setRateScheduleEffectiveFrom(LocalDate rateScheduleEffectiveFrom) { this.rateScheduleEffectiveFrom = rateScheduleEffectiveFrom; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,42 @@
+package com.legaljava.dto;
+
+import com.legaljava.entity.WorkersCompCase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only slice of a case carrying only the columns reserve projection needs
+ */
+public class CaseExposureRow {
+    private final Long id;
+    private final WorkersCompCase.CaseStatus status;
+    private final String adjusterName;
+    private final String employerName;
+    private final BigDecimal weeklyWage;
+    private final BigDecimal disabilityRating;
+    private final LocalDate injuryDate;
+    private final LocalDate maxMedicalImprovement;
+
+    public CaseExposureRow(Long id, WorkersCompCase.CaseStatus status, String adjusterName, String employerName,
+            BigDecimal weeklyWage, BigDecimal disabilityRating, LocalDate injuryDate,
+            LocalDate maxMedicalImprovement) {
+        this.id = id;
+        this.status = status;
+        this.adjusterName = adjusterName;
+        this.employerName = employerName;
+        this.weeklyWage = weeklyWage;
+        this.disabilityRating = disabilityRating;
+        this.injuryDate = injuryDate;
+        this.maxMedicalImprovement = maxMedicalImprovement;
+    }
+
+    public Long getId() { return id; }
+    public WorkersCompCase.CaseStatus getStatus() { return status; }
+    public String getAdjusterName() { return adjusterName; }
+    public String getEmployerName() { return employerName; }
+    public BigDecimal getWeeklyWage() { return weeklyWage; }
+    public BigDecimal getDisabilityRating() { return disabilityRating; }
+    public LocalDate getInjuryDate() { return injuryDate; }
+    public LocalDate getMaxMedicalImprovement() { return maxMedicalImprovement; }
+}
@@ -0,0 +1,61 @@
+package com.legaljava.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.Instant;
+
+/**
+ * One entry on the change feed. Carries identifiers only; subscribers fetch the
+ * record itself when they need it.
+ */
+public class ChangeNotification {
+
+    public enum Topic {
+        EVENTS, TASKS, CASES;
+
+        @JsonValue
+        public String getWireName() {
+            return name().toLowerCase();
+        }
+
+        public static Topic fromWire(String value) {
+            for (Topic topic : values()) {
+                if (topic.getWireName().equalsIgnoreCase(value.trim())) {
+                    return topic;
+                }
+            }
+            throw new IllegalArgumentException("Unknown change topic: " + value);
+        }
+    }
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final long sequence;
+    private final Topic topic;
+    private final Action action;
+    private final String id;
+    private final Long caseId;
+    private final Long version;
+    private final Instant occurredAt;
+
+    public ChangeNotification(long sequence, Topic topic, Action action, String id, Long caseId, Long version,
+            Instant occurredAt) {
+        this.sequence = sequence;
+        this.topic = topic;
+        this.action = action;
+        this.id = id;
+        this.caseId = caseId;
+        this.version = version;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getSequence() { return sequence; }
+    public Topic getTopic() { return topic; }
+    public Action getAction() { return action; }
+    public String getId() { return id; }
+    public Long getCaseId() { return caseId; }
+    public Long getVersion() { return version; }
+    public Instant getOccurredAt() { return occurredAt; }
+}
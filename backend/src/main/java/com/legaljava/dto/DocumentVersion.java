@@ -0,0 +1,19 @@
+package com.legaljava.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A document's id and last update, enough to tell whether a derived copy is stale
+ */
+public class DocumentVersion {
+    private final Long id;
+    private final LocalDateTime updatedAt;
+
+    public DocumentVersion(Long id, LocalDateTime updatedAt) {
+        this.id = id;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() { return id; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
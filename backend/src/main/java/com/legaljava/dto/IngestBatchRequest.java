@@ -0,0 +1,21 @@
+package com.legaljava.dto;
+
+import java.util.List;
+
+/**
+ * Body of py-rag's /ingest/batch: every chunk of every document is embedded in one call
+ */
+public class IngestBatchRequest {
+    private List<IngestDocument> documents;
+
+    // Constructors
+    public IngestBatchRequest() {}
+
+    public IngestBatchRequest(List<IngestDocument> documents) {
+        this.documents = documents;
+    }
+
+    // Getters and Setters
+    public List<IngestDocument> getDocuments() { return documents; }
+    public void setDocuments(List<IngestDocument> documents) { this.documents = documents; }
+}
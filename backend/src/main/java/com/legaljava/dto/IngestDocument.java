@@ -0,0 +1,26 @@
+package com.legaljava.dto;
+
+import java.util.List;
+
+/**
+ * A document's text, already split into passages, for py-rag to embed
+ */
+public class IngestDocument {
+    private Long documentId;
+    private List<String> chunks;
+
+    // Constructors
+    public IngestDocument() {}
+
+    public IngestDocument(Long documentId, List<String> chunks) {
+        this.documentId = documentId;
+        this.chunks = chunks;
+    }
+
+    // Getters and Setters
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+
+    public List<String> getChunks() { return chunks; }
+    public void setChunks(List<String> chunks) { this.chunks = chunks; }
+}
@@ -0,0 +1,42 @@
+package com.legaljava.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.legaljava.entity.CaseTask;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only slice of a task carrying only what a board card shows
+ */
+public class KanbanCard {
+    private final String id;
+    private final String name;
+    private final Long caseId;
+    private final CaseTask.TaskPriority priority;
+    private final LocalDate dueDate;
+    private final String assignedTo;
+    private final CaseTask.TaskStatus status;
+    private final Long position;
+
+    public KanbanCard(Long id, String name, Long caseId, CaseTask.TaskPriority priority, LocalDate dueDate,
+            String assignedTo, CaseTask.TaskStatus status, Long position) {
+        this.id = String.valueOf(id);
+        this.name = name;
+        this.caseId = caseId;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.assignedTo = assignedTo;
+        this.status = status;
+        this.position = position;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public Long getCaseId() { return caseId; }
+    public CaseTask.TaskPriority getPriority() { return priority; }
+    public LocalDate getDueDate() { return dueDate; }
+    public String getAssignedTo() { return assignedTo; }
+    @JsonIgnore
+    public CaseTask.TaskStatus getStatus() { return status; }
+    public Long getPosition() { return position; }
+}
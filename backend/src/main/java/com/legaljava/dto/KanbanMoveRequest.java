@@ -0,0 +1,21 @@
+package com.legaljava.dto;
+
+import com.legaljava.entity.CaseTask;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Drag-and-drop move: the target column, and the card to land below (null for the top)
+ */
+public class KanbanMoveRequest {
+    @NotNull(message = "Target column is required")
+    private CaseTask.TaskStatus status;
+
+    private Long afterTaskId;
+
+    // Getters and Setters
+    public CaseTask.TaskStatus getStatus() { return status; }
+    public void setStatus(CaseTask.TaskStatus status) { this.status = status; }
+
+    public Long getAfterTaskId() { return afterTaskId; }
+    public void setAfterTaskId(Long afterTaskId) { this.afterTaskId = afterTaskId; }
+}
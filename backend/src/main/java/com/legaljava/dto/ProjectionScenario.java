@@ -0,0 +1,41 @@
+package com.legaljava.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rate scenario for a portfolio reserve projection.
+ * A null rateEffectiveDate applies each case's own injury-date schedule.
+ */
+public class ProjectionScenario {
+    private String name;
+    private LocalDate rateEffectiveDate;
+    private BigDecimal wageAdjustmentPercent = BigDecimal.ZERO;
+    private int temporaryDisabilityCapWeeks = 104;
+    private LocalDate asOfDate;
+
+    // Constructors
+    public ProjectionScenario() {}
+
+    public ProjectionScenario(String name, LocalDate rateEffectiveDate, BigDecimal wageAdjustmentPercent) {
+        this.name = name;
+        this.rateEffectiveDate = rateEffectiveDate;
+        this.wageAdjustmentPercent = wageAdjustmentPercent;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDate getRateEffectiveDate() { return rateEffectiveDate; }
+    public void setRateEffectiveDate(LocalDate rateEffectiveDate) { this.rateEffectiveDate = rateEffectiveDate; }
+
+    public BigDecimal getWageAdjustmentPercent() { return wageAdjustmentPercent; }
+    public void setWageAdjustmentPercent(BigDecimal wageAdjustmentPercent) { this.wageAdjustmentPercent = wageAdjustmentPercent; }
+
+    public int getTemporaryDisabilityCapWeeks() { return temporaryDisabilityCapWeeks; }
+    public void setTemporaryDisabilityCapWeeks(int temporaryDisabilityCapWeeks) { this.temporaryDisabilityCapWeeks = temporaryDisabilityCapWeeks; }
+
+    public LocalDate getAsOfDate() { return asOfDate; }
+    public void setAsOfDate(LocalDate asOfDate) { this.asOfDate = asOfDate; }
+}
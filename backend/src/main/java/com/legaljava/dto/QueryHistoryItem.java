@@ -0,0 +1,37 @@
+package com.legaljava.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a user's chat history: previews of the question and answer, with the
+ * full text left to be fetched by id when the conversation is opened
+ */
+public class QueryHistoryItem {
+    private final Long id;
+    private final String sessionId;
+    private final LocalDateTime createdAt;
+    private final String queryPreview;
+    private final boolean queryTruncated;
+    private final String responsePreview;
+    private final boolean responseTruncated;
+
+    public QueryHistoryItem(Long id, String sessionId, LocalDateTime createdAt, String queryPreview,
+            Integer queryLength, String responsePreview, Integer responseLength) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.createdAt = createdAt;
+        this.queryPreview = queryPreview;
+        this.queryTruncated = queryLength != null && queryPreview != null && queryLength > queryPreview.length();
+        this.responsePreview = responsePreview;
+        this.responseTruncated = responseLength != null && responsePreview != null
+                && responseLength > responsePreview.length();
+    }
+
+    public Long getId() { return id; }
+    public String getSessionId() { return sessionId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getQueryPreview() { return queryPreview; }
+    public boolean isQueryTruncated() { return queryTruncated; }
+    public String getResponsePreview() { return responsePreview; }
+    public boolean isResponseTruncated() { return responseTruncated; }
+}
@@ -0,0 +1,23 @@
+package com.legaljava.dto;
+
+import java.util.List;
+
+/**
+ * A chat question as sent to py-rag together with the passages the backend retrieved
+ * for it, so py-rag can skip its own similarity search
+ */
+public class RagQueryRequest extends QueryRequest {
+    private List<RetrievedChunk> context;
+
+    // Constructors
+    public RagQueryRequest() {}
+
+    public RagQueryRequest(QueryRequest request, List<RetrievedChunk> context) {
+        super(request.getQuery(), request.getUserId(), request.getSessionId());
+        this.context = context;
+    }
+
+    // Getters and Setters
+    public List<RetrievedChunk> getContext() { return context; }
+    public void setContext(List<RetrievedChunk> context) { this.context = context; }
+}
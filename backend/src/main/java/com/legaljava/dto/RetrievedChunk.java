@@ -0,0 +1,34 @@
+package com.legaljava.dto;
+
+/**
+ * A passage of a legal document selected as context for answering a question
+ */
+public class RetrievedChunk {
+    private Long documentId;
+    private String title;
+    private String content;
+    private Double score;
+
+    // Constructors
+    public RetrievedChunk() {}
+
+    public RetrievedChunk(Long documentId, String title, String content, Double score) {
+        this.documentId = documentId;
+        this.title = title;
+        this.content = content;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+}
@@ -0,0 +1,49 @@
+package com.legaljava.dto;
+
+import com.legaljava.entity.WorkersCompCase;
+
+import java.time.LocalDate;
+
+/**
+ * Case whose injury date falls inside the statute-of-limitations warning window
+ */
+public class StatuteRiskCase {
+    private final Long caseId;
+    private final String caseNumber;
+    private final String claimantName;
+    private final String employerName;
+    private final String adjusterName;
+    private final WorkersCompCase.CaseStatus status;
+    private final LocalDate injuryDate;
+    private LocalDate filingDeadline;
+    private long daysSinceInjury;
+    private long daysRemaining;
+
+    public StatuteRiskCase(Long caseId, String caseNumber, String claimantName, String employerName,
+            String adjusterName, WorkersCompCase.CaseStatus status, LocalDate injuryDate) {
+        this.caseId = caseId;
+        this.caseNumber = caseNumber;
+        this.claimantName = claimantName;
+        this.employerName = employerName;
+        this.adjusterName = adjusterName;
+        this.status = status;
+        this.injuryDate = injuryDate;
+    }
+
+    public Long getCaseId() { return caseId; }
+    public String getCaseNumber() { return caseNumber; }
+    public String getClaimantName() { return claimantName; }
+    public String getEmployerName() { return employerName; }
+    public String getAdjusterName() { return adjusterName; }
+    public WorkersCompCase.CaseStatus getStatus() { return status; }
+    public LocalDate getInjuryDate() { return injuryDate; }
+
+    public LocalDate getFilingDeadline() { return filingDeadline; }
+    public void setFilingDeadline(LocalDate filingDeadline) { this.filingDeadline = filingDeadline; }
+
+    public long getDaysSinceInjury() { return daysSinceInjury; }
+    public void setDaysSinceInjury(long daysSinceInjury) { this.daysSinceInjury = daysSinceInjury; }
+
+    public long getDaysRemaining() { return daysRemaining; }
+    public void setDaysRemaining(long daysRemaining) { this.daysRemaining = daysRemaining; }
+}
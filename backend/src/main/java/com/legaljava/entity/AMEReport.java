@@ -1,6 +1,8 @@
 package com.legaljava.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
@@ -8,7 +10,11 @@ import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "ame_reports")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ame-reports")
+@Table(name = "ame_reports", indexes = {
+        @Index(name = "idx_ame_reports_updated_at", columnList = "updated_at, id")
+})
 public class AMEReport {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
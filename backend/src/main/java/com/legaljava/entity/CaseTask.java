@@ -1,14 +1,31 @@
 package com.legaljava.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Entity
-@Table(name = "case_tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "case-tasks")
+@Table(name = "case_tasks", indexes = {
+        @Index(name = "idx_case_tasks_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_case_tasks_board_position", columnList = "status, board_position")
+})
 public class CaseTask {
+    /**
+     * Spacing between neighbouring cards, so a drag-and-drop move can almost always
+     * take the midpoint of its new neighbours and touch only its own row
+     */
+    public static final long BOARD_POSITION_GAP = 1L << 16;
+
+    // Seeded from the clock so positions keep increasing across restarts
+    private static final AtomicLong LAST_BOARD_POSITION = new AtomicLong();
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -48,6 +65,26 @@ public class CaseTask {
 
     private LocalDateTime completedAt;
 
+    // Order within its status column on the Kanban board
+    @Column(name = "board_position")
+    private Long boardPosition;
+
+    @PrePersist
+    protected void onCreate() {
+        if (boardPosition == null) {
+            boardPosition = nextBoardPosition();
+        }
+    }
+
+    /**
+     * Position that puts a new card at the bottom of its column
+     */
+    public static long nextBoardPosition() {
+        long clock = System.currentTimeMillis() * BOARD_POSITION_GAP;
+        return LAST_BOARD_POSITION.accumulateAndGet(clock,
+                (last, now) -> Math.max(now, last + BOARD_POSITION_GAP));
+    }
+
     // Constructors
     public CaseTask() {
     }
@@ -167,6 +204,14 @@ public class CaseTask {
         this.completedAt = completedAt;
     }
 
+    public Long getBoardPosition() {
+        return boardPosition;
+    }
+
+    public void setBoardPosition(Long boardPosition) {
+        this.boardPosition = boardPosition;
+    }
+
     public enum TaskType {
         DOCUMENT_REVIEW, MEDICAL_REVIEW, DEADLINE_COMPLIANCE,
         BENEFIT_CALCULATION, CORRESPONDENCE, SETTLEMENT_NEGOTIATION,
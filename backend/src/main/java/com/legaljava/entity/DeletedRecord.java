@@ -0,0 +1,59 @@
+package com.legaljava.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone left behind by a delete so delta-sync clients learn the record is gone
+ */
+@Entity
+@Table(name = "deleted_records", indexes = {
+        @Index(name = "idx_deleted_records_type_deleted_at", columnList = "record_type, deleted_at, id")
+})
+public class DeletedRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type", nullable = false)
+    private RecordType recordType;
+
+    @Column(name = "record_id", nullable = false)
+    private Long recordId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public DeletedRecord() {
+    }
+
+    public DeletedRecord(RecordType recordType, Long recordId) {
+        this.recordType = recordType;
+        this.recordId = recordId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public RecordType getRecordType() {
+        return recordType;
+    }
+
+    public Long getRecordId() {
+        return recordId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public enum RecordType {
+        CASE, TASK, REPORT
+    }
+}
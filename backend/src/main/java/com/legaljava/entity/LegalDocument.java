@@ -28,15 +28,21 @@ public class LegalDocument {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Set by every change, cleared once py-rag has ingested that version; null on rows it loaded itself
+    @Column(name = "ingest_pending")
+    private Boolean ingestPending;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        ingestPending = true;
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        ingestPending = true;
     }
 
     // Constructors
@@ -69,4 +75,7 @@ public class LegalDocument {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Boolean getIngestPending() { return ingestPending; }
+    public void setIngestPending(Boolean ingestPending) { this.ingestPending = ingestPending; }
 }
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "legal_queries")
+@Table(name = "legal_queries", indexes = {
+        @Index(name = "idx_legal_queries_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_legal_queries_created_at", columnList = "created_at, id")
+})
 public class LegalQuery {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
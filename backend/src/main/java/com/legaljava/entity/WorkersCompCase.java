@@ -1,6 +1,9 @@
 package com.legaljava.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
@@ -8,7 +11,14 @@ import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "workers_comp_cases")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "workers-comp-cases")
+@Table(name = "workers_comp_cases", indexes = {
+        @Index(name = "idx_workers_comp_cases_injury_date", columnList = "injury_date"),
+        @Index(name = "idx_workers_comp_cases_updated_at", columnList = "updated_at, id")
+})
+// Tasks and AME reports reference their case lazily; the proxy's internals are not part of the JSON
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class WorkersCompCase {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,8 +2,11 @@ package com.legaljava.repository;
 
 import com.legaljava.entity.AMEReport;
 import com.legaljava.entity.WorkersCompCase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,6 +18,7 @@ public interface AMEReportRepository extends JpaRepository<AMEReport, Long> {
 
     List<AMEReport> findByWorkersCompCase(WorkersCompCase workersCompCase);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AMEReport> findByWorkersCompCaseId(Long caseId);
 
     List<AMEReport> findByDoctorNameContainingIgnoreCase(String doctorName);
@@ -25,6 +29,7 @@ public interface AMEReportRepository extends JpaRepository<AMEReport, Long> {
 
     List<AMEReport> findByExaminationDateBetween(LocalDate startDate, LocalDate endDate);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT r FROM AMEReport r WHERE r.workersCompCase.id = :caseId AND r.isFinal = true")
     List<AMEReport> findFinalReportsByCaseId(@Param("caseId") Long caseId);
 
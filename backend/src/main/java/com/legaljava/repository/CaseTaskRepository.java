@@ -1,13 +1,19 @@
 package com.legaljava.repository;
 
+import com.legaljava.dto.KanbanCard;
 import com.legaljava.entity.CaseTask;
 import com.legaljava.entity.WorkersCompCase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,6 +21,7 @@ public interface CaseTaskRepository extends JpaRepository<CaseTask, Long> {
 
     List<CaseTask> findByWorkersCompCase(WorkersCompCase workersCompCase);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CaseTask> findByWorkersCompCaseId(Long caseId);
 
     List<CaseTask> findByStatus(CaseTask.TaskStatus status);
@@ -36,6 +43,27 @@ public interface CaseTaskRepository extends JpaRepository<CaseTask, Long> {
     @Query("SELECT t FROM CaseTask t WHERE t.assignedTo = :assignedTo AND t.status = 'PENDING' ORDER BY t.priority DESC, t.dueDate ASC")
     List<CaseTask> findPendingTasksByAssigneeOrderedByPriorityAndDueDate(@Param("assignedTo") String assignedTo);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(t) FROM CaseTask t WHERE t.workersCompCase.id = :caseId AND t.status = :status")
     long countByCaseIdAndStatus(@Param("caseId") Long caseId, @Param("status") CaseTask.TaskStatus status);
+
+    @Query("SELECT new com.legaljava.dto.KanbanCard(t.id, t.title, t.workersCompCase.id, t.priority, t.dueDate, "
+            + "t.assignedTo, t.status, t.boardPosition) FROM CaseTask t ORDER BY t.status, t.boardPosition, t.id")
+    List<KanbanCard> findKanbanCards();
+
+    @Query("SELECT MIN(t.boardPosition) FROM CaseTask t WHERE t.status = :status AND t.id <> :excludeId")
+    Long findFirstBoardPosition(@Param("status") CaseTask.TaskStatus status, @Param("excludeId") Long excludeId);
+
+    @Query("SELECT MIN(t.boardPosition) FROM CaseTask t WHERE t.status = :status AND t.boardPosition > :position "
+            + "AND t.id <> :excludeId")
+    Long findNextBoardPosition(@Param("status") CaseTask.TaskStatus status, @Param("position") Long position,
+            @Param("excludeId") Long excludeId);
+
+    @Query("SELECT t.id FROM CaseTask t WHERE t.status = :status AND t.id <> :excludeId ORDER BY t.boardPosition, t.id")
+    List<Long> findBoardOrder(@Param("status") CaseTask.TaskStatus status, @Param("excludeId") Long excludeId);
+
+    @Modifying
+    @Query("UPDATE CaseTask t SET t.boardPosition = :position, t.updatedAt = :updatedAt WHERE t.id = :id")
+    int updateBoardPosition(@Param("id") Long id, @Param("position") Long position,
+            @Param("updatedAt") LocalDateTime updatedAt);
 }
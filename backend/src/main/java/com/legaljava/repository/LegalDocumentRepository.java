@@ -1,11 +1,14 @@
 package com.legaljava.repository;
 
+import com.legaljava.dto.DocumentVersion;
 import com.legaljava.entity.LegalDocument;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -18,4 +21,15 @@ public interface LegalDocumentRepository extends JpaRepository<LegalDocument, Lo
     
     @Query("SELECT d FROM LegalDocument d WHERE d.documentType = :type AND (d.title ILIKE %:keyword% OR d.content ILIKE %:keyword%)")
     List<LegalDocument> searchByTypeAndKeyword(@Param("type") String type, @Param("keyword") String keyword);
+
+    @Query("SELECT new com.legaljava.dto.DocumentVersion(d.id, d.updatedAt) FROM LegalDocument d")
+    List<DocumentVersion> findAllVersions();
+
+    @Query("SELECT d.id FROM LegalDocument d WHERE d.ingestPending = true ORDER BY d.updatedAt")
+    List<Long> findIngestPendingIds();
+
+    // Bulk update, so @PreUpdate does not mark it pending again; a newer save keeps its marker
+    @Modifying
+    @Query("UPDATE LegalDocument d SET d.ingestPending = false WHERE d.id = :id AND d.updatedAt = :updatedAt")
+    int markIngested(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -1,9 +1,14 @@
 package com.legaljava.repository;
 
+import com.legaljava.dto.QueryHistoryItem;
 import com.legaljava.entity.LegalQuery;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,4 +16,18 @@ public interface LegalQueryRepository extends JpaRepository<LegalQuery, Long> {
     List<LegalQuery> findByUserId(String userId);
     List<LegalQuery> findBySessionId(String sessionId);
     List<LegalQuery> findByUserIdOrderByCreatedAtDesc(String userId);
+
+    /**
+     * Newest-first page of a user's history strictly before the given position, walking
+     * the (user_id, created_at, id) index; only the first previewLength characters of
+     * each question and answer are read
+     */
+    @Query("SELECT new com.legaljava.dto.QueryHistoryItem(q.id, q.sessionId, q.createdAt, "
+            + "SUBSTRING(q.query, 1, :previewLength), LENGTH(q.query), "
+            + "SUBSTRING(q.response, 1, :previewLength), LENGTH(q.response)) FROM LegalQuery q "
+            + "WHERE q.userId = :userId AND q.createdAt <= :beforeAt "
+            + "AND (q.createdAt < :beforeAt OR q.id < :beforeId) "
+            + "ORDER BY q.createdAt DESC, q.id DESC")
+    List<QueryHistoryItem> findHistoryPage(@Param("userId") String userId, @Param("beforeAt") LocalDateTime beforeAt,
+            @Param("beforeId") Long beforeId, @Param("previewLength") int previewLength, Limit limit);
 }
@@ -1,18 +1,26 @@
 package com.legaljava.repository;
 
+import com.legaljava.dto.CaseExposureRow;
+import com.legaljava.dto.StatuteRiskCase;
 import com.legaljava.entity.WorkersCompCase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkersCompCaseRepository extends JpaRepository<WorkersCompCase, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<WorkersCompCase> findByCaseNumber(String caseNumber);
 
     List<WorkersCompCase> findByClaimantNameContainingIgnoreCase(String claimantName);
@@ -31,6 +39,19 @@ public interface WorkersCompCaseRepository extends JpaRepository<WorkersCompCase
     @Query("SELECT c FROM WorkersCompCase c WHERE c.maxMedicalImprovement IS NULL AND c.status = 'OPEN'")
     List<WorkersCompCase> findOpenCasesWithoutMMI();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(c) FROM WorkersCompCase c WHERE c.status = :status")
     long countByStatus(@Param("status") WorkersCompCase.CaseStatus status);
+
+    @Query("SELECT new com.legaljava.dto.StatuteRiskCase(c.id, c.caseNumber, c.claimantName, c.employerName, "
+            + "c.adjusterName, c.status, c.injuryDate) FROM WorkersCompCase c "
+            + "WHERE c.injuryDate BETWEEN :oldest AND :newest AND c.status IN :statuses ORDER BY c.injuryDate")
+    List<StatuteRiskCase> findStatuteRiskCases(@Param("oldest") LocalDate oldest, @Param("newest") LocalDate newest,
+            @Param("statuses") Collection<WorkersCompCase.CaseStatus> statuses);
+
+    @Query("SELECT new com.legaljava.dto.CaseExposureRow(c.id, c.status, c.adjusterName, c.employerName, "
+            + "c.weeklyWage, c.disabilityRating, c.injuryDate, c.maxMedicalImprovement) "
+            + "FROM WorkersCompCase c WHERE c.status IN :statuses")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CaseExposureRow> streamExposureRows(@Param("statuses") Collection<WorkersCompCase.CaseStatus> statuses);
 }
@@ -1,11 +1,15 @@
 package com.legaljava.service;
 
 import com.legaljava.entity.AMEReport;
+import com.legaljava.entity.DeletedRecord;
 import com.legaljava.entity.WorkersCompCase;
 import com.legaljava.repository.AMEReportRepository;
+import com.legaljava.repository.DeletedRecordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -22,7 +26,11 @@ public class AMEReportService {
     @Autowired
     private RestTemplate restTemplate;
 
-    private static final String RAG_SERVICE_URL = "http://localhost:8001";
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @Value("${app.py-rag.summarize-base-url:http://localhost:8001}")
+    private String summarizeBaseUrl;
 
     // Basic CRUD operations
     public List<AMEReport> getAllReports() {
@@ -37,8 +45,13 @@ public class AMEReportService {
         return ameReportRepository.save(ameReport);
     }
 
+    /**
+     * Delete a report, leaving a tombstone for delta sync in the same transaction
+     */
+    @Transactional
     public void deleteReport(Long id) {
         ameReportRepository.deleteById(id);
+        deletedRecordRepository.save(new DeletedRecord(DeletedRecord.RecordType.REPORT, id));
     }
 
     // Business logic methods
@@ -100,7 +113,7 @@ public class AMEReportService {
 
         try {
             // Call Python RAG service for summarization
-            String summarizeUrl = RAG_SERVICE_URL + "/summarize_ame_report";
+            String summarizeUrl = summarizeBaseUrl + "/summarize_ame_report";
 
             // Create request payload
             SummarizeRequest request = new SummarizeRequest(report.getReportContent());
@@ -159,6 +172,7 @@ public class AMEReportService {
     /**
      * Get comprehensive report analytics
      */
+    @Transactional(readOnly = true)
     public AMEReportAnalytics getReportAnalytics() {
         long totalReports = ameReportRepository.count();
         long finalReports = ameReportRepository.findByIsFinal(true).size();
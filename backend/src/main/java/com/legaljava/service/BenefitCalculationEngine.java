@@ -0,0 +1,183 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.BenefitCalculationResult;
+import com.legaljava.service.BenefitRateTable.RateSchedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Fixed-point TD/PD benefit arithmetic.
+ * Wages are long cents and disability ratings are long hundredths of a percent,
+ * so the per-case path does no allocation. Results round HALF_UP to the cent,
+ * exactly as the original BigDecimal calculation did.
+ */
+@Component
+public class BenefitCalculationEngine {
+
+    /** Returned by {@link #toFixedPoint} when a value cannot be held exactly as a long */
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private static final long RATING_SCALE = 100L;
+
+    @Autowired
+    private BenefitRateTable rateTable;
+
+    public BenefitRateTable getRateTable() {
+        return rateTable;
+    }
+
+    /**
+     * Weekly TD rate in cents: tdFactor of weekly wage clamped to the schedule min/max
+     */
+    public static long temporaryDisabilityRateCents(long weeklyWageCents, RateSchedule schedule) {
+        long raw = Math.multiplyExact(weeklyWageCents, schedule.getTdFactor());
+        if (raw > Math.multiplyExact(schedule.getMaxWeeklyCents(), BenefitRateTable.FACTOR_SCALE)) {
+            return schedule.getMaxWeeklyCents();
+        }
+        if (raw < Math.multiplyExact(schedule.getMinWeeklyCents(), BenefitRateTable.FACTOR_SCALE)) {
+            return schedule.getMinWeeklyCents();
+        }
+        return roundHalfUp(raw, BenefitRateTable.FACTOR_SCALE);
+    }
+
+    /**
+     * PD indemnity in cents: unrounded clamped TD base rate times (rating x weeks per percent)
+     */
+    public static long permanentDisabilityIndemnityCents(long weeklyWageCents, long ratingHundredths,
+            RateSchedule schedule) {
+        long base = Math.multiplyExact(weeklyWageCents, schedule.getTdFactor());
+        long max = Math.multiplyExact(schedule.getMaxWeeklyCents(), BenefitRateTable.FACTOR_SCALE);
+        long min = Math.multiplyExact(schedule.getMinWeeklyCents(), BenefitRateTable.FACTOR_SCALE);
+        if (base > max) {
+            base = max;
+        }
+        if (base < min) {
+            base = min;
+        }
+        long weeksHundredths = Math.multiplyExact(ratingHundredths, schedule.getPdWeeksPerPercent());
+        long raw = Math.multiplyExact(base, weeksHundredths);
+        return roundHalfUp(raw, BenefitRateTable.FACTOR_SCALE * RATING_SCALE);
+    }
+
+    /**
+     * Weekly TD rate for an injury date; null wage yields zero
+     */
+    public BigDecimal calculateTemporaryDisabilityRate(BigDecimal weeklyWage, LocalDate injuryDate) {
+        if (weeklyWage == null)
+            return BigDecimal.ZERO;
+
+        RateSchedule schedule = rateTable.scheduleFor(injuryDate);
+        long wageCents = toFixedPoint(weeklyWage, 2);
+        if (wageCents != NOT_REPRESENTABLE) {
+            try {
+                return BigDecimal.valueOf(temporaryDisabilityRateCents(wageCents, schedule), 2);
+            } catch (ArithmeticException overflow) {
+                // fall through to the exact path
+            }
+        }
+        return temporaryDisabilityRateExact(weeklyWage, schedule);
+    }
+
+    /**
+     * PD indemnity for an injury date; null rating or wage yields zero
+     */
+    public BigDecimal calculatePermanentDisabilityIndemnity(BigDecimal disabilityRating, BigDecimal weeklyWage,
+            LocalDate injuryDate) {
+        if (disabilityRating == null || weeklyWage == null)
+            return BigDecimal.ZERO;
+
+        RateSchedule schedule = rateTable.scheduleFor(injuryDate);
+        long wageCents = toFixedPoint(weeklyWage, 2);
+        long ratingHundredths = toFixedPoint(disabilityRating, 2);
+        if (wageCents != NOT_REPRESENTABLE && ratingHundredths != NOT_REPRESENTABLE) {
+            try {
+                return BigDecimal.valueOf(
+                        permanentDisabilityIndemnityCents(wageCents, ratingHundredths, schedule), 2);
+            } catch (ArithmeticException overflow) {
+                // fall through to the exact path
+            }
+        }
+        return permanentDisabilityIndemnityExact(disabilityRating, weeklyWage, schedule);
+    }
+
+    /**
+     * TD rate and PD indemnity for one case, converting the inputs to fixed point once
+     */
+    public BenefitCalculationResult calculate(Long caseId, BigDecimal weeklyWage, BigDecimal disabilityRating,
+            LocalDate injuryDate) {
+        RateSchedule schedule = rateTable.scheduleFor(injuryDate);
+        long wageCents = toFixedPoint(weeklyWage, 2);
+        long ratingHundredths = disabilityRating != null ? toFixedPoint(disabilityRating, 2) : 0L;
+        if (wageCents != NOT_REPRESENTABLE && ratingHundredths != NOT_REPRESENTABLE) {
+            try {
+                long tdCents = temporaryDisabilityRateCents(wageCents, schedule);
+                long pdCents = disabilityRating != null
+                        ? permanentDisabilityIndemnityCents(wageCents, ratingHundredths, schedule)
+                        : 0L;
+                return new BenefitCalculationResult(caseId, BigDecimal.valueOf(tdCents, 2),
+                        disabilityRating != null ? BigDecimal.valueOf(pdCents, 2) : BigDecimal.ZERO,
+                        schedule.getEffectiveFrom());
+            } catch (ArithmeticException overflow) {
+                // fall through to the exact path
+            }
+        }
+        return new BenefitCalculationResult(caseId,
+                temporaryDisabilityRateExact(weeklyWage, schedule),
+                disabilityRating != null
+                        ? permanentDisabilityIndemnityExact(disabilityRating, weeklyWage, schedule)
+                        : BigDecimal.ZERO,
+                schedule.getEffectiveFrom());
+    }
+
+    /**
+     * Convert to a long with the given number of decimal places, or NOT_REPRESENTABLE
+     * when that would lose precision or overflow
+     */
+    public static long toFixedPoint(BigDecimal value, int scale) {
+        BigDecimal candidate = value.scale() > scale ? value.stripTrailingZeros() : value;
+        if (candidate.scale() > scale) {
+            return NOT_REPRESENTABLE;
+        }
+        try {
+            return candidate.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            return NOT_REPRESENTABLE;
+        }
+    }
+
+    private static long roundHalfUp(long value, long divisor) {
+        long half = divisor / 2;
+        return value >= 0 ? Math.addExact(value, half) / divisor : -(Math.addExact(-value, half) / divisor);
+    }
+
+    // Exact BigDecimal path for sub-cent inputs or values too large for long arithmetic
+
+    private static BigDecimal temporaryDisabilityRateExact(BigDecimal weeklyWage, RateSchedule schedule) {
+        BigDecimal rate = weeklyWage.multiply(tdFactor(schedule));
+        if (rate.compareTo(schedule.getMaxWeeklyRate()) > 0)
+            return schedule.getMaxWeeklyRate();
+        if (rate.compareTo(schedule.getMinWeeklyRate()) < 0)
+            return schedule.getMinWeeklyRate();
+        return rate.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal permanentDisabilityIndemnityExact(BigDecimal disabilityRating, BigDecimal weeklyWage,
+            RateSchedule schedule) {
+        BigDecimal baseRate = weeklyWage.multiply(tdFactor(schedule));
+        if (baseRate.compareTo(schedule.getMaxWeeklyRate()) > 0)
+            baseRate = schedule.getMaxWeeklyRate();
+        if (baseRate.compareTo(schedule.getMinWeeklyRate()) < 0)
+            baseRate = schedule.getMinWeeklyRate();
+
+        BigDecimal weeks = disabilityRating.multiply(BigDecimal.valueOf(schedule.getPdWeeksPerPercent()));
+        return baseRate.multiply(weeks).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal tdFactor(RateSchedule schedule) {
+        return BigDecimal.valueOf(schedule.getTdFactor(), 4);
+    }
+}
@@ -0,0 +1,104 @@
+package com.legaljava.service;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Effective-dated California TD/PD rate schedules.
+ * Benefits are paid at the rates in force on the date of injury, so each
+ * schedule applies from its effective date until the next one starts.
+ */
+@Component
+public class BenefitRateTable {
+
+    /** Scale of {@link RateSchedule#getTdFactor()}: 6667 means 0.6667 of weekly wage */
+    public static final long FACTOR_SCALE = 10_000L;
+
+    // Copy-on-write so per-case lookups never lock
+    private volatile NavigableMap<LocalDate, RateSchedule> schedules = new TreeMap<>();
+
+    public BenefitRateTable() {
+        // California DWC published TD limits (updated annually each January)
+        register(new RateSchedule(LocalDate.of(2023, 1, 1), 153_971L, 23_095L, 6_667L, 3L));
+        register(new RateSchedule(LocalDate.of(2024, 1, 1), 161_915L, 24_286L, 6_667L, 3L));
+        register(new RateSchedule(LocalDate.of(2025, 1, 1), 168_029L, 25_203L, 6_667L, 3L));
+    }
+
+    /**
+     * Add or replace the schedule effective from its start date
+     */
+    public synchronized void register(RateSchedule schedule) {
+        NavigableMap<LocalDate, RateSchedule> updated = new TreeMap<>(schedules);
+        updated.put(schedule.getEffectiveFrom(), schedule);
+        schedules = updated;
+    }
+
+    /**
+     * Schedule in force on the given date (today when null); dates before the first schedule use the earliest one
+     */
+    public RateSchedule scheduleFor(LocalDate date) {
+        NavigableMap<LocalDate, RateSchedule> current = schedules;
+        Map.Entry<LocalDate, RateSchedule> entry = current.floorEntry(date != null ? date : LocalDate.now());
+        return entry != null ? entry.getValue() : current.firstEntry().getValue();
+    }
+
+    public RateSchedule current() {
+        return scheduleFor(LocalDate.now());
+    }
+
+    /**
+     * Immutable rate schedule with all amounts held as long cents
+     */
+    public static final class RateSchedule {
+        private final LocalDate effectiveFrom;
+        private final long maxWeeklyCents;
+        private final long minWeeklyCents;
+        private final long tdFactor;
+        private final long pdWeeksPerPercent;
+
+        public RateSchedule(LocalDate effectiveFrom, long maxWeeklyCents, long minWeeklyCents,
+                long tdFactor, long pdWeeksPerPercent) {
+            if (minWeeklyCents > maxWeeklyCents) {
+                throw new IllegalArgumentException("Minimum TD rate exceeds maximum for " + effectiveFrom);
+            }
+            this.effectiveFrom = effectiveFrom;
+            this.maxWeeklyCents = maxWeeklyCents;
+            this.minWeeklyCents = minWeeklyCents;
+            this.tdFactor = tdFactor;
+            this.pdWeeksPerPercent = pdWeeksPerPercent;
+        }
+
+        public LocalDate getEffectiveFrom() {
+            return effectiveFrom;
+        }
+
+        public long getMaxWeeklyCents() {
+            return maxWeeklyCents;
+        }
+
+        public long getMinWeeklyCents() {
+            return minWeeklyCents;
+        }
+
+        public long getTdFactor() {
+            return tdFactor;
+        }
+
+        public long getPdWeeksPerPercent() {
+            return pdWeeksPerPercent;
+        }
+
+        public BigDecimal getMaxWeeklyRate() {
+            return BigDecimal.valueOf(maxWeeklyCents, 2);
+        }
+
+        public BigDecimal getMinWeeklyRate() {
+            return BigDecimal.valueOf(minWeeklyCents, 2);
+        }
+    }
+}
@@ -0,0 +1,632 @@
+package com.legaljava.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.entity.CaseTask;
+import com.legaljava.entity.WorkersCompCase;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk loader for historical claims.
+ * The request body is parsed on the calling thread and handed out in chunks to a
+ * bounded worker pool; each chunk is validated, deduplicated on caseNumber and
+ * written with JDBC batch inserts in its own transaction. Bad rows are reported
+ * individually and never abort the rest of the import.
+ */
+@Service
+public class CaseImportService {
+
+    private static final String INSERT_CASE = "INSERT INTO workers_comp_cases (case_number, claimant_name, "
+            + "employer_name, injury_date, injury_description, status, adjuster_name, adjuster_id, weekly_wage, "
+            + "disability_rating, max_medical_improvement, case_notes, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TASK = "INSERT INTO case_tasks (case_id, title, task_type, priority, "
+            + "status, due_date, created_at, updated_at, board_position) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor importPool;
+    private final int batchSize;
+
+    public CaseImportService(PlatformTransactionManager transactionManager,
+            @Value("${app.import.workers:0}") int workers,
+            @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        // Bounded queue plus caller-runs keeps the parser from racing ahead of the database
+        this.importPool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "case-import");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.batchSize = batchSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importPool.shutdown();
+    }
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Import every record in the stream
+     */
+    public ImportResult importCases(InputStream input, Format format, boolean createStandardTasks) throws IOException {
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun(createStandardTasks);
+        List<Future<?>> pending = new ArrayList<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        List<RawRow> chunk = new ArrayList<>(batchSize);
+        try {
+            Iterator<RawRow> rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == batchSize) {
+                    List<RawRow> batch = chunk;
+                    pending.add(importPool.submit(() -> importChunk(batch, run)));
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (ParseFailure e) {
+            run.error(e.rowNumber, null, e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            List<RawRow> batch = chunk;
+            pending.add(importPool.submit(() -> importChunk(batch, run)));
+        }
+
+        try {
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Import interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Import chunk failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            // Rows written over JDBC bypass the change bus; chunks that committed before a failure count too
+            resourceVersions.bump(ChangeNotification.Topic.CASES, ChangeNotification.Topic.TASKS);
+            // ...and Hibernate's query cache, which would keep serving the old counts and lists
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return run.toResult(elapsedMillis);
+    }
+
+    private void importChunk(List<RawRow> rawRows, ImportRun run) {
+        List<CaseRecord> valid = new ArrayList<>(rawRows.size());
+        for (RawRow raw : rawRows) {
+            run.totalRows.incrementAndGet();
+            try {
+                CaseRecord record = CaseRecord.parse(raw);
+                if (!run.seenCaseNumbers.add(record.caseNumber)) {
+                    run.duplicates.incrementAndGet();
+                    run.error(raw.rowNumber, record.caseNumber, "Duplicate caseNumber in import file");
+                    continue;
+                }
+                valid.add(record);
+            } catch (IllegalArgumentException e) {
+                run.failed.incrementAndGet();
+                run.error(raw.rowNumber, raw.get("casenumber"), e.getMessage());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = existingCaseNumbers(valid);
+        List<CaseRecord> toInsert = new ArrayList<>(valid.size());
+        for (CaseRecord record : valid) {
+            if (existing.contains(record.caseNumber)) {
+                run.duplicates.incrementAndGet();
+                run.error(record.rowNumber, record.caseNumber, "Case number already exists");
+            } else {
+                toInsert.add(record);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(toInsert, run));
+            run.imported.addAndGet(toInsert.size());
+        } catch (RuntimeException batchFailure) {
+            // One bad row fails the whole JDBC batch; retry row by row to pinpoint it
+            for (CaseRecord record : toInsert) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(record), run));
+                    run.imported.incrementAndGet();
+                } catch (RuntimeException e) {
+                    run.failed.incrementAndGet();
+                    run.error(record.rowNumber, record.caseNumber, rootMessage(e));
+                }
+            }
+        }
+    }
+
+    private Set<String> existingCaseNumbers(List<CaseRecord> records) {
+        List<String> caseNumbers = new ArrayList<>(records.size());
+        for (CaseRecord record : records) {
+            caseNumbers.add(record.caseNumber);
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT case_number FROM workers_comp_cases WHERE case_number IN (:caseNumbers)",
+                new MapSqlParameterSource("caseNumbers", caseNumbers), String.class));
+    }
+
+    private void insertBatch(List<CaseRecord> records, ImportRun run) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_CASE, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.caseNumber);
+            ps.setString(2, record.claimantName);
+            ps.setString(3, record.employerName);
+            ps.setDate(4, Date.valueOf(record.injuryDate));
+            ps.setString(5, record.injuryDescription);
+            ps.setString(6, record.status.name());
+            ps.setString(7, record.adjusterName);
+            ps.setString(8, record.adjusterId);
+            ps.setBigDecimal(9, record.weeklyWage);
+            ps.setBigDecimal(10, record.disabilityRating);
+            ps.setDate(11, record.maxMedicalImprovement != null ? Date.valueOf(record.maxMedicalImprovement) : null);
+            ps.setString(12, record.caseNotes);
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+
+        if (run.createStandardTasks) {
+            insertStandardTasks(records, now, run);
+        }
+    }
+
+    /**
+     * Same tasks as {@link CaseTaskService#createStandardTasksForCase}, written as one batch per chunk
+     */
+    private void insertStandardTasks(List<CaseRecord> records, Timestamp now, ImportRun run) {
+        List<String> caseNumbers = new ArrayList<>(records.size());
+        for (CaseRecord record : records) {
+            caseNumbers.add(record.caseNumber);
+        }
+        List<Long> caseIds = namedJdbcTemplate.queryForList(
+                "SELECT id FROM workers_comp_cases WHERE case_number IN (:caseNumbers)",
+                new MapSqlParameterSource("caseNumbers", caseNumbers), Long.class);
+
+        List<Object[]> tasks = new ArrayList<>(caseIds.size() * CaseTaskService.STANDARD_TASKS.size());
+        LocalDate today = LocalDate.now();
+        for (Long caseId : caseIds) {
+            for (CaseTaskService.StandardTaskTemplate template : CaseTaskService.STANDARD_TASKS) {
+                tasks.add(new Object[] { caseId, template.getTitle(), template.getTaskType().name(),
+                        template.getPriority().name(), "PENDING",
+                        Date.valueOf(today.plusDays(template.getDueInDays())), now, now,
+                        CaseTask.nextBoardPosition() });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks);
+        run.tasksCreated.addAndGet(tasks.size());
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // Parsing
+
+    private Iterator<RawRow> csvRows(BufferedReader reader) {
+        CsvSupport.RecordReader csv = new CsvSupport.RecordReader(reader);
+        String[] header;
+        try {
+            header = csv.next();
+        } catch (IOException e) {
+            throw new ParseFailure(csv.getLineNumber(), e.getMessage());
+        }
+        if (header == null) {
+            return List.<RawRow>of().iterator();
+        }
+        String[] keys = new String[header.length];
+        for (int i = 0; i < header.length; i++) {
+            keys[i] = normalizeKey(header[i]);
+        }
+
+        return new RowIterator() {
+            @Override
+            RawRow advance() {
+                long line = csv.getLineNumber();
+                try {
+                    while (true) {
+                        line = csv.getLineNumber();
+                        String[] values = csv.next();
+                        if (values == null) {
+                            return null;
+                        }
+                        if (values.length == 1 && values[0].isBlank()) {
+                            continue;
+                        }
+                        Map<String, String> fields = new HashMap<>();
+                        for (int i = 0; i < keys.length && i < values.length; i++) {
+                            fields.put(keys[i], values[i]);
+                        }
+                        return new RawRow(line, fields);
+                    }
+                } catch (IOException e) {
+                    // Reported against the row it started on
+                    throw new ParseFailure(line, e.getMessage());
+                }
+            }
+        };
+    }
+
+    private Iterator<RawRow> ndjsonRows(BufferedReader reader) {
+        return new RowIterator() {
+            private long line = 0;
+
+            @Override
+            RawRow advance() {
+                try {
+                    String text;
+                    while ((text = reader.readLine()) != null) {
+                        line++;
+                        if (text.isBlank()) {
+                            continue;
+                        }
+                        Map<String, String> fields = new HashMap<>();
+                        try {
+                            JsonNode node = objectMapper.readTree(text);
+                            node.fields().forEachRemaining(entry -> fields.put(normalizeKey(entry.getKey()),
+                                    entry.getValue().isNull() ? null : entry.getValue().asText()));
+                        } catch (JsonProcessingException e) {
+                            fields.put(PARSE_ERROR, "Malformed JSON: " + e.getOriginalMessage());
+                        }
+                        return new RawRow(line, fields);
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new ParseFailure(line, e.getMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads one row ahead, only when asked: a row that fails to parse surfaces from the
+     * hasNext() call that reaches it, after every earlier row has been handed out
+     */
+    private abstract static class RowIterator implements Iterator<RawRow> {
+        private RawRow nextRow;
+        private boolean exhausted;
+
+        // Next row, or null at end of input
+        abstract RawRow advance();
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && !exhausted) {
+                nextRow = advance();
+                exhausted = nextRow == null;
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public RawRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RawRow current = nextRow;
+            nextRow = null;
+            return current;
+        }
+    }
+
+    /**
+     * caseNumber, case_number and "Case Number" all map to the same key
+     */
+    private static String normalizeKey(String key) {
+        StringBuilder normalized = new StringBuilder(key.length());
+        for (char c : key.toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static final String PARSE_ERROR = "__parseError";
+
+    private static final class ParseFailure extends RuntimeException {
+        private final long rowNumber;
+
+        ParseFailure(long rowNumber, String message) {
+            super(message);
+            this.rowNumber = rowNumber;
+        }
+    }
+
+    private static final class RawRow {
+        private final long rowNumber;
+        private final Map<String, String> fields;
+
+        RawRow(long rowNumber, Map<String, String> fields) {
+            this.rowNumber = rowNumber;
+            this.fields = fields;
+        }
+
+        String get(String key) {
+            String value = fields.get(key);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private static final class CaseRecord {
+        long rowNumber;
+        String caseNumber;
+        String claimantName;
+        String employerName;
+        LocalDate injuryDate;
+        String injuryDescription;
+        WorkersCompCase.CaseStatus status;
+        String adjusterName;
+        String adjusterId;
+        BigDecimal weeklyWage;
+        BigDecimal disabilityRating;
+        LocalDate maxMedicalImprovement;
+        String caseNotes;
+
+        static CaseRecord parse(RawRow raw) {
+            if (raw.fields.containsKey(PARSE_ERROR)) {
+                throw new IllegalArgumentException(raw.fields.get(PARSE_ERROR));
+            }
+            CaseRecord record = new CaseRecord();
+            record.rowNumber = raw.rowNumber;
+            record.caseNumber = required(raw, "casenumber", "caseNumber");
+            record.claimantName = required(raw, "claimantname", "claimantName");
+            record.employerName = required(raw, "employername", "employerName");
+            record.injuryDate = date(raw, "injurydate", "injuryDate");
+            if (record.injuryDate == null) {
+                throw new IllegalArgumentException("injuryDate is required");
+            }
+            if (record.injuryDate.isAfter(LocalDate.now())) {
+                throw new IllegalArgumentException("injuryDate is in the future");
+            }
+            record.injuryDescription = required(raw, "injurydescription", "injuryDescription");
+
+            String status = raw.get("status");
+            try {
+                record.status = status != null
+                        ? WorkersCompCase.CaseStatus.valueOf(status.toUpperCase(Locale.ROOT))
+                        : WorkersCompCase.CaseStatus.OPEN;
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status: " + status);
+            }
+
+            record.adjusterName = raw.get("adjustername");
+            record.adjusterId = raw.get("adjusterid");
+            record.weeklyWage = decimal(raw, "weeklywage", "weeklyWage");
+            if (record.weeklyWage != null && record.weeklyWage.signum() < 0) {
+                throw new IllegalArgumentException("weeklyWage must not be negative");
+            }
+            record.disabilityRating = decimal(raw, "disabilityrating", "disabilityRating");
+            if (record.disabilityRating != null && (record.disabilityRating.signum() < 0
+                    || record.disabilityRating.compareTo(BigDecimal.valueOf(100)) > 0)) {
+                throw new IllegalArgumentException("disabilityRating must be between 0 and 100");
+            }
+            record.maxMedicalImprovement = date(raw, "maxmedicalimprovement", "maxMedicalImprovement");
+            record.caseNotes = raw.get("casenotes");
+            return record;
+        }
+
+        private static String required(RawRow raw, String key, String name) {
+            String value = raw.get(key);
+            if (value == null) {
+                throw new IllegalArgumentException(name + " is required");
+            }
+            return value;
+        }
+
+        private static LocalDate date(RawRow raw, String key, String name) {
+            String value = raw.get(key);
+            try {
+                return value != null ? LocalDate.parse(value) : null;
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(name + " is not an ISO date: " + value);
+            }
+        }
+
+        private static BigDecimal decimal(RawRow raw, String key, String name) {
+            String value = raw.get(key);
+            try {
+                return value != null ? new BigDecimal(value).setScale(2, RoundingMode.HALF_UP) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " is not a number: " + value);
+            }
+        }
+    }
+
+    /**
+     * Counters shared by all chunks of one import
+     */
+    private static final class ImportRun {
+        final boolean createStandardTasks;
+        final Set<String> seenCaseNumbers = ConcurrentHashMap.newKeySet();
+        final AtomicLong totalRows = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong tasksCreated = new AtomicLong();
+        final AtomicInteger errorCount = new AtomicInteger();
+        final ConcurrentLinkedQueue<RowError> errors = new ConcurrentLinkedQueue<>();
+
+        ImportRun(boolean createStandardTasks) {
+            this.createStandardTasks = createStandardTasks;
+        }
+
+        void error(long rowNumber, String caseNumber, String message) {
+            if (errorCount.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(rowNumber, caseNumber, message));
+            }
+        }
+
+        ImportResult toResult(long elapsedMillis) {
+            List<RowError> sorted = new ArrayList<>(errors);
+            sorted.sort((a, b) -> Long.compare(a.getRowNumber(), b.getRowNumber()));
+            return new ImportResult(totalRows.get(), imported.get(), duplicates.get(), failed.get(),
+                    tasksCreated.get(), elapsedMillis, errorCount.get() > MAX_REPORTED_ERRORS, sorted);
+        }
+    }
+
+    // Import DTOs
+    public static class ImportResult {
+        private final long totalRows;
+        private final long imported;
+        private final long duplicates;
+        private final long failed;
+        private final long tasksCreated;
+        private final long elapsedMillis;
+        private final boolean errorsTruncated;
+        private final List<RowError> errors;
+
+        public ImportResult(long totalRows, long imported, long duplicates, long failed, long tasksCreated,
+                long elapsedMillis, boolean errorsTruncated, List<RowError> errors) {
+            this.totalRows = totalRows;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.failed = failed;
+            this.tasksCreated = tasksCreated;
+            this.elapsedMillis = elapsedMillis;
+            this.errorsTruncated = errorsTruncated;
+            this.errors = errors;
+        }
+
+        public long getTotalRows() {
+            return totalRows;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getTasksCreated() {
+            return tasksCreated;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public long getRowsPerSecond() {
+            return elapsedMillis > 0 ? totalRows * 1000 / elapsedMillis : totalRows;
+        }
+
+        public boolean isErrorsTruncated() {
+            return errorsTruncated;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+    }
+
+    public static class RowError {
+        private final long rowNumber;
+        private final String caseNumber;
+        private final String message;
+
+        public RowError(long rowNumber, String caseNumber, String message) {
+            this.rowNumber = rowNumber;
+            this.caseNumber = caseNumber;
+            this.message = message;
+        }
+
+        public long getRowNumber() {
+            return rowNumber;
+        }
+
+        public String getCaseNumber() {
+            return caseNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.legaljava.service;
 
+import com.legaljava.dto.ChangeNotification;
 import com.legaljava.entity.CaseTask;
+import com.legaljava.entity.DeletedRecord;
 import com.legaljava.entity.WorkersCompCase;
 import com.legaljava.repository.CaseTaskRepository;
+import com.legaljava.repository.DeletedRecordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,6 +21,27 @@ public class CaseTaskService {
     @Autowired
     private CaseTaskRepository caseTaskRepository;
 
+    @Autowired
+    private ChangeBus changeBus;
+
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    /**
+     * Tasks every new case starts with; shared with the bulk import path
+     */
+    public static final List<StandardTaskTemplate> STANDARD_TASKS = List.of(
+            new StandardTaskTemplate("Initial Case Review",
+                    CaseTask.TaskType.DOCUMENT_REVIEW, 1, CaseTask.TaskPriority.HIGH),
+            new StandardTaskTemplate("Medical Records Review",
+                    CaseTask.TaskType.MEDICAL_REVIEW, 3, CaseTask.TaskPriority.MEDIUM),
+            new StandardTaskTemplate("Benefit Calculation",
+                    CaseTask.TaskType.BENEFIT_CALCULATION, 5, CaseTask.TaskPriority.MEDIUM),
+            new StandardTaskTemplate("Initial Correspondence",
+                    CaseTask.TaskType.CORRESPONDENCE, 2, CaseTask.TaskPriority.MEDIUM),
+            new StandardTaskTemplate("Statute of Limitations Check",
+                    CaseTask.TaskType.DEADLINE_COMPLIANCE, 30, CaseTask.TaskPriority.HIGH));
+
     // Basic CRUD operations
     public List<CaseTask> getAllTasks() {
         return caseTaskRepository.findAll();
@@ -27,11 +52,20 @@ public class CaseTaskService {
     }
 
     public CaseTask saveTask(CaseTask caseTask) {
-        return caseTaskRepository.save(caseTask);
+        ChangeNotification.Action action = caseTask.getId() == null
+                ? ChangeNotification.Action.CREATED
+                : ChangeNotification.Action.UPDATED;
+        return publish(caseTaskRepository.save(caseTask), action);
     }
 
+    /**
+     * Delete a task, leaving a tombstone for delta sync in the same transaction
+     */
+    @Transactional
     public void deleteTask(Long id) {
         caseTaskRepository.deleteById(id);
+        deletedRecordRepository.save(new DeletedRecord(DeletedRecord.RecordType.TASK, id));
+        changeBus.publish(ChangeNotification.Topic.TASKS, ChangeNotification.Action.DELETED, id, null, null);
     }
 
     // Business logic methods
@@ -86,7 +120,7 @@ public class CaseTaskService {
             CaseTask.TaskType taskType, LocalDate dueDate,
             CaseTask.TaskPriority priority) {
         CaseTask task = new CaseTask(workersCompCase, title, taskType, dueDate, priority);
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.CREATED);
     }
 
     /**
@@ -99,12 +133,13 @@ public class CaseTaskService {
         CaseTask task = new CaseTask(workersCompCase, title, taskType, dueDate, priority);
         task.setDescription(description);
         task.setAssignedTo(assignedTo);
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.CREATED);
     }
 
     /**
      * Update task status
      */
+    @Transactional
     public CaseTask updateTaskStatus(Long taskId, CaseTask.TaskStatus status) {
         Optional<CaseTask> taskOpt = caseTaskRepository.findById(taskId);
         if (taskOpt.isEmpty()) {
@@ -118,12 +153,13 @@ public class CaseTaskService {
             task.setCompletedAt(LocalDateTime.now());
         }
 
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
     }
 
     /**
      * Complete a task
      */
+    @Transactional
     public CaseTask completeTask(Long taskId, String notes) {
         Optional<CaseTask> taskOpt = caseTaskRepository.findById(taskId);
         if (taskOpt.isEmpty()) {
@@ -141,12 +177,13 @@ public class CaseTaskService {
             task.setNotes(updatedNotes);
         }
 
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
     }
 
     /**
      * Assign task to a user
      */
+    @Transactional
     public CaseTask assignTask(Long taskId, String assignedTo) {
         Optional<CaseTask> taskOpt = caseTaskRepository.findById(taskId);
         if (taskOpt.isEmpty()) {
@@ -155,12 +192,13 @@ public class CaseTaskService {
 
         CaseTask task = taskOpt.get();
         task.setAssignedTo(assignedTo);
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
     }
 
     /**
      * Update task priority
      */
+    @Transactional
     public CaseTask updateTaskPriority(Long taskId, CaseTask.TaskPriority priority) {
         Optional<CaseTask> taskOpt = caseTaskRepository.findById(taskId);
         if (taskOpt.isEmpty()) {
@@ -169,12 +207,13 @@ public class CaseTaskService {
 
         CaseTask task = taskOpt.get();
         task.setPriority(priority);
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
     }
 
     /**
      * Update task due date
      */
+    @Transactional
     public CaseTask updateTaskDueDate(Long taskId, LocalDate newDueDate) {
         Optional<CaseTask> taskOpt = caseTaskRepository.findById(taskId);
         if (taskOpt.isEmpty()) {
@@ -183,12 +222,13 @@ public class CaseTaskService {
 
         CaseTask task = taskOpt.get();
         task.setDueDate(newDueDate);
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
     }
 
     /**
      * Add notes to a task
      */
+    @Transactional
     public CaseTask addTaskNotes(Long taskId, String notes) {
         Optional<CaseTask> taskOpt = caseTaskRepository.findById(taskId);
         if (taskOpt.isEmpty()) {
@@ -201,7 +241,79 @@ public class CaseTaskService {
                 : LocalDateTime.now() + ": " + notes;
         task.setNotes(updatedNotes);
 
-        return caseTaskRepository.save(task);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
+    }
+
+    /**
+     * Move a task to another board column and/or position in one row update.
+     * The card lands directly below {@code afterTaskId}, or at the top when it is null;
+     * the neighbouring card's position is re-read, so a stale client board cannot
+     * reorder anything but the card it moved.
+     */
+    @Transactional
+    public CaseTask moveTask(Long taskId, CaseTask.TaskStatus status, Long afterTaskId) {
+        if (taskId.equals(afterTaskId)) {
+            throw new IllegalArgumentException("A task cannot be placed after itself");
+        }
+        CaseTask task = caseTaskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found with ID: " + taskId));
+
+        Long lower = null;
+        if (afterTaskId != null) {
+            CaseTask after = caseTaskRepository.findById(afterTaskId)
+                    .orElseThrow(() -> new RuntimeException("Task not found with ID: " + afterTaskId));
+            if (after.getStatus() != status) {
+                throw new IllegalStateException("Task " + afterTaskId + " is no longer in column " + status);
+            }
+            lower = after.getBoardPosition();
+        }
+        Long upper = lower != null
+                ? caseTaskRepository.findNextBoardPosition(status, lower, taskId)
+                : caseTaskRepository.findFirstBoardPosition(status, taskId);
+
+        long position;
+        if (upper == null) {
+            position = lower != null ? lower + CaseTask.BOARD_POSITION_GAP : CaseTask.nextBoardPosition();
+        } else if (lower == null) {
+            position = upper - CaseTask.BOARD_POSITION_GAP;
+        } else if (upper - lower > 1) {
+            position = lower + (upper - lower) / 2;
+        } else {
+            position = respaceColumn(status, taskId, afterTaskId);
+        }
+
+        if (status != task.getStatus()) {
+            task.setStatus(status);
+            task.setCompletedAt(status == CaseTask.TaskStatus.COMPLETED ? LocalDateTime.now() : null);
+        }
+        task.setBoardPosition(position);
+        return publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
+    }
+
+    /**
+     * Spread a column back out when two neighbours have run out of room between them;
+     * returns the position left free for the moving task
+     */
+    private long respaceColumn(CaseTask.TaskStatus status, Long taskId, Long afterTaskId) {
+        List<Long> order = caseTaskRepository.findBoardOrder(status, taskId);
+        LocalDateTime now = LocalDateTime.now();
+        long freed = CaseTask.BOARD_POSITION_GAP;
+        long position = CaseTask.BOARD_POSITION_GAP;
+        for (Long id : order) {
+            caseTaskRepository.updateBoardPosition(id, position, now);
+            position += CaseTask.BOARD_POSITION_GAP;
+            if (id.equals(afterTaskId)) {
+                freed = position;
+                position += CaseTask.BOARD_POSITION_GAP;
+            }
+        }
+        return freed;
+    }
+
+    private CaseTask publish(CaseTask task, ChangeNotification.Action action) {
+        Long caseId = task.getWorkersCompCase() != null ? task.getWorkersCompCase().getId() : null;
+        changeBus.publish(ChangeNotification.Topic.TASKS, action, task.getId(), caseId, null);
+        return task;
     }
 
     /**
@@ -224,33 +336,21 @@ public class CaseTaskService {
      * Auto-create standard tasks for a new workers' comp case
      */
     public List<CaseTask> createStandardTasksForCase(WorkersCompCase workersCompCase) {
-        List<CaseTask> standardTasks = List.of(
-                new CaseTask(workersCompCase, "Initial Case Review",
-                        CaseTask.TaskType.DOCUMENT_REVIEW,
-                        LocalDate.now().plusDays(1), CaseTask.TaskPriority.HIGH),
-
-                new CaseTask(workersCompCase, "Medical Records Review",
-                        CaseTask.TaskType.MEDICAL_REVIEW,
-                        LocalDate.now().plusDays(3), CaseTask.TaskPriority.MEDIUM),
-
-                new CaseTask(workersCompCase, "Benefit Calculation",
-                        CaseTask.TaskType.BENEFIT_CALCULATION,
-                        LocalDate.now().plusDays(5), CaseTask.TaskPriority.MEDIUM),
-
-                new CaseTask(workersCompCase, "Initial Correspondence",
-                        CaseTask.TaskType.CORRESPONDENCE,
-                        LocalDate.now().plusDays(2), CaseTask.TaskPriority.MEDIUM),
-
-                new CaseTask(workersCompCase, "Statute of Limitations Check",
-                        CaseTask.TaskType.DEADLINE_COMPLIANCE,
-                        LocalDate.now().plusDays(30), CaseTask.TaskPriority.HIGH));
-
-        return caseTaskRepository.saveAll(standardTasks);
+        LocalDate today = LocalDate.now();
+        List<CaseTask> standardTasks = STANDARD_TASKS.stream()
+                .map(template -> new CaseTask(workersCompCase, template.getTitle(), template.getTaskType(),
+                        today.plusDays(template.getDueInDays()), template.getPriority()))
+                .toList();
+
+        List<CaseTask> saved = caseTaskRepository.saveAll(standardTasks);
+        saved.forEach(task -> publish(task, ChangeNotification.Action.CREATED));
+        return saved;
     }
 
     /**
      * Mark overdue tasks
      */
+    @Transactional
     public int markOverdueTasks() {
         List<CaseTask> overdueTasks = getOverdueTasks();
         int markedCount = 0;
@@ -259,7 +359,7 @@ public class CaseTaskService {
             if (task.getStatus() == CaseTask.TaskStatus.PENDING ||
                     task.getStatus() == CaseTask.TaskStatus.IN_PROGRESS) {
                 task.setStatus(CaseTask.TaskStatus.OVERDUE);
-                caseTaskRepository.save(task);
+                publish(caseTaskRepository.save(task), ChangeNotification.Action.UPDATED);
                 markedCount++;
             }
         }
@@ -270,6 +370,7 @@ public class CaseTaskService {
     /**
      * Get task analytics/dashboard data
      */
+    @Transactional(readOnly = true)
     public TaskAnalytics getTaskAnalytics() {
         long totalTasks = caseTaskRepository.count();
         long pendingTasks = caseTaskRepository.findByStatus(CaseTask.TaskStatus.PENDING).size();
@@ -318,6 +419,37 @@ public class CaseTaskService {
                 completedTasks, overdueTasks, tasksDueToday, tasksDueThisWeek);
     }
 
+    public static class StandardTaskTemplate {
+        private final String title;
+        private final CaseTask.TaskType taskType;
+        private final int dueInDays;
+        private final CaseTask.TaskPriority priority;
+
+        public StandardTaskTemplate(String title, CaseTask.TaskType taskType, int dueInDays,
+                CaseTask.TaskPriority priority) {
+            this.title = title;
+            this.taskType = taskType;
+            this.dueInDays = dueInDays;
+            this.priority = priority;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public CaseTask.TaskType getTaskType() {
+            return taskType;
+        }
+
+        public int getDueInDays() {
+            return dueInDays;
+        }
+
+        public CaseTask.TaskPriority getPriority() {
+            return priority;
+        }
+    }
+
     // Analytics DTO
     public static class TaskAnalytics {
         private final long totalTasks;
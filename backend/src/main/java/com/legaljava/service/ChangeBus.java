@@ -0,0 +1,309 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.ChangeNotification;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of record changes to server-sent-event subscribers.
+ * Every change gets the next sequence number and lands in a small replay ring, so a
+ * client reconnecting with Last-Event-ID picks up where it left off. Sequence numbers
+ * restart with the process, so event ids are {@code <epoch>-<sequence>} and an id from an
+ * earlier run is never resumed from, only reset. Each subscriber
+ * has a bounded queue drained by a shared pool; a subscriber whose queue overflows is
+ * told it was evicted and disconnected rather than allowed to hold up publishers.
+ */
+@Component
+public class ChangeBus {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object EVICTED = new Object();
+
+    private final int bufferSize;
+    private final long emitterTimeoutMillis;
+    private final ExecutorService deliveryPool;
+    private final ScheduledExecutorService heartbeats;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<ChangeNotification>> listeners = new CopyOnWriteArrayList<>();
+
+    // Sequence assignment, the replay ring and fan-out share one lock so every
+    // subscriber sees changes in sequence order
+    private final Object publishLock = new Object();
+    private final ChangeNotification[] replay;
+    private long sequence;
+    // Identifies this run in event ids, like the ETag prefix in ResourceVersions
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ChangeBus(@Value("${app.changes.buffer-size:256}") int bufferSize,
+            @Value("${app.changes.replay-size:1024}") int replaySize,
+            @Value("${app.changes.heartbeat-seconds:15}") int heartbeatSeconds,
+            @Value("${app.changes.timeout-ms:1800000}") long emitterTimeoutMillis,
+            @Value("${app.changes.delivery-threads:0}") int deliveryThreads) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.replay = new ChangeNotification[Math.max(1, replaySize)];
+        int poolSize = deliveryThreads > 0 ? deliveryThreads : Runtime.getRuntime().availableProcessors();
+        this.deliveryPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        deliveryPool.shutdown();
+    }
+
+    /**
+     * Announce a change. Inside a transaction the notification goes out after commit,
+     * so subscribers never fetch a row that is not visible yet or was rolled back.
+     */
+    public void publish(ChangeNotification.Topic topic, ChangeNotification.Action action, Object id, Long caseId,
+            Long version) {
+        String key = String.valueOf(id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(topic, action, key, caseId, version);
+                }
+            });
+        } else {
+            dispatch(topic, action, key, caseId, version);
+        }
+    }
+
+    private void dispatch(ChangeNotification.Topic topic, ChangeNotification.Action action, String id, Long caseId,
+            Long version) {
+        synchronized (publishLock) {
+            ChangeNotification notification = new ChangeNotification(++sequence, topic, action, id, caseId, version,
+                    Instant.now());
+            replay[(int) (sequence % replay.length)] = notification;
+            for (Consumer<ChangeNotification> listener : listeners) {
+                listener.accept(notification);
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.topics.contains(topic)) {
+                    subscriber.offer(notification);
+                }
+            }
+        }
+    }
+
+    /**
+     * Register an in-process listener, such as a cache to invalidate. Listeners run on the
+     * publishing thread in sequence order and must not block.
+     */
+    public void addListener(Consumer<ChangeNotification> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * The sequence number to resume after for a client's Last-Event-ID, or null when it is
+     * absent or was issued by an earlier run, including ids from before epochs were added
+     *
+     * @throws IllegalArgumentException if the id is not one this stream hands out
+     */
+    public Long resumePosition(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        String id = lastEventId.trim();
+        int separator = id.lastIndexOf('-');
+        long position = Long.parseLong(id.substring(separator + 1));
+        return separator > 0 && id.substring(0, separator).equals(epoch) ? position : null;
+    }
+
+    /**
+     * Open a stream for the given topics, replaying anything after {@code lastEventId}
+     * (see {@link #resumePosition}) that is still in the ring. A client that has fallen
+     * further behind gets a {@code reset} event and should reload before applying further
+     * changes.
+     */
+    public SseEmitter subscribe(Set<ChangeNotification.Topic> topics, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter,
+                topics.isEmpty() ? EnumSet.allOf(ChangeNotification.Topic.class) : EnumSet.copyOf(topics));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (publishLock) {
+            List<ChangeNotification> missed = lastEventId != null && lastEventId <= sequence
+                    ? missedSince(lastEventId, subscriber.topics)
+                    : null;
+            if (missed == null || missed.size() >= bufferSize) {
+                // New client, an id from before a restart, or too far behind: it loads
+                // current state on reset and resumes from this position
+                subscriber.offer(new Reset(sequence));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Changes after {@code lastEventId} on the given topics, or null if the ring no longer reaches back that far
+     */
+    private List<ChangeNotification> missedSince(long lastEventId, Set<ChangeNotification.Topic> topics) {
+        long oldest = Math.max(1, sequence - replay.length + 1);
+        if (lastEventId + 1 < oldest) {
+            return null;
+        }
+        List<ChangeNotification> missed = new ArrayList<>();
+        for (long next = lastEventId + 1; next <= sequence; next++) {
+            ChangeNotification notification = replay[(int) (next % replay.length)];
+            if (topics.contains(notification.getTopic())) {
+                missed.add(notification);
+            }
+        }
+        return missed;
+    }
+
+    private void heartbeat() {
+        synchronized (publishLock) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<ChangeNotification.Topic> topics;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize + 1);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<ChangeNotification.Topic> topics) {
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        /**
+         * Called under the publish lock; never blocks
+         */
+        void offer(Object item) {
+            if (closed) {
+                return;
+            }
+            // The spare slot is kept for the eviction notice
+            if (queue.size() >= bufferSize || !queue.offer(item)) {
+                evict();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void evict() {
+            subscribers.remove(this);
+            queue.clear();
+            queue.offer(EVICTED);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    deliveryPool.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Pool is shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed && (item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks may not fire for a write failure
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item instanceof ChangeNotification notification) {
+                emitter.send(SseEmitter.event()
+                        .id(eventId(notification.getSequence()))
+                        .name(notification.getTopic().getWireName())
+                        .data(notification, MediaType.APPLICATION_JSON));
+            } else if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } else if (item instanceof Reset reset) {
+                emitter.send(SseEmitter.event()
+                        .id(eventId(reset.sequence()))
+                        .name("reset")
+                        .data(Map.of("sequence", reset.sequence()), MediaType.APPLICATION_JSON));
+            } else if (item == EVICTED) {
+                emitter.send(SseEmitter.event().name("evicted")
+                        .data(Map.of("reason", "Subscriber fell more than " + bufferSize + " changes behind"),
+                                MediaType.APPLICATION_JSON));
+                closed = true;
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private record Reset(long sequence) {
+    }
+}
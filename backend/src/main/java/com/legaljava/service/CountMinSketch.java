@@ -0,0 +1,92 @@
+package com.legaljava.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency estimator. Estimates never undercount; with width w and depth d
+ * they overcount by more than e/w of the total only with probability e^-d. Updates are
+ * conservative: only the counters holding the current minimum are raised, which keeps
+ * the overcount well below that bound on skewed traffic. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+    private long total;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+    }
+
+    /**
+     * Count one occurrence and return the key's new estimate
+     */
+    int add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(row, h1, h2)]);
+        }
+        int updated = estimate + 1;
+        for (int row = 0; row < depth; row++) {
+            int i = index(row, h1, h2);
+            if (counters[i] < updated) {
+                counters[i] = updated;
+            }
+        }
+        total++;
+        return updated;
+    }
+
+    int estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(row, h1, h2)]);
+        }
+        return estimate;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * Largest likely overcount of any single estimate
+     */
+    long errorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+        total = 0;
+    }
+
+    // Row hashes derived from two halves of one 64-bit hash (Kirsch-Mitzenmacher)
+    private int index(int row, int h1, int h2) {
+        int combined = h1 + row * h2;
+        return row * width + Math.floorMod(combined, width);
+    }
+
+    /**
+     * 64-bit FNV-1a over the string's chars, finished with a SplitMix64 mix so both halves are usable
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
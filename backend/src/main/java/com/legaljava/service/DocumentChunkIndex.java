@@ -0,0 +1,574 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.DocumentVersion;
+import com.legaljava.entity.LegalDocument;
+import com.legaljava.repository.LegalDocumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index over passages of the legal documents, so the
+ * backend can pick a question's context itself instead of py-rag scanning pgvector.
+ * <p>
+ * Documents are cut into overlapping chunks, embedded with {@link QueryEmbedder} and
+ * linked into an {@link HnswIndex}. Everything lives under the index directory:
+ * {@code vectors.i8}, the int8 vectors in a memory-mapped file; {@code chunks.log}, an
+ * append-only log with one record per indexed document version (its nodes and their
+ * character ranges) or dropped document; and {@code graph.bin}, the HNSW links as of
+ * the last save, so startup only links nodes added since. On startup the index is
+ * loaded in the background and then brought up to date with the documents table;
+ * until then searches come back empty. A changed or deleted document's old chunks stay in the files as tombstones;
+ * deleting the directory compacts it, at the cost of re-indexing every document.
+ * <p>
+ * Disabled by default: {@link QueryEmbedder} hashes words rather than calling the model
+ * py-rag embeds with, so passages it picks replace a semantic pgvector search with a
+ * lexical one. Enable it only where recall on real questions has been checked.
+ */
+@Component
+public class DocumentChunkIndex {
+
+    private static final byte ADD = 1;
+    private static final byte DROP = 2;
+    private static final int SYNC_BATCH = 100;
+
+    @Autowired
+    private LegalDocumentRepository documentRepository;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final QueryEmbedder embedder;
+    private final int chunkSize;
+    private final int chunkOverlap;
+    private final int maxLinks;
+    private final int efConstruction;
+    private final int efSearch;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private MappedInt8VectorStore store;
+    private HnswIndex index;
+    private DataOutputStream chunkLog;
+    // Which document, and which characters of it, each node holds
+    private long[] nodeDocuments = new long[0];
+    private int[] nodeStarts = new int[0];
+    private int[] nodeEnds = new int[0];
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private volatile boolean ready;
+    private volatile boolean closed;
+
+    public DocumentChunkIndex(@Value("${app.document-index.enabled:false}") boolean enabled,
+            @Value("${app.document-index.dir:data/document-index}") String directory,
+            @Value("${app.document-index.dimension:512}") int dimension,
+            @Value("${app.document-index.chunk-size:1000}") int chunkSize,
+            @Value("${app.document-index.chunk-overlap:200}") int chunkOverlap,
+            @Value("${app.document-index.hnsw-links:16}") int maxLinks,
+            @Value("${app.document-index.hnsw-ef-construction:100}") int efConstruction,
+            @Value("${app.document-index.hnsw-ef-search:100}") int efSearch) {
+        if (chunkOverlap >= chunkSize) {
+            throw new IllegalArgumentException("chunk-overlap must be smaller than chunk-size");
+        }
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.embedder = new QueryEmbedder(dimension);
+        this.chunkSize = chunkSize;
+        this.chunkOverlap = chunkOverlap;
+        this.maxLinks = maxLinks;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                open();
+                synchronize();
+            } catch (Exception e) {
+                System.err.println("Document index unavailable, py-rag will search pgvector: " + e.getMessage());
+            }
+        }, "document-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Load the index from its directory. Done by {@link #start()}; public for tools and
+     * benchmarks that use the index outside the application context.
+     */
+    public void open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            Path vectors = directory.resolve("vectors.i8");
+            try {
+                store = new MappedInt8VectorStore(vectors, embedder.dimension());
+            } catch (IllegalStateException e) {
+                System.err.println("Rebuilding document index: " + e.getMessage());
+                Files.deleteIfExists(directory.resolve("graph.bin"));
+                Files.deleteIfExists(directory.resolve("chunks.log"));
+                Files.delete(vectors);
+                store = new MappedInt8VectorStore(vectors, embedder.dimension());
+            }
+            int nodes = readChunkLog();
+            store.truncate(nodes);
+            index = new HnswIndex(store, maxLinks, efConstruction);
+            readGraph();
+            index.linkStored();
+
+            BitSet live = new BitSet(nodes);
+            for (IndexedDocument document : documents.values()) {
+                live.set(document.firstNode, document.firstNode + document.chunks);
+            }
+            for (int node = live.nextClearBit(0); node < nodes; node = live.nextClearBit(node + 1)) {
+                index.remove(node);
+            }
+            chunkLog = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+                    directory.resolve("chunks.log"), StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index documents changed while the application was down and drop deleted ones
+     */
+    public void synchronize() throws IOException {
+        if (!ready || documentRepository == null) {
+            return;
+        }
+        List<Long> stale = new ArrayList<>();
+        Set<Long> present = new HashSet<>();
+        for (DocumentVersion version : documentRepository.findAllVersions()) {
+            present.add(version.getId());
+            if (indexedVersion(version.getId()) != version(version.getUpdatedAt())) {
+                stale.add(version.getId());
+            }
+        }
+        for (Long documentId : indexedDocumentIds()) {
+            if (!present.contains(documentId)) {
+                remove(documentId);
+            }
+        }
+        for (int from = 0; from < stale.size() && !closed; from += SYNC_BATCH) {
+            for (LegalDocument document : documentRepository.findAllById(
+                    stale.subList(from, Math.min(from + SYNC_BATCH, stale.size())))) {
+                index(document);
+            }
+        }
+        if (!stale.isEmpty()) {
+            saveGraph();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            saveGraph();
+            ready = false;
+            chunkLog.close();
+            store.close();
+        } catch (IOException e) {
+            System.err.println("Failed to save document index: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Chunks that searches can return
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index != null ? index.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a saved document, replacing the chunks of an earlier version.
+     *
+     * @return whether searches can now return different passages
+     */
+    public boolean index(LegalDocument document) {
+        return document.getId() != null
+                && index(document.getId(), version(document.getUpdatedAt()), document.getContent());
+    }
+
+    public boolean index(long documentId, long version, String content) {
+        if (!ready) {
+            // Picked up by synchronize() once loading finishes
+            return false;
+        }
+        List<int[]> ranges = chunk(content != null ? content : "", chunkSize, chunkOverlap);
+        List<float[]> vectors = new ArrayList<>(ranges.size());
+        for (int[] range : ranges) {
+            vectors.add(embedder.embed(content.substring(range[0], range[1])));
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return false;
+            }
+            IndexedDocument previous = documents.get(documentId);
+            if (previous != null && previous.version >= version) {
+                return false;
+            }
+            drop(documentId);
+            int firstNode = store.size();
+            for (int i = 0; i < ranges.size(); i++) {
+                track(index.add(vectors.get(i)), documentId, ranges.get(i));
+            }
+            chunkLog.writeByte(ADD);
+            chunkLog.writeLong(documentId);
+            chunkLog.writeLong(version);
+            chunkLog.writeInt(firstNode);
+            chunkLog.writeInt(ranges.size());
+            for (int[] range : ranges) {
+                chunkLog.writeInt(range[0]);
+                chunkLog.writeInt(range[1]);
+            }
+            chunkLog.flush();
+            documents.put(documentId, new IndexedDocument(version, firstNode, ranges.size()));
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write the document index", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the document had chunks to drop
+     */
+    public boolean remove(long documentId) {
+        if (!ready) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ready && drop(documentId)) {
+                chunkLog.flush();
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write the document index", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The chunks most similar to the question, best first; empty while the index loads
+     */
+    public List<ChunkHit> search(String query, int limit) {
+        if (!ready) {
+            return List.of();
+        }
+        float[] vector = embedder.embed(query);
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return List.of();
+            }
+            List<ChunkHit> hits = new ArrayList<>(limit);
+            for (HnswIndex.Hit hit : index.search(vector, limit, Math.max(efSearch, limit))) {
+                int node = hit.node();
+                long documentId = nodeDocuments[node];
+                hits.add(new ChunkHit(documentId, documents.get(documentId).version, nodeStarts[node], nodeEnds[node],
+                        hit.score()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into windows of at most size characters, each starting overlap
+     * characters before the previous one ended. Windows end at a paragraph, line,
+     * sentence or word break in their second half when there is one.
+     */
+    static List<int[]> chunk(String text, int size, int overlap) {
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(start + size, text.length());
+            if (end < text.length()) {
+                end = breakBefore(text, start + size / 2, end);
+            }
+            if (!text.substring(start, end).isBlank()) {
+                chunks.add(new int[] { start, end });
+            }
+            if (end == text.length()) {
+                break;
+            }
+            int next = Math.max(end - overlap, start + 1);
+            while (next < end && !Character.isWhitespace(text.charAt(next - 1))) {
+                next++;
+            }
+            start = next;
+        }
+        return chunks;
+    }
+
+    private static int breakBefore(String text, int from, int end) {
+        for (String separator : new String[] { "\n\n", "\n", ". ", " " }) {
+            int at = text.lastIndexOf(separator, end - separator.length());
+            if (at >= from) {
+                return at + separator.length();
+            }
+        }
+        return end;
+    }
+
+    // Updated time in epoch millis; millisecond precision survives every database round trip
+    static long version(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    private long indexedVersion(long documentId) {
+        lock.readLock().lock();
+        try {
+            IndexedDocument document = documents.get(documentId);
+            return document != null ? document.version : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> indexedDocumentIds() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(documents.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private boolean drop(long documentId) throws IOException {
+        IndexedDocument document = documents.remove(documentId);
+        if (document == null) {
+            return false;
+        }
+        for (int node = document.firstNode; node < document.firstNode + document.chunks; node++) {
+            index.remove(node);
+        }
+        chunkLog.writeByte(DROP);
+        chunkLog.writeLong(documentId);
+        return true;
+    }
+
+    private void track(int node, long documentId, int[] range) {
+        if (node >= nodeDocuments.length) {
+            int capacity = Math.max(1024, node * 3 / 2);
+            nodeDocuments = Arrays.copyOf(nodeDocuments, capacity);
+            nodeStarts = Arrays.copyOf(nodeStarts, capacity);
+            nodeEnds = Arrays.copyOf(nodeEnds, capacity);
+        }
+        nodeDocuments[node] = documentId;
+        nodeStarts[node] = range[0];
+        nodeEnds[node] = range[1];
+    }
+
+    /**
+     * Replay chunks.log, cutting off a torn last record. A document whose nodes the
+     * vector file does not fully hold is left out and re-indexed by synchronize().
+     * Returns the number of nodes to keep.
+     */
+    private int readChunkLog() throws IOException {
+        Path file = directory.resolve("chunks.log");
+        documents.clear();
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int nodes = 0;
+        long validBytes = 0;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream in = new DataInputStream(input);
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    if (type == ADD) {
+                        long documentId = in.readLong();
+                        long version = in.readLong();
+                        int firstNode = in.readInt();
+                        int chunks = in.readInt();
+                        int[][] ranges = new int[chunks][];
+                        for (int i = 0; i < chunks; i++) {
+                            ranges[i] = new int[] { in.readInt(), in.readInt() };
+                        }
+                        validBytes += 25 + 8L * chunks;
+                        if (firstNode != nodes || firstNode + chunks > store.size()) {
+                            continue;
+                        }
+                        for (int i = 0; i < chunks; i++) {
+                            track(firstNode + i, documentId, ranges[i]);
+                        }
+                        documents.put(documentId, new IndexedDocument(version, firstNode, chunks));
+                        nodes += chunks;
+                    } else if (type == DROP) {
+                        documents.remove(in.readLong());
+                        validBytes += 9;
+                    } else {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        if (validBytes < Files.size(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            }
+        }
+        return nodes;
+    }
+
+    private void readGraph() {
+        Path file = directory.resolve("graph.bin");
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            index.readLinks(in);
+        } catch (IOException e) {
+            System.err.println("Relinking document index, saved graph unusable: " + e.getMessage());
+            index = new HnswIndex(store, maxLinks, efConstruction);
+        }
+    }
+
+    private void saveGraph() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            chunkLog.flush();
+            store.force();
+            Path temp = directory.resolve("graph.bin.tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                index.writeLinks(out);
+            }
+            Files.move(temp, directory.resolve("graph.bin"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class IndexedDocument {
+        private final long version;
+        private final int firstNode;
+        private final int chunks;
+
+        IndexedDocument(long version, int firstNode, int chunks) {
+            this.version = version;
+            this.firstNode = firstNode;
+            this.chunks = chunks;
+        }
+    }
+
+    public static class ChunkHit {
+        private final long documentId;
+        private final long version;
+        private final int start;
+        private final int end;
+        private final float score;
+
+        public ChunkHit(long documentId, long version, int start, int end, float score) {
+            this.documentId = documentId;
+            this.version = version;
+            this.start = start;
+            this.end = end;
+            this.score = score;
+        }
+
+        public long getDocumentId() {
+            return documentId;
+        }
+
+        /**
+         * Whether the range was cut from this saved version of the document
+         */
+        public boolean isFrom(LegalDocument document) {
+            return version == version(document.getUpdatedAt());
+        }
+
+        /**
+         * Character range of the chunk within the document's content
+         */
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.IngestBatchRequest;
+import com.legaljava.dto.IngestDocument;
+import com.legaljava.entity.LegalDocument;
+import com.legaljava.repository.LegalDocumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds saved documents to the retrieval indexes without holding up the save.
+ * <p>
+ * A saved or deleted document's id is queued once its transaction commits; changing it
+ * again before it is picked up does not queue it twice. A single dispatcher waits briefly
+ * for more documents, takes up to batch-size of them, reads their current content, updates
+ * the in-process {@link DocumentChunkIndex} (dropping documents that no longer exist) and
+ * sends every chunk of the batch to py-rag's /ingest/batch, which embeds them in one call.
+ * Every index change for a document happens on the dispatcher in queue order, and a
+ * document is not taken again while a batch holding it is still in flight, so an older
+ * version can never land after a newer one. At most max-in-flight batches are sent at
+ * once; while they are busy the queue keeps coalescing, so batches grow under load.
+ * <p>
+ * The queue itself is only in memory; what survives a restart is each document's
+ * {@code ingest_pending} flag, set by every save and cleared once py-rag has taken that
+ * version. Flagged documents are queued again at startup. Failed sends are retried with
+ * backoff; once retries run out the batch is queued again after requeue-delay, while a
+ * batch py-rag rejects outright waits for the next start. Lag is the age of the oldest
+ * document changed but not yet ingested.
+ */
+@Service
+public class DocumentIngestionService {
+
+    @Autowired
+    private LegalDocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentChunkIndex chunkIndex;
+
+    @Autowired
+    private SemanticAnswerCache answerCache;
+
+    private final WebClient webClient;
+    private final TransactionTemplate transactionTemplate;
+    private final String ingestUrl;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final int chunkSize;
+    private final int chunkOverlap;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Duration requestTimeout;
+    private final Duration requeueDelay;
+    private final Semaphore inFlightBatches;
+    private final int maxInFlight;
+
+    // Document id to when it was first queued, oldest first; guards itself and sending
+    private final LinkedHashMap<Long, Long> pending = new LinkedHashMap<>();
+    private final List<Map<Long, Long>> sending = new ArrayList<>();
+    private final AtomicLong ingested = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public DocumentIngestionService(WebClient.Builder webClientBuilder, PlatformTransactionManager transactionManager,
+            @Value("${app.py-rag.base-url}") String pyRagBaseUrl,
+            @Value("${app.rag-ingest.enabled:true}") boolean enabled,
+            @Value("${app.rag-ingest.batch-size:32}") int batchSize,
+            @Value("${app.rag-ingest.linger-ms:250}") long lingerMillis,
+            @Value("${app.rag-ingest.max-in-flight:2}") int maxInFlight,
+            @Value("${app.rag-ingest.chunk-size:1000}") int chunkSize,
+            @Value("${app.rag-ingest.chunk-overlap:200}") int chunkOverlap,
+            @Value("${app.rag-ingest.max-retries:3}") int maxRetries,
+            @Value("${app.rag-ingest.retry-backoff-ms:500}") long retryBackoffMillis,
+            @Value("${app.rag-ingest.timeout-seconds:120}") long timeoutSeconds,
+            @Value("${app.rag-ingest.requeue-delay-ms:60000}") long requeueDelayMillis) {
+        if (chunkOverlap >= chunkSize) {
+            throw new IllegalArgumentException("chunk-overlap must be smaller than chunk-size");
+        }
+        this.webClient = webClientBuilder.build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ingestUrl = pyRagBaseUrl + "/ingest/batch";
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.chunkSize = chunkSize;
+        this.chunkOverlap = chunkOverlap;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.requestTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.requeueDelay = Duration.ofMillis(requeueDelayMillis);
+        this.maxInFlight = maxInFlight;
+        this.inFlightBatches = new Semaphore(maxInFlight);
+        this.dispatcher = new Thread(this::dispatchLoop, "document-ingest");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queue documents saved but never ingested, e.g. because the last run stopped first
+     */
+    @PostConstruct
+    public void requeueUnfinished() {
+        List<Long> unfinished = transactionTemplate.execute(status -> documentRepository.findIngestPendingIds());
+        if (unfinished != null) {
+            unfinished.forEach(this::queue);
+        }
+    }
+
+    /**
+     * Wait for queued documents to be sent, up to a few seconds, then stop
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        synchronized (pending) {
+            pending.notifyAll();
+        }
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        if (inFlightBatches.tryAcquire(maxInFlight, 5, TimeUnit.SECONDS)) {
+            inFlightBatches.release(maxInFlight);
+        }
+    }
+
+    /**
+     * Ingest a saved document, or drop a deleted one. Inside a transaction it is queued
+     * after commit, so the dispatcher never reads content that is not visible yet or was
+     * rolled back.
+     */
+    public void enqueue(Long documentId) {
+        if (documentId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue(documentId);
+                }
+            });
+        } else {
+            queue(documentId);
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            int count = pending.size();
+            for (Map<Long, Long> batch : sending) {
+                count += batch.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Seconds since the oldest document still waiting for ingestion was saved; 0 when idle
+     */
+    public double getLagSeconds() {
+        long oldest = Long.MAX_VALUE;
+        synchronized (pending) {
+            for (long queuedAt : pending.values()) {
+                oldest = Math.min(oldest, queuedAt);
+            }
+            for (Map<Long, Long> batch : sending) {
+                for (long queuedAt : batch.values()) {
+                    oldest = Math.min(oldest, queuedAt);
+                }
+            }
+        }
+        return oldest == Long.MAX_VALUE ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    public long getIngestedCount() {
+        return ingested.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    private void queue(Long documentId) {
+        synchronized (pending) {
+            if (running) {
+                pending.putIfAbsent(documentId, System.currentTimeMillis());
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (true) {
+                Map<Long, Long> batch = nextBatch();
+                if (batch == null) {
+                    return;
+                }
+                inFlightBatches.acquire();
+                try {
+                    send(batch);
+                } catch (RuntimeException e) {
+                    inFlightBatches.release();
+                    System.err.println("Failed to ingest documents " + batch.keySet() + ": " + e.getMessage());
+                    requeueLater(batch);
+                    finish(batch, false, false);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Blocks until there is work; null once shut down with nothing left to send
+    private Map<Long, Long> nextBatch() throws InterruptedException {
+        synchronized (pending) {
+            while (!hasSendable()) {
+                if (!running && pending.isEmpty()) {
+                    return null;
+                }
+                pending.wait();
+            }
+            // Let a burst of saves arrive so they share one embedding call
+            long deadline = System.currentTimeMillis() + lingerMillis;
+            long remaining;
+            while (running && pending.size() < batchSize
+                    && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                pending.wait(remaining);
+            }
+            Map<Long, Long> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, Long>> oldest = pending.entrySet().iterator();
+            while (batch.size() < batchSize && oldest.hasNext()) {
+                Map.Entry<Long, Long> entry = oldest.next();
+                if (isSending(entry.getKey())) {
+                    continue;
+                }
+                batch.put(entry.getKey(), entry.getValue());
+                oldest.remove();
+            }
+            sending.add(batch);
+            return batch;
+        }
+    }
+
+    // Called holding pending's lock
+    private boolean hasSendable() {
+        for (Long documentId : pending.keySet()) {
+            if (!isSending(documentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Called holding pending's lock
+    private boolean isSending(Long documentId) {
+        for (Map<Long, Long> batch : sending) {
+            if (batch.containsKey(documentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Called holding an in-flight permit, which is released when the send completes
+    private void send(Map<Long, Long> batch) {
+        // Read on the primary: a replica may not have the commit that queued the document yet
+        List<LegalDocument> saved = transactionTemplate.execute(status -> documentRepository.findAllById(batch.keySet()));
+        Set<Long> deleted = new HashSet<>(batch.keySet());
+        for (LegalDocument document : saved) {
+            deleted.remove(document.getId());
+        }
+        // Whether local retrieval can now return different passages
+        boolean changedLocally = false;
+        for (Long documentId : deleted) {
+            try {
+                changedLocally |= chunkIndex.remove(documentId);
+            } catch (IllegalStateException e) {
+                System.err.println("Failed to drop document " + documentId + " locally: " + e.getMessage());
+            }
+        }
+        List<IngestDocument> documents = new ArrayList<>(saved.size());
+        // Version of each document whose flag this batch clears
+        Map<Long, LocalDateTime> versions = new HashMap<>();
+        for (LegalDocument document : saved) {
+            try {
+                changedLocally |= chunkIndex.index(document);
+            } catch (IllegalStateException e) {
+                System.err.println("Failed to index document " + document.getId() + " locally: " + e.getMessage());
+            }
+            if (!Boolean.TRUE.equals(document.getIngestPending())) {
+                // py-rag already has this version
+                continue;
+            }
+            versions.put(document.getId(), document.getUpdatedAt());
+            String content = document.getContent() != null ? document.getContent() : "";
+            List<String> chunks = new ArrayList<>();
+            if (enabled) {
+                for (int[] range : DocumentChunkIndex.chunk(content, chunkSize, chunkOverlap)) {
+                    chunks.add(content.substring(range[0], range[1]));
+                }
+            }
+            if (!chunks.isEmpty()) {
+                documents.add(new IngestDocument(document.getId(), chunks));
+            }
+        }
+        if (documents.isEmpty()) {
+            // Deleted, already ingested, empty, or py-rag ingestion switched off
+            markIngested(versions);
+            inFlightBatches.release();
+            finish(batch, true, changedLocally);
+            return;
+        }
+        boolean droppedLocally = changedLocally;
+        batches.incrementAndGet();
+        webClient.post()
+            .uri(ingestUrl)
+            .bodyValue(new IngestBatchRequest(documents))
+            .retrieve()
+            .toBodilessEntity()
+            .timeout(requestTimeout)
+            .retryWhen(Retry.backoff(maxRetries, retryBackoff).filter(DocumentIngestionService::isRetryable))
+            // Clearing the flags blocks on JDBC; keep it off the HTTP client's event loop
+            .publishOn(Schedulers.boundedElastic())
+            .doFinally(signal -> inFlightBatches.release())
+            .subscribe(
+                response -> {
+                    markIngested(versions);
+                    finish(batch, true, true);
+                },
+                error -> {
+                    System.err.println("Failed to ingest documents " + batch.keySet() + ": " + error.getMessage());
+                    if (Exceptions.isRetryExhausted(error)) {
+                        requeueLater(batch);
+                    }
+                    finish(batch, false, droppedLocally);
+                });
+    }
+
+    // A failure leaves the flags set, so the documents are queued again on the next start
+    private void markIngested(Map<Long, LocalDateTime> versions) {
+        if (versions.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> versions.forEach(documentRepository::markIngested));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to record ingestion of documents " + versions.keySet() + ": " + e.getMessage());
+        }
+    }
+
+    // Keeps the original queue times, so lag shows how long py-rag has been unreachable
+    private void requeueLater(Map<Long, Long> batch) {
+        Mono.delay(requeueDelay).subscribe(tick -> {
+            synchronized (pending) {
+                if (running) {
+                    batch.forEach((documentId, queuedAt) -> pending.merge(documentId, queuedAt, Math::min));
+                    pending.notifyAll();
+                }
+            }
+        });
+    }
+
+    private void finish(Map<Long, Long> batch, boolean succeeded, boolean retrievalChanged) {
+        synchronized (pending) {
+            sending.remove(batch);
+            // Documents changed again while this batch was in flight can go now
+            pending.notifyAll();
+        }
+        if (retrievalChanged) {
+            // Cached answers may rest on the old text, which retrieval no longer returns
+            answerCache.invalidate();
+        }
+        (succeeded ? ingested : failed).addAndGet(batch.size());
+    }
+
+    // Connection problems, timeouts, throttling and server errors may pass; a rejected request will not
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
@@ -1,20 +1,34 @@
 package com.legaljava.service;
 
+import com.legaljava.config.ReplicaRoutingDataSource;
+import com.legaljava.dto.RetrievedChunk;
 import com.legaljava.entity.LegalDocument;
 import com.legaljava.repository.LegalDocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class DocumentService {
     
     @Autowired
     private LegalDocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentChunkIndex chunkIndex;
+
+    @Autowired
+    private DocumentIngestionService ingestionService;
     
     public List<LegalDocument> getAllDocuments() {
         return documentRepository.findAll();
@@ -33,17 +47,55 @@ public class DocumentService {
     }
     
     public LegalDocument saveDocument(LegalDocument document) {
-        return documentRepository.save(document);
+        LegalDocument saved = documentRepository.save(document);
+        ingestionService.enqueue(saved.getId());
+        return saved;
     }
     
     public LegalDocument uploadDocument(String title, String documentType, MultipartFile file) throws IOException {
         String content = new String(file.getBytes());
         
         LegalDocument document = new LegalDocument(title, content, documentType);
-        return documentRepository.save(document);
+        LegalDocument saved = documentRepository.save(document);
+        ingestionService.enqueue(saved.getId());
+        return saved;
     }
     
     public void deleteDocument(Long id) {
         documentRepository.deleteById(id);
+        ingestionService.enqueue(id);
+    }
+
+    /**
+     * Passages most relevant to a question, best first, from the in-process chunk index.
+     * Empty while the index is loading or disabled; py-rag then searches on its own.
+     */
+    @Transactional(readOnly = true)
+    public List<RetrievedChunk> retrieveContext(String query, int limit) {
+        List<DocumentChunkIndex.ChunkHit> hits = chunkIndex.search(query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (DocumentChunkIndex.ChunkHit hit : hits) {
+            ids.add(hit.getDocumentId());
+        }
+        // On the primary: the index may already hold a version a replica has not replayed yet
+        Map<Long, LegalDocument> byId = new HashMap<>();
+        for (LegalDocument document : ReplicaRoutingDataSource.onPrimary(() -> documentRepository.findAllById(ids))) {
+            byId.put(document.getId(), document);
+        }
+        List<RetrievedChunk> context = new ArrayList<>(hits.size());
+        for (DocumentChunkIndex.ChunkHit hit : hits) {
+            LegalDocument document = byId.get(hit.getDocumentId());
+            // Deleted or edited since the index was searched; the range would cut the wrong text
+            if (document == null || document.getContent() == null || !hit.isFrom(document)
+                    || hit.getEnd() > document.getContent().length()) {
+                continue;
+            }
+            context.add(new RetrievedChunk(document.getId(), document.getTitle(),
+                    document.getContent().substring(hit.getStart(), hit.getEnd()), (double) hit.getScore()));
+        }
+        return context;
     }
 }
@@ -0,0 +1,254 @@
+package com.legaljava.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Streams full table extracts as NDJSON or CSV.
+ * Rows are read through a forward-only JDBC cursor with a bounded fetch size and
+ * written straight to the response, so heap use does not grow with the export.
+ */
+@Service
+public class ExportService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public enum Dataset {
+        CASES("workers_comp_cases", "id, case_number, claimant_name, employer_name, injury_date, injury_description, "
+                + "status, adjuster_name, adjuster_id, weekly_wage, disability_rating, max_medical_improvement, "
+                + "case_notes, created_at, updated_at"),
+        TASKS("case_tasks", "id, case_id, title, description, task_type, priority, status, due_date, assigned_to, "
+                + "notes, created_at, updated_at, completed_at"),
+        REPORTS("ame_reports", "id, case_id, doctor_name, specialty, examination_date, report_content, ai_summary, "
+                + "recommended_disability_rating, work_restrictions, treatment_recommendations, is_final, file_path, "
+                + "created_at, updated_at");
+
+        private final String table;
+        private final String columns;
+
+        Dataset(String table, String columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getColumns() {
+            return columns;
+        }
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Write every row of the dataset to the stream; the caller owns and closes the stream
+     */
+    @Transactional(readOnly = true)
+    public long export(Dataset dataset, Format format, OutputStream out) throws IOException {
+        RowWriter writer = format == Format.CSV
+                ? new CsvRowWriter(out)
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8));
+        try {
+            Long rows = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT " + dataset.columns + " FROM " + dataset.table + " ORDER BY id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (ResultSetExtractor<Long>) resultSet -> {
+                try {
+                    writer.start(resultSet.getMetaData());
+                    long count = 0;
+                    while (resultSet.next()) {
+                        writer.write(resultSet);
+                        count++;
+                    }
+                    writer.finish();
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return rows != null ? rows : 0L;
+        } catch (UncheckedIOException e) {
+            // Client went away mid-export; JdbcTemplate has already closed the cursor
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter {
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private String[] names;
+        private int[] types;
+
+        NdjsonRowWriter(JsonGenerator json) {
+            this.json = json;
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            names = columnNames(metaData);
+            types = columnTypes(metaData);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                Object value = readValue(resultSet, i + 1, types[i]);
+                json.writeFieldName(names[i]);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof Long longValue) {
+                    json.writeNumber(longValue);
+                } else if (value instanceof BigDecimal decimal) {
+                    json.writeNumber(decimal);
+                } else if (value instanceof Boolean bool) {
+                    json.writeBoolean(bool);
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int[] types;
+        private Object[] values;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            String[] names = columnNames(metaData);
+            types = columnTypes(metaData);
+            values = new Object[names.length];
+            CsvSupport.writeRecord(writer, names);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(resultSet, i + 1, types[i]);
+            }
+            CsvSupport.writeRecord(writer, values);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    static Object readValue(ResultSet resultSet, int column, int sqlType) throws SQLException {
+        Object value = switch (sqlType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> resultSet.getLong(column);
+            case Types.NUMERIC, Types.DECIMAL -> resultSet.getBigDecimal(column);
+            case Types.BOOLEAN, Types.BIT -> resultSet.getBoolean(column);
+            case Types.DATE -> resultSet.getObject(column, LocalDate.class);
+            case Types.TIMESTAMP -> resultSet.getObject(column, LocalDateTime.class);
+            default -> resultSet.getString(column);
+        };
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * snake_case column labels as the camelCase field names the JSON API already uses
+     */
+    static String[] columnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] names = new String[metaData.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            String label = metaData.getColumnLabel(i + 1).toLowerCase();
+            StringBuilder name = new StringBuilder(label.length());
+            boolean upper = false;
+            for (char c : label.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    name.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            names[i] = name.toString();
+        }
+        return names;
+    }
+
+    static int[] columnTypes(ResultSetMetaData metaData) throws SQLException {
+        int[] types = new int[metaData.getColumnCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        return types;
+    }
+}
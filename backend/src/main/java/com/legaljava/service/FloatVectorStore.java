@@ -0,0 +1,48 @@
+package com.legaljava.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-precision vectors on the heap, for small indexes such as the semantic answer cache
+ */
+final class FloatVectorStore implements VectorStore {
+
+    private final int dimension;
+    private final List<float[]> vectors = new ArrayList<>();
+
+    FloatVectorStore(int dimension) {
+        this.dimension = dimension;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int size() {
+        return vectors.size();
+    }
+
+    @Override
+    public int add(float[] vector) {
+        vectors.add(vector.clone());
+        return vectors.size() - 1;
+    }
+
+    @Override
+    public float[] vector(int node) {
+        return vectors.get(node).clone();
+    }
+
+    @Override
+    public float score(float[] query, int node) {
+        return HnswIndex.dot(query, vectors.get(node));
+    }
+
+    @Override
+    public float score(int a, int b) {
+        return HnswIndex.dot(vectors.get(a), vectors.get(b));
+    }
+}
@@ -0,0 +1,346 @@
+package com.legaljava.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Hierarchical navigable small world graph over unit-length vectors, ranked by dot
+ * product (cosine similarity). Vectors live in a {@link VectorStore} and nodes are
+ * numbered as the store numbers them. Removal only hides a node from results; it keeps
+ * routing searches until the owner rebuilds the index. The links can be written out and
+ * read back so a persistent store does not have to be re-linked on startup. Searches
+ * may run concurrently; anything else needs exclusive access.
+ */
+final class HnswIndex {
+
+    private final VectorStore store;
+    private final int maxLinks;
+    private final int maxLinksBase;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    // links.get(node)[level] holds the node's neighbours on that level
+    private final List<int[][]> links = new ArrayList<>();
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    HnswIndex(VectorStore store, int maxLinks, int efConstruction) {
+        this.store = store;
+        this.maxLinks = maxLinks;
+        this.maxLinksBase = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxLinks);
+    }
+
+    record Hit(int node, float score) {
+    }
+
+    /**
+     * Nodes ever linked, including removed ones
+     */
+    int nodeCount() {
+        return links.size();
+    }
+
+    int size() {
+        return links.size() - removedCount;
+    }
+
+    int removedCount() {
+        return removedCount;
+    }
+
+    float[] vector(int node) {
+        return store.vector(node);
+    }
+
+    int add(float[] vector) {
+        if (store.size() != links.size()) {
+            throw new IllegalStateException("Store holds vectors that are not linked yet");
+        }
+        int node = store.add(vector);
+        insert(node, vector);
+        return node;
+    }
+
+    /**
+     * Link the vectors the store holds beyond the last linked node
+     */
+    void linkStored() {
+        for (int node = links.size(); node < store.size(); node++) {
+            insert(node, store.vector(node));
+        }
+    }
+
+    private void insert(int node, float[] vector) {
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[0];
+        }
+        links.add(nodeLinks);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int l = topLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Hit> nearest = searchLayer(vector, current, efConstruction, l);
+            int[] chosen = selectNeighbours(nearest, l == 0 ? maxLinksBase : maxLinks);
+            nodeLinks[l] = chosen;
+            for (int neighbour : chosen) {
+                link(neighbour, node, l);
+            }
+            current = nearest.get(0).node();
+        }
+        if (level > topLevel) {
+            entryPoint = node;
+            topLevel = level;
+        }
+    }
+
+    void remove(int node) {
+        if (!removed.get(node)) {
+            removed.set(node);
+            removedCount++;
+        }
+    }
+
+    boolean isRemoved(int node) {
+        return removed.get(node);
+    }
+
+    /**
+     * Up to k live nodes most similar to the query, best first
+     */
+    List<Hit> search(float[] query, int k, int ef) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int l = topLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        List<Hit> hits = new ArrayList<>(k);
+        for (Hit hit : searchLayer(query, current, Math.max(ef, k), 0)) {
+            if (!removed.get(hit.node())) {
+                hits.add(hit);
+                if (hits.size() == k) {
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int best = start;
+        float bestScore = store.score(query, start);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : links.get(best)[level]) {
+                float score = store.score(query, neighbour);
+                if (score > bestScore) {
+                    best = neighbour;
+                    bestScore = score;
+                    improved = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Beam search on one level; returns up to ef nodes, best first
+     */
+    private List<Hit> searchLayer(float[] query, int entry, int ef, int level) {
+        BitSet visited = new BitSet(links.size());
+        PriorityQueue<Hit> frontier = new PriorityQueue<>(Comparator.comparingDouble(Hit::score).reversed());
+        PriorityQueue<Hit> found = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        Hit start = new Hit(entry, store.score(query, entry));
+        visited.set(entry);
+        frontier.add(start);
+        found.add(start);
+
+        while (!frontier.isEmpty()) {
+            Hit candidate = frontier.poll();
+            if (found.size() >= ef && candidate.score() < found.peek().score()) {
+                break;
+            }
+            int[][] candidateLinks = links.get(candidate.node());
+            if (level >= candidateLinks.length) {
+                continue;
+            }
+            for (int neighbour : candidateLinks[level]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float score = store.score(query, neighbour);
+                if (found.size() < ef || score > found.peek().score()) {
+                    Hit hit = new Hit(neighbour, score);
+                    frontier.add(hit);
+                    found.add(hit);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+        List<Hit> result = new ArrayList<>(found);
+        result.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return result;
+    }
+
+    /**
+     * Prefer candidates that are closer to the base than to any neighbour already chosen,
+     * so links reach out in different directions; top up with the rest if short
+     */
+    private int[] selectNeighbours(List<Hit> candidates, int limit) {
+        List<Integer> chosen = new ArrayList<>(limit);
+        List<Integer> skipped = new ArrayList<>();
+        for (Hit candidate : candidates) {
+            if (chosen.size() == limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (int picked : chosen) {
+                if (store.score(candidate.node(), picked) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                chosen.add(candidate.node());
+            } else {
+                skipped.add(candidate.node());
+            }
+        }
+        for (int i = 0; i < skipped.size() && chosen.size() < limit; i++) {
+            chosen.add(skipped.get(i));
+        }
+        return chosen.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void link(int from, int to, int level) {
+        int[][] fromLinks = links.get(from);
+        int[] current = fromLinks[level];
+        int limit = level == 0 ? maxLinksBase : maxLinks;
+        if (current.length < limit) {
+            int[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = to;
+            fromLinks[level] = grown;
+            return;
+        }
+        // The list is full: drop the weakest link that is redundant, i.e. its node is closer
+        // to a stronger neighbour than to this one, or failing that the weakest link. Worst
+        // links are usually redundant, so this rarely costs more than one pass of scores,
+        // where re-running the full heuristic is quadratic in the list size.
+        Hit[] candidates = new Hit[current.length + 1];
+        for (int i = 0; i < current.length; i++) {
+            candidates[i] = new Hit(current[i], store.score(from, current[i]));
+        }
+        candidates[current.length] = new Hit(to, store.score(from, to));
+        Arrays.sort(candidates, Comparator.comparingDouble(Hit::score).reversed());
+        int drop = candidates.length - 1;
+        search:
+        for (int i = candidates.length - 1; i > 0; i--) {
+            for (int j = 0; j < i; j++) {
+                if (store.score(candidates[i].node(), candidates[j].node()) > candidates[i].score()) {
+                    drop = i;
+                    break search;
+                }
+            }
+        }
+        int[] kept = new int[current.length];
+        for (int i = 0, k = 0; i < candidates.length; i++) {
+            if (i != drop) {
+                kept[k++] = candidates[i].node();
+            }
+        }
+        fromLinks[level] = kept;
+    }
+
+    /**
+     * Write the links (not the vectors or removals) in a form {@link #readLinks} accepts
+     */
+    void writeLinks(DataOutput out) throws IOException {
+        out.writeInt(links.size());
+        out.writeInt(entryPoint);
+        out.writeInt(topLevel);
+        for (int[][] nodeLinks : links) {
+            out.writeByte(nodeLinks.length);
+            for (int[] level : nodeLinks) {
+                out.writeShort(level.length);
+                for (int neighbour : level) {
+                    out.writeInt(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restore links written by {@link #writeLinks} into this empty index. The store must
+     * hold at least as many vectors as were linked.
+     */
+    void readLinks(DataInput in) throws IOException {
+        if (!links.isEmpty()) {
+            throw new IllegalStateException("Links can only be read into an empty index");
+        }
+        int nodes = in.readInt();
+        if (nodes > store.size()) {
+            throw new IOException("Links cover " + nodes + " nodes but the store holds " + store.size());
+        }
+        int entry = in.readInt();
+        int top = in.readInt();
+        List<int[][]> read = new ArrayList<>(nodes);
+        for (int node = 0; node < nodes; node++) {
+            int[][] nodeLinks = new int[in.readUnsignedByte()][];
+            for (int l = 0; l < nodeLinks.length; l++) {
+                int[] level = new int[in.readUnsignedShort()];
+                for (int i = 0; i < level.length; i++) {
+                    level[i] = in.readInt();
+                }
+                nodeLinks[l] = level;
+            }
+            read.add(nodeLinks);
+        }
+        links.addAll(read);
+        entryPoint = entry;
+        topLevel = top;
+    }
+
+    static float dot(float[] a, float[] b) {
+        // Independent partial sums let the CPU overlap the multiply-adds
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < a.length; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
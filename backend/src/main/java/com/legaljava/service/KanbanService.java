@@ -0,0 +1,128 @@
+package com.legaljava.service;
+
+import com.legaljava.config.ReplicaRoutingDataSource;
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.dto.KanbanCard;
+import com.legaljava.entity.CaseTask;
+import com.legaljava.repository.CaseTaskRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kanban board over case tasks: one column per task status, cards ordered by board position.
+ * The board is built with a single projection query and cached until the task version
+ * in {@link ResourceVersions} moves, so repeated loads are served from memory.
+ */
+@Service
+public class KanbanService {
+
+    @Autowired
+    private CaseTaskRepository caseTaskRepository;
+
+    @Autowired
+    private CaseTaskService caseTaskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    private volatile CachedBoard cachedBoard;
+
+    @PostConstruct
+    public void init() {
+        try {
+            // Tasks created before board positions existed go first, in creation order
+            jdbcTemplate.update("UPDATE case_tasks SET board_position = id * ? WHERE board_position IS NULL",
+                    CaseTask.BOARD_POSITION_GAP);
+        } catch (DataAccessException e) {
+            System.err.println("Could not backfill board positions: " + e.getMessage());
+        }
+    }
+
+    public List<Column> getBoard() {
+        CachedBoard board = cachedBoard;
+        long current = resourceVersions.version(ChangeNotification.Topic.TASKS);
+        if (board != null && board.version == current) {
+            return board.columns;
+        }
+        // Read the version first: a change racing with the query leaves this board stale, not current.
+        // On the primary, since a replica may not have replayed the change that bumped the version yet.
+        List<Column> columns = ReplicaRoutingDataSource.onPrimary(this::buildBoard);
+        cachedBoard = new CachedBoard(current, columns);
+        return columns;
+    }
+
+    private List<Column> buildBoard() {
+        Map<CaseTask.TaskStatus, List<KanbanCard>> cards = new EnumMap<>(CaseTask.TaskStatus.class);
+        for (CaseTask.TaskStatus status : CaseTask.TaskStatus.values()) {
+            cards.put(status, new ArrayList<>());
+        }
+        for (KanbanCard card : caseTaskRepository.findKanbanCards()) {
+            cards.get(card.getStatus()).add(card);
+        }
+
+        List<Column> columns = new ArrayList<>(cards.size());
+        for (Map.Entry<CaseTask.TaskStatus, List<KanbanCard>> entry : cards.entrySet()) {
+            columns.add(new Column(entry.getKey().name(), title(entry.getKey()), List.copyOf(entry.getValue())));
+        }
+        return List.copyOf(columns);
+    }
+
+    /**
+     * Move one card; see {@link CaseTaskService#moveTask}
+     */
+    public KanbanCard moveCard(Long taskId, CaseTask.TaskStatus status, Long afterTaskId) {
+        CaseTask task = caseTaskService.moveTask(taskId, status, afterTaskId);
+        Long caseId = task.getWorkersCompCase() != null ? task.getWorkersCompCase().getId() : null;
+        return new KanbanCard(task.getId(), task.getTitle(), caseId, task.getPriority(), task.getDueDate(),
+                task.getAssignedTo(), task.getStatus(), task.getBoardPosition());
+    }
+
+    private static String title(CaseTask.TaskStatus status) {
+        String words = status.name().replace('_', ' ').toLowerCase();
+        StringBuilder title = new StringBuilder(words.length());
+        boolean upper = true;
+        for (char c : words.toCharArray()) {
+            title.append(upper ? Character.toUpperCase(c) : c);
+            upper = c == ' ';
+        }
+        return title.toString();
+    }
+
+    private record CachedBoard(long version, List<Column> columns) {
+    }
+
+    public static class Column {
+        private final String id;
+        private final String title;
+        private final List<KanbanCard> tasks;
+
+        public Column(String id, String title, List<KanbanCard> tasks) {
+            this.id = id;
+            this.title = title;
+            this.tasks = tasks;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public List<KanbanCard> getTasks() {
+            return tasks;
+        }
+    }
+}
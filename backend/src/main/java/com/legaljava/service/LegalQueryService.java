@@ -1,50 +1,98 @@
 package com.legaljava.service;
 
+import com.legaljava.dto.QueryHistoryItem;
 import com.legaljava.dto.QueryRequest;
 import com.legaljava.dto.QueryResponse;
+import com.legaljava.dto.RagQueryRequest;
+import com.legaljava.dto.RetrievedChunk;
 import com.legaljava.entity.LegalQuery;
 import com.legaljava.repository.LegalQueryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class LegalQueryService {
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
     
     @Autowired
     private LegalQueryRepository queryRepository;
     
     @Autowired
     private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private QueryHeavyHitters heavyHitters;
+
+    @Autowired
+    private SemanticAnswerCache answerCache;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Value("${app.document-index.top-k:5}")
+    private int contextChunks;
     
     @Value("${app.py-rag.base-url}")
     private String pyRagBaseUrl;
+
+    @Value("${app.chat.history-preview-length:100}")
+    private int previewLength;
     
     public Mono<QueryResponse> processQuery(QueryRequest request) {
         // Generate session ID if not provided
         String sessionId = request.getSessionId() != null ? 
             request.getSessionId() : UUID.randomUUID().toString();
+        heavyHitters.record(request.getQuery());
         
         // Save the query to database
         LegalQuery legalQuery = new LegalQuery(request.getQuery(), request.getUserId(), sessionId);
+
+        // A question asked recently in other words is answered without py-rag
+        long cacheGeneration = answerCache.generation();
+        Optional<QueryResponse> cached = answerCache.lookup(request.getQuery());
+        if (cached.isPresent()) {
+            QueryResponse response = cached.get();
+            response.setSessionId(sessionId);
+            legalQuery.setResponse(response.getResponse());
+            queryRepository.save(legalQuery);
+            return Mono.just(response);
+        }
         queryRepository.save(legalQuery);
+
+        // Send the passages picked by the in-process index; without them py-rag searches pgvector
+        List<RetrievedChunk> context = documentService.retrieveContext(request.getQuery(), contextChunks);
+        QueryRequest body = context.isEmpty() ? request : new RagQueryRequest(request, context);
         
         // Call Python RAG service
         return webClientBuilder.build()
             .post()
             .uri(pyRagBaseUrl + "/query")
-            .bodyValue(request)
+            .bodyValue(body)
             .retrieve()
             .bodyToMono(QueryResponse.class)
+            // The saves below block on JDBC; keep them off the HTTP client's event loop
+            .publishOn(Schedulers.boundedElastic())
             .doOnNext(response -> {
                 // Update the saved query with the response
                 legalQuery.setResponse(response.getResponse());
                 queryRepository.save(legalQuery);
+                answerCache.put(request.getQuery(), response, cacheGeneration);
             })
             .doOnError(error -> {
                 // Handle error case
@@ -53,11 +101,86 @@ public class LegalQueryService {
             });
     }
     
-    public List<LegalQuery> getUserQueryHistory(String userId) {
-        return queryRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    /**
+     * One page of a user's history, newest first, as previews. Pass the previous page's
+     * nextCursor to continue; the full text of an entry comes from {@link #getQuery}.
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage getUserQueryHistory(String userId, String cursor, int limit) {
+        if (limit <= 0 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        HistoryCursor from = HistoryCursor.parse(cursor);
+        // One extra row tells us whether another page follows
+        List<QueryHistoryItem> items = queryRepository.findHistoryPage(userId, from.createdAt, from.id,
+                previewLength, Limit.of(limit + 1));
+        boolean hasMore = items.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            items = items.subList(0, limit);
+            QueryHistoryItem last = items.get(limit - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new HistoryPage(items, nextCursor, hasMore);
+    }
+
+    public Optional<LegalQuery> getQuery(Long id) {
+        return queryRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public List<LegalQuery> getSessionQueries(String sessionId) {
         return queryRepository.findBySessionId(sessionId);
     }
+
+    /**
+     * Position after the last entry of a page; opaque to clients
+     */
+    private record HistoryCursor(LocalDateTime createdAt, long id) {
+
+        static HistoryCursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new HistoryCursor(END_OF_TIME, Long.MAX_VALUE);
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8)
+                        .split("\\|");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Malformed history cursor");
+                }
+                return new HistoryCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed history cursor");
+            }
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static class HistoryPage {
+        private final List<QueryHistoryItem> items;
+        private final String nextCursor;
+        private final boolean hasMore;
+
+        public HistoryPage(List<QueryHistoryItem> items, String nextCursor, boolean hasMore) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+
+        public List<QueryHistoryItem> getItems() {
+            return items;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean isHasMore() {
+            return hasMore;
+        }
+    }
 }
@@ -0,0 +1,185 @@
+package com.legaljava.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vectors quantized to signed bytes in a memory-mapped file, so a large index costs a
+ * quarter of the float size and lives in the page cache rather than the heap.
+ * <p>
+ * Each record is {@code [float scale][dimension bytes]}: a component is stored as
+ * {@code round(v / scale)} with the scale chosen so the largest component maps to 127.
+ * A 64-byte header holds the dimension and the record count, which is bumped after a
+ * record is written, so a process that dies mid-append leaves at most an unused tail.
+ * The file is mapped in fixed-size segments as it grows; scoring copies a record into a
+ * per-thread array first, which is far quicker than reading the mapping byte by byte.
+ * Reads may run concurrently with each other but not with {@link #add}.
+ */
+final class MappedInt8VectorStore implements VectorStore, Closeable {
+
+    private static final int MAGIC = 0x4c4a5638;
+    private static final int HEADER_BYTES = 64;
+    private static final int COUNT_OFFSET = 8;
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+
+    private final int dimension;
+    private final int recordBytes;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final ThreadLocal<byte[][]> scratch;
+    private int count;
+
+    /**
+     * Opens the file, creating it if needed
+     *
+     * @throws IllegalStateException if the file holds vectors of another dimension
+     */
+    MappedInt8VectorStore(Path file, int dimension) throws IOException {
+        this.dimension = dimension;
+        this.recordBytes = Float.BYTES + dimension;
+        this.scratch = ThreadLocal.withInitial(() -> new byte[2][dimension]);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (created) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, dimension);
+            header.putLong(COUNT_OFFSET, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != dimension) {
+            channel.close();
+            throw new IllegalStateException(file + " does not hold vectors of dimension " + dimension);
+        }
+        long stored = header.getLong(COUNT_OFFSET);
+        for (int segment = 0; (long) segment * SEGMENT_RECORDS < stored; segment++) {
+            segments.add(mapSegment(segment));
+        }
+        this.count = (int) stored;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected a vector of dimension " + dimension);
+        }
+        int node = count;
+        if ((node >>> SEGMENT_SHIFT) == segments.size()) {
+            try {
+                segments.add(mapSegment(segments.size()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow the vector file", e);
+            }
+        }
+        float max = 0;
+        for (float v : vector) {
+            max = Math.max(max, Math.abs(v));
+        }
+        float scale = max == 0 ? 1 : max / 127;
+        ByteBuffer segment = segments.get(node >>> SEGMENT_SHIFT);
+        int position = (node & (SEGMENT_RECORDS - 1)) * recordBytes;
+        segment.putFloat(position, scale);
+        for (int i = 0; i < dimension; i++) {
+            segment.put(position + Float.BYTES + i, (byte) Math.round(vector[i] / scale));
+        }
+        count = node + 1;
+        header.putLong(COUNT_OFFSET, count);
+        return node;
+    }
+
+    @Override
+    public float[] vector(int node) {
+        byte[] components = new byte[dimension];
+        float scale = read(node, components);
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = components[i] * scale;
+        }
+        return vector;
+    }
+
+    @Override
+    public float score(float[] query, int node) {
+        byte[] components = scratch.get()[0];
+        float scale = read(node, components);
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < dimension; i += 4) {
+            s0 += query[i] * components[i];
+            s1 += query[i + 1] * components[i + 1];
+            s2 += query[i + 2] * components[i + 2];
+            s3 += query[i + 3] * components[i + 3];
+        }
+        for (; i < dimension; i++) {
+            s0 += query[i] * components[i];
+        }
+        return ((s0 + s1) + (s2 + s3)) * scale;
+    }
+
+    @Override
+    public float score(int a, int b) {
+        byte[][] buffers = scratch.get();
+        float scale = read(a, buffers[0]) * read(b, buffers[1]);
+        byte[] left = buffers[0];
+        byte[] right = buffers[1];
+        int sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += left[i] * right[i];
+        }
+        return sum * scale;
+    }
+
+    // Copies the node's components into the array and returns its scale
+    private float read(int node, byte[] components) {
+        ByteBuffer segment = segments.get(node >>> SEGMENT_SHIFT);
+        int position = (node & (SEGMENT_RECORDS - 1)) * recordBytes;
+        segment.get(position + Float.BYTES, components);
+        return segment.getFloat(position);
+    }
+
+    /**
+     * Forget records from the given node on, e.g. ones whose metadata never made it to disk
+     */
+    void truncate(int size) {
+        if (size < count) {
+            count = size;
+            header.putLong(COUNT_OFFSET, count);
+        }
+    }
+
+    void force() {
+        header.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private MappedByteBuffer mapSegment(int segment) throws IOException {
+        long offset = HEADER_BYTES + (long) segment * SEGMENT_RECORDS * recordBytes;
+        return channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) SEGMENT_RECORDS * recordBytes);
+    }
+}
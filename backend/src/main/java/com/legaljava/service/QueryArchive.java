@@ -0,0 +1,152 @@
+package com.legaljava.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legaljava.entity.LegalQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Gzipped NDJSON segments holding legal queries removed from the database.
+ * Segments live in one directory per month of created_at and are named after the id
+ * range they hold, so a lookup only opens the months it asks about. Each segment is
+ * written to a temporary file, fsynced and renamed into place, so a reader never sees
+ * a partial one; the month directory is fsynced after the rename, so a segment whose
+ * rows are then deleted cannot vanish in a crash. A row can land in two segments if the process dies between archiving
+ * and deleting a batch; lookups drop the repeat.
+ */
+@Component
+public class QueryArchive {
+
+    private static final String SEGMENT_PREFIX = "queries-";
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Path directory;
+
+    public QueryArchive(@Value("${app.retention.queries.archive-dir:data/query-archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Durably store the given rows; returns once they are on disk
+     */
+    public void append(List<LegalQuery> rows) throws IOException {
+        Map<YearMonth, List<LegalQuery>> byMonth = new LinkedHashMap<>();
+        for (LegalQuery row : rows) {
+            byMonth.computeIfAbsent(YearMonth.from(row.getCreatedAt()), month -> new ArrayList<>()).add(row);
+        }
+        for (Map.Entry<YearMonth, List<LegalQuery>> month : byMonth.entrySet()) {
+            writeSegment(month.getKey(), month.getValue());
+        }
+    }
+
+    /**
+     * Archived queries for a user created in [from, to), newest first
+     */
+    public List<LegalQuery> find(String userId, LocalDateTime from, LocalDateTime to, int limit) throws IOException {
+        Map<Long, LegalQuery> found = new HashMap<>();
+        for (YearMonth month = YearMonth.from(from); !month.atDay(1).atStartOfDay().isAfter(to);
+                month = month.plusMonths(1)) {
+            Path monthDirectory = directory.resolve(month.toString());
+            if (!Files.isDirectory(monthDirectory)) {
+                continue;
+            }
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(monthDirectory,
+                    SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path segment : segments) {
+                    readSegment(segment, userId, from, to, found);
+                }
+            }
+        }
+        return found.values().stream()
+                .sorted(Comparator.comparing(LegalQuery::getCreatedAt).thenComparing(LegalQuery::getId).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void writeSegment(YearMonth month, List<LegalQuery> rows) throws IOException {
+        Path monthDirectory = directory.resolve(month.toString());
+        boolean newMonth = !Files.isDirectory(monthDirectory);
+        Files.createDirectories(monthDirectory);
+        long firstId = rows.get(0).getId();
+        long lastId = rows.get(rows.size() - 1).getId();
+        Path segment = monthDirectory.resolve(SEGMENT_PREFIX + firstId + "-" + lastId + SEGMENT_SUFFIX);
+        Path temp = monthDirectory.resolve(segment.getFileName() + ".tmp");
+
+        try (OutputStream file = Files.newOutputStream(temp);
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(file, 64 * 1024),
+                        StandardCharsets.UTF_8))) {
+            for (LegalQuery row : rows) {
+                out.write(objectMapper.writeValueAsString(row));
+                out.write('\n');
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename is only durable once the directory entry is; the caller deletes the rows next
+        forceDirectory(monthDirectory);
+        if (newMonth) {
+            forceDirectory(directory);
+        }
+    }
+
+    private static void forceDirectory(Path directory) throws IOException {
+        if (WINDOWS) {
+            // Directories cannot be opened as channels there; NTFS journals the rename itself
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void readSegment(Path segment, String userId, LocalDateTime from, LocalDateTime to,
+            Map<Long, LegalQuery> found) throws IOException {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                LegalQuery row = objectMapper.readValue(line, LegalQuery.class);
+                if (userId.equals(row.getUserId()) && !row.getCreatedAt().isBefore(from)
+                        && row.getCreatedAt().isBefore(to)) {
+                    found.putIfAbsent(row.getId(), row);
+                }
+            }
+        } catch (EOFException | ZipException e) {
+            System.err.println("Skipping unreadable query archive segment " + segment + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.legaljava.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * CPU-only embedding of legal text for similarity search: chat questions for the
+ * semantic answer cache, and questions and document passages for the chunk index.
+ * Words are lower-cased, workers' comp abbreviations are spelled out, filler words
+ * dropped and plurals folded; the words, adjacent word pairs and character trigrams
+ * are then feature-hashed with random signs into a fixed-size, unit-length vector.
+ * Two phrasings built from the same vocabulary land close together without a model.
+ * Questions compared with each other also have synonyms folded into one word and
+ * their numbers left out, so "TD max 2024" meets "maximum temporary disability rate".
+ */
+@Component
+public class QueryEmbedder {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NUMBER = Pattern.compile("\\p{N}+");
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float PAIR_WEIGHT = 0.5f;
+    private static final float TRIGRAM_WEIGHT = 0.25f;
+
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("td", "temporary disability"),
+            Map.entry("ttd", "temporary total disability"),
+            Map.entry("tpd", "temporary partial disability"),
+            Map.entry("pd", "permanent disability"),
+            Map.entry("ptd", "permanent total disability"),
+            Map.entry("ppd", "permanent partial disability"),
+            Map.entry("awe", "average weekly wage"),
+            Map.entry("aww", "average weekly wage"),
+            Map.entry("ame", "agreed medical evaluator"),
+            Map.entry("qme", "qualified medical evaluator"),
+            Map.entry("mmi", "maximum medical improvement"),
+            Map.entry("wcab", "workers compensation appeals board"),
+            Map.entry("wc", "workers compensation"),
+            Map.entry("comp", "compensation"),
+            Map.entry("max", "maximum"),
+            Map.entry("min", "minimum"),
+            Map.entry("yr", "year"),
+            Map.entry("wk", "week"),
+            Map.entry("sol", "statute limitations"));
+
+    // Different words for the same thing in a question, keyed by the word with its plural folded
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("temp", "temporary"),
+            Map.entry("perm", "permanent"),
+            Map.entry("med", "medical"),
+            Map.entry("maximal", "maximum"),
+            Map.entry("highest", "maximum"),
+            Map.entry("top", "maximum"),
+            Map.entry("cap", "maximum"),
+            Map.entry("capped", "maximum"),
+            Map.entry("ceiling", "maximum"),
+            Map.entry("minimal", "minimum"),
+            Map.entry("lowest", "minimum"),
+            Map.entry("floor", "minimum"),
+            Map.entry("annual", "year"),
+            Map.entry("yearly", "year"),
+            Map.entry("weekly", "week"),
+            Map.entry("physician", "doctor"),
+            Map.entry("earning", "wage"),
+            Map.entry("salary", "wage"),
+            Map.entry("prior", "before"));
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "is", "are", "was", "were", "be", "been",
+            "what", "whats", "which", "who", "how", "when", "where", "why", "do", "does", "did", "can", "could",
+            "should", "would", "will", "i", "my", "me", "we", "our", "you", "your", "it", "its", "this", "that",
+            "of", "for", "to", "in", "on", "at", "by", "with", "from", "and", "or", "about", "please", "tell",
+            "current", "s");
+    // What a question asks for rather than what about: the rate or amount of a benefit
+    private static final Set<String> QUESTION_FILLER = Set.of("much", "rate", "amount");
+
+    // Words that flip or narrow what is asked, however close the rest of the phrasing is
+    private static final Set<String> NEGATIONS = Set.of("not", "no", "never", "without", "cannot", "nor",
+            "neither", "none", "t", "cant", "dont", "doesnt", "isnt", "arent", "wont", "didnt", "wasnt");
+    private static final Map<String, String> QUALIFIERS = Map.ofEntries(
+            Map.entry("before", "before"),
+            Map.entry("after", "after"),
+            Map.entry("until", "until"),
+            Map.entry("since", "since"),
+            Map.entry("during", "during"),
+            Map.entry("within", "within"),
+            Map.entry("temporary", "temporary"),
+            Map.entry("permanent", "permanent"),
+            Map.entry("total", "total"),
+            Map.entry("partial", "partial"),
+            Map.entry("medical", "medical"),
+            Map.entry("death", "death"),
+            Map.entry("vocational", "vocational"),
+            Map.entry("supplemental", "supplemental"),
+            Map.entry("voucher", "voucher"),
+            Map.entry("penalty", "penalty"),
+            Map.entry("mileage", "mileage"),
+            Map.entry("qualified", "qualified"),
+            Map.entry("agreed", "agreed"),
+            Map.entry("employer", "employer"),
+            Map.entry("employee", "employee"),
+            Map.entry("applicant", "applicant"),
+            Map.entry("insurer", "insurer"),
+            Map.entry("defendant", "defendant"));
+
+    private final int dimension;
+
+    public QueryEmbedder(@Value("${app.semantic-cache.dimension:512}") int dimension) {
+        this.dimension = dimension;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public float[] embed(String text) {
+        return embed(words(text));
+    }
+
+    /**
+     * The embedding of what a question asks about, leaving out the numbers it mentions;
+     * those are compared on their own through {@link #qualifiers}.
+     */
+    public float[] embedQuestion(String question) {
+        List<String> words = questionWords(question);
+        words.removeIf(word -> NUMBER.matcher(word).matches());
+        return embed(words);
+    }
+
+    private float[] embed(List<String> words) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            addFeature(vector, "w:" + word, WORD_WEIGHT);
+            if (i + 1 < words.size()) {
+                addFeature(vector, "p:" + word + " " + words.get(i + 1), PAIR_WEIGHT);
+            }
+            String padded = "^" + word + "$";
+            for (int j = 0; j + 3 <= padded.length(); j++) {
+                addFeature(vector, "t:" + padded.substring(j, j + 3), TRIGRAM_WEIGHT);
+            }
+        }
+        normalize(vector);
+        return vector;
+    }
+
+    /**
+     * The numbers a question mentions, such as years and percentages. Questions that
+     * differ only in a number usually need different answers.
+     */
+    public Set<String> numbers(String text) {
+        Set<String> numbers = new TreeSet<>();
+        var matcher = NUMBER.matcher(text == null ? "" : text);
+        while (matcher.find()) {
+            numbers.add(matcher.group().replaceFirst("^0+(?=.)", ""));
+        }
+        return numbers;
+    }
+
+    /**
+     * The numbers a question mentions plus the words that decide what it asks: negation,
+     * before or after, the kind of benefit or evaluator, and which party. Questions whose
+     * qualifiers differ need different answers even when their vectors are close.
+     */
+    public Set<String> qualifiers(String text) {
+        Set<String> qualifiers = numbers(text);
+        for (String word : questionWords(text)) {
+            if (NEGATIONS.contains(word)) {
+                qualifiers.add("not");
+            } else if (QUALIFIERS.containsKey(word)) {
+                qualifiers.add(QUALIFIERS.get(word));
+            }
+        }
+        return qualifiers;
+    }
+
+    /**
+     * Whether two questions' {@link #qualifiers} ask the same thing. Numbers only count
+     * when both questions mention one: "TD max" is the current rate, which "TD max 2024"
+     * may well be, but "TD max 2023" is not.
+     */
+    public static boolean sameQualifiers(Set<String> a, Set<String> b) {
+        Set<String> aWords = new TreeSet<>();
+        Set<String> aNumbers = new TreeSet<>();
+        split(a, aWords, aNumbers);
+        Set<String> bWords = new TreeSet<>();
+        Set<String> bNumbers = new TreeSet<>();
+        split(b, bWords, bNumbers);
+        return aWords.equals(bWords) && (aNumbers.isEmpty() || bNumbers.isEmpty() || aNumbers.equals(bNumbers));
+    }
+
+    private static void split(Set<String> qualifiers, Set<String> words, Set<String> numbers) {
+        for (String qualifier : qualifiers) {
+            (NUMBER.matcher(qualifier).matches() ? numbers : words).add(qualifier);
+        }
+    }
+
+    List<String> questionWords(String question) {
+        List<String> words = new ArrayList<>();
+        for (String word : words(question)) {
+            word = SYNONYMS.getOrDefault(word, word);
+            if (!QUESTION_FILLER.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String token : NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim().split(" ")) {
+            String expanded = ABBREVIATIONS.getOrDefault(token, token);
+            for (String word : expanded.split(" ")) {
+                if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                    words.add(stem(word));
+                }
+            }
+        }
+        return words;
+    }
+
+    // Folds plurals only; anything more aggressive starts merging distinct legal terms
+    private static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") && !NUMBER.matcher(word).matches()) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private void addFeature(float[] vector, String feature, float weight) {
+        long hash = CountMinSketch.hash(feature);
+        int index = Math.floorMod((int) hash, dimension);
+        vector[index] += (hash >>> 63) == 0 ? weight : -weight;
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+}
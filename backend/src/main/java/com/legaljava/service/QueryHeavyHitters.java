@@ -0,0 +1,237 @@
+package com.legaljava.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Most frequent chat questions over the last hour and the last day, kept in memory as
+ * queries arrive. Each window is a ring of time buckets; every bucket holds a
+ * {@link CountMinSketch} and a bounded min-heap of its leading questions, so memory is
+ * fixed whatever the traffic. A window's counts are the sum over its live buckets, and
+ * a question has to lead in at least one bucket to be reported.
+ */
+@Component
+public class QueryHeavyHitters {
+
+    public enum Window {
+        HOUR(60, 60_000L), DAY(24, 3_600_000L);
+
+        private final int buckets;
+        private final long bucketMillis;
+
+        Window(int buckets, long bucketMillis) {
+            this.buckets = buckets;
+            this.bucketMillis = bucketMillis;
+        }
+    }
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int maxQueryLength;
+    private final Map<Window, SlidingWindow> windows = new HashMap<>();
+
+    public QueryHeavyHitters(@Value("${app.query-analytics.sketch-width:2048}") int width,
+            @Value("${app.query-analytics.sketch-depth:4}") int depth,
+            @Value("${app.query-analytics.candidates-per-bucket:200}") int candidatesPerBucket,
+            @Value("${app.query-analytics.max-query-length:200}") int maxQueryLength) {
+        this.maxQueryLength = maxQueryLength;
+        for (Window window : Window.values()) {
+            windows.put(window, new SlidingWindow(window, width, depth, candidatesPerBucket));
+        }
+    }
+
+    /**
+     * Count one occurrence of a question
+     */
+    public void record(String query) {
+        String key = normalize(query);
+        if (key.isEmpty()) {
+            return;
+        }
+        long hash = CountMinSketch.hash(key);
+        long now = System.currentTimeMillis();
+        for (SlidingWindow window : windows.values()) {
+            window.record(key, hash, now);
+        }
+    }
+
+    public TopQueries top(Window window, int limit) {
+        return windows.get(window).top(limit, System.currentTimeMillis());
+    }
+
+    /**
+     * Case, punctuation and spacing differences do not make a question distinct
+     */
+    String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String key = NON_WORD.matcher(query.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return key.length() > maxQueryLength ? key.substring(0, maxQueryLength) : key;
+    }
+
+    private static final class SlidingWindow {
+        private final Window window;
+        private final Bucket[] buckets;
+
+        SlidingWindow(Window window, int width, int depth, int candidates) {
+            this.window = window;
+            this.buckets = new Bucket[window.buckets];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket(width, depth, candidates);
+            }
+        }
+
+        synchronized void record(String key, long hash, long now) {
+            long epoch = now / window.bucketMillis;
+            Bucket bucket = buckets[(int) (epoch % buckets.length)];
+            if (bucket.epoch != epoch) {
+                bucket.reset(epoch);
+            }
+            bucket.record(key, bucket.sketch.add(hash));
+        }
+
+        synchronized TopQueries top(int limit, long now) {
+            long current = now / window.bucketMillis;
+            List<Bucket> live = new ArrayList<>(buckets.length);
+            for (Bucket bucket : buckets) {
+                if (bucket.epoch > current - buckets.length && bucket.epoch <= current) {
+                    live.add(bucket);
+                }
+            }
+
+            Set<String> candidates = new HashSet<>();
+            long total = 0;
+            long errorBound = 0;
+            for (Bucket bucket : live) {
+                candidates.addAll(bucket.leaders.keySet());
+                total += bucket.sketch.total();
+                errorBound += bucket.sketch.errorBound();
+            }
+            List<QueryCount> counts = new ArrayList<>(candidates.size());
+            for (String key : candidates) {
+                long hash = CountMinSketch.hash(key);
+                long count = 0;
+                for (Bucket bucket : live) {
+                    count += bucket.sketch.estimate(hash);
+                }
+                counts.add(new QueryCount(key, count));
+            }
+            counts.sort(Comparator.comparingLong(QueryCount::getEstimatedCount).reversed()
+                    .thenComparing(QueryCount::getQuery));
+            List<QueryCount> top = counts.size() > limit ? new ArrayList<>(counts.subList(0, limit)) : counts;
+            return new TopQueries(window, total, errorBound, top);
+        }
+    }
+
+    private static final class Bucket {
+        private final CountMinSketch sketch;
+        private final int capacity;
+        private final Map<String, Leader> leaders = new HashMap<>();
+        private final PriorityQueue<Leader> byCount = new PriorityQueue<>(
+                Comparator.comparingInt((Leader leader) -> leader.count));
+        private long epoch = Long.MIN_VALUE;
+
+        Bucket(int width, int depth, int capacity) {
+            this.sketch = new CountMinSketch(width, depth);
+            this.capacity = capacity;
+        }
+
+        void reset(long epoch) {
+            this.epoch = epoch;
+            sketch.clear();
+            leaders.clear();
+            byCount.clear();
+        }
+
+        void record(String key, int estimate) {
+            Leader leader = leaders.get(key);
+            if (leader != null) {
+                byCount.remove(leader);
+                leader.count = estimate;
+                byCount.add(leader);
+            } else if (leaders.size() < capacity) {
+                leader = new Leader(key, estimate);
+                leaders.put(key, leader);
+                byCount.add(leader);
+            } else if (estimate > byCount.peek().count) {
+                leaders.remove(byCount.poll().key);
+                leader = new Leader(key, estimate);
+                leaders.put(key, leader);
+                byCount.add(leader);
+            }
+        }
+    }
+
+    private static final class Leader {
+        private final String key;
+        private int count;
+
+        Leader(String key, int count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    public static class QueryCount {
+        private final String query;
+        private final long estimatedCount;
+
+        public QueryCount(String query, long estimatedCount) {
+            this.query = query;
+            this.estimatedCount = estimatedCount;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public long getEstimatedCount() {
+            return estimatedCount;
+        }
+    }
+
+    public static class TopQueries {
+        private final Window window;
+        private final long totalQueries;
+        private final long maxOvercount;
+        private final List<QueryCount> queries;
+
+        public TopQueries(Window window, long totalQueries, long maxOvercount, List<QueryCount> queries) {
+            this.window = window;
+            this.totalQueries = totalQueries;
+            this.maxOvercount = maxOvercount;
+            this.queries = queries;
+        }
+
+        public Window getWindow() {
+            return window;
+        }
+
+        public long getTotalQueries() {
+            return totalQueries;
+        }
+
+        /**
+         * Estimates may exceed the true count by up to this much
+         */
+        public long getMaxOvercount() {
+            return maxOvercount;
+        }
+
+        public List<QueryCount> getQueries() {
+            return queries;
+        }
+    }
+}
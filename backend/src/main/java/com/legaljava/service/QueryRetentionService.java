@@ -0,0 +1,223 @@
+package com.legaljava.service;
+
+import com.legaljava.entity.LegalQuery;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps legal_queries to a bounded working set.
+ * Rows older than the retention horizon, or beyond the newest max-rows, are moved to
+ * {@link QueryArchive} (or just deleted) in small batches. Each batch is its own short
+ * transaction and the scan resumes from the last (created_at, id) it reached, so no
+ * batch has to step over index entries left dead by the one before. A pause between
+ * batches leaves room for autovacuum and replicas to keep up.
+ */
+@Service
+public class QueryRetentionService {
+
+    public enum Mode {
+        ARCHIVE, DELETE
+    }
+
+    private static final String SELECT_BATCH = "SELECT id, query, response, user_id, session_id, created_at "
+            + "FROM legal_queries WHERE (created_at, id) > (?, ?) AND created_at < ? ORDER BY created_at, id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueryArchive archive;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Mode mode;
+    private final int maxAgeDays;
+    private final long maxRows;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    public QueryRetentionService(PlatformTransactionManager transactionManager,
+            @Value("${app.retention.queries.mode:archive}") String mode,
+            @Value("${app.retention.queries.max-age-days:365}") int maxAgeDays,
+            @Value("${app.retention.queries.max-rows:0}") long maxRows,
+            @Value("${app.retention.queries.batch-size:500}") int batchSize,
+            @Value("${app.retention.queries.batch-pause-ms:200}") long batchPauseMillis,
+            @Value("${app.retention.queries.interval-minutes:60}") long intervalMinutes) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.maxAgeDays = maxAgeDays;
+        this.maxRows = maxRows;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "query-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::runScheduled, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Apply the retention policy now. Returns null if a run is already in progress.
+     */
+    public RetentionResult runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return purge(horizon());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            RetentionResult result = runOnce();
+            if (result != null && result.getRemoved() > 0) {
+                System.err.println("Query retention removed " + result.getRemoved() + " rows older than "
+                        + result.getHorizon() + " in " + result.getBatches() + " batches");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Query retention run failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rows created before this instant are removed: the age limit, moved forward to the
+     * creation time of the max-rows-th newest row when the table holds more than that
+     */
+    private LocalDateTime horizon() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(maxAgeDays);
+        if (maxRows > 0) {
+            List<Timestamp> boundary = jdbcTemplate.queryForList(
+                    "SELECT created_at FROM legal_queries ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?",
+                    Timestamp.class, maxRows - 1);
+            if (!boundary.isEmpty() && boundary.get(0).toLocalDateTime().isAfter(horizon)) {
+                horizon = boundary.get(0).toLocalDateTime();
+            }
+        }
+        return horizon;
+    }
+
+    private RetentionResult purge(LocalDateTime horizon) {
+        long started = System.nanoTime();
+        long removed = 0;
+        int batches = 0;
+        Timestamp afterAt = Timestamp.valueOf(LocalDateTime.of(1900, 1, 1, 0, 0));
+        long afterId = 0;
+
+        while (true) {
+            Timestamp fromAt = afterAt;
+            long fromId = afterId;
+            List<LegalQuery> batch = transactionTemplate.execute(status -> purgeBatch(fromAt, fromId, horizon));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            removed += batch.size();
+            batches++;
+            LegalQuery last = batch.get(batch.size() - 1);
+            afterAt = Timestamp.valueOf(last.getCreatedAt());
+            afterId = last.getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(batchPauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new RetentionResult(mode, horizon, removed, batches, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private List<LegalQuery> purgeBatch(Timestamp afterAt, long afterId, LocalDateTime horizon) {
+        List<LegalQuery> batch = jdbcTemplate.query(SELECT_BATCH, (resultSet, rowNum) -> {
+            LegalQuery row = new LegalQuery(resultSet.getString("query"), resultSet.getString("user_id"),
+                    resultSet.getString("session_id"));
+            row.setId(resultSet.getLong("id"));
+            row.setResponse(resultSet.getString("response"));
+            row.setCreatedAt(resultSet.getTimestamp("created_at").toLocalDateTime());
+            return row;
+        }, afterAt, afterId, Timestamp.valueOf(horizon), batchSize);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+
+        if (mode == Mode.ARCHIVE) {
+            // On disk before the delete commits; a failure here rolls the batch back
+            try {
+                archive.append(batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not archive legal queries", e);
+            }
+        }
+        List<Object[]> ids = new ArrayList<>(batch.size());
+        for (LegalQuery row : batch) {
+            ids.add(new Object[] { row.getId() });
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM legal_queries WHERE id = ?", ids);
+        return batch;
+    }
+
+    public static class RetentionResult {
+        private final Mode mode;
+        private final LocalDateTime horizon;
+        private final long removed;
+        private final int batches;
+        private final long elapsedMillis;
+
+        public RetentionResult(Mode mode, LocalDateTime horizon, long removed, int batches, long elapsedMillis) {
+            this.mode = mode;
+            this.horizon = horizon;
+            this.removed = removed;
+            this.batches = batches;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public LocalDateTime getHorizon() {
+            return horizon;
+        }
+
+        public long getRemoved() {
+            return removed;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
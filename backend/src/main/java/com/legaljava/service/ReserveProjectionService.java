@@ -0,0 +1,495 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.CaseExposureRow;
+import com.legaljava.dto.ProjectionScenario;
+import com.legaljava.entity.WorkersCompCase;
+import com.legaljava.repository.WorkersCompCaseRepository;
+import com.legaljava.service.BenefitRateTable.RateSchedule;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Projects outstanding TD/PD exposure across the open portfolio.
+ * Cases are streamed once into primitive columns, then each rate scenario is
+ * evaluated in parallel on a ForkJoinPool using the same fixed-point
+ * benefit arithmetic as {@link WorkersCompCaseService}.
+ */
+@Service
+public class ReserveProjectionService {
+
+    private static final List<WorkersCompCase.CaseStatus> PROJECTED_STATUSES = List.of(
+            WorkersCompCase.CaseStatus.OPEN, WorkersCompCase.CaseStatus.LITIGATED);
+
+    private static final int MIN_LEAF_SIZE = 4096;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    // Bits of PortfolioColumns.present; without them a column value means nothing
+    private static final byte HAS_WAGE = 1;
+    private static final byte HAS_RATING = 2;
+
+    @Autowired
+    private WorkersCompCaseRepository caseRepository;
+
+    @Autowired
+    private BenefitRateTable rateTable;
+
+    private final ForkJoinPool projectionPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @PreDestroy
+    public void shutdown() {
+        projectionPool.shutdown();
+    }
+
+    /**
+     * Project exposure for every OPEN and LITIGATED case under each scenario
+     */
+    @Transactional(readOnly = true)
+    public PortfolioProjection projectPortfolio(List<ProjectionScenario> scenarios) {
+        long started = System.nanoTime();
+        if (scenarios == null || scenarios.isEmpty()) {
+            scenarios = List.of(new ProjectionScenario("Current rates", LocalDate.now(), BigDecimal.ZERO));
+        }
+
+        PortfolioColumns columns;
+        try (Stream<CaseExposureRow> rows = caseRepository.streamExposureRows(PROJECTED_STATUSES)) {
+            columns = PortfolioColumns.load(rows, rateTable);
+        }
+
+        List<ForkJoinTask<ExposureAccumulator>> tasks = new ArrayList<>();
+        for (ProjectionScenario scenario : scenarios) {
+            ScenarioParameters parameters = ScenarioParameters.of(scenario, rateTable);
+            // A few leaves per worker keeps per-leaf accumulators from multiplying with the dictionaries
+            parameters.leafSize = Math.max(MIN_LEAF_SIZE, columns.size / (projectionPool.getParallelism() * 4));
+            tasks.add(projectionPool.submit(new ExposureTask(columns, parameters, 0, columns.size)));
+        }
+
+        List<ScenarioExposure> results = new ArrayList<>(scenarios.size());
+        for (int i = 0; i < scenarios.size(); i++) {
+            ExposureAccumulator totals = tasks.get(i).join();
+            results.add(totals.toScenarioExposure(scenarioName(scenarios.get(i), i), columns));
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new PortfolioProjection(columns.size, elapsedMillis, results);
+    }
+
+    private static String scenarioName(ProjectionScenario scenario, int index) {
+        return scenario.getName() != null ? scenario.getName() : "Scenario " + (index + 1);
+    }
+
+    /**
+     * Case data held column-wise with adjuster/employer names dictionary-encoded,
+     * so leaf tasks touch only primitive arrays
+     */
+    static final class PortfolioColumns {
+        int size;
+        // NOT_REPRESENTABLE where the stored value does not fit the fixed-point form
+        long[] wageCents;
+        long[] ratingHundredths;
+        byte[] present;
+        int[] injuryEpochDay;
+        int[] mmiEpochDay;
+        int[] adjuster;
+        int[] employer;
+        byte[] status;
+        byte[] scheduleIndex;
+        final List<String> adjusterNames = new ArrayList<>();
+        final List<String> employerNames = new ArrayList<>();
+        final List<RateSchedule> injurySchedules = new ArrayList<>();
+
+        static PortfolioColumns load(Stream<CaseExposureRow> rows, BenefitRateTable rateTable) {
+            PortfolioColumns columns = new PortfolioColumns();
+            columns.allocate(8192);
+            Map<String, Integer> adjusterIds = new HashMap<>();
+            Map<String, Integer> employerIds = new HashMap<>();
+            Map<RateSchedule, Integer> scheduleIds = new HashMap<>();
+
+            rows.forEach(row -> {
+                int i = columns.size;
+                if (i == columns.wageCents.length) {
+                    columns.allocate(i * 2);
+                }
+                byte present = 0;
+                if (row.getWeeklyWage() != null) {
+                    columns.wageCents[i] = BenefitCalculationEngine.toFixedPoint(row.getWeeklyWage(), 2);
+                    present |= HAS_WAGE;
+                }
+                if (row.getDisabilityRating() != null) {
+                    columns.ratingHundredths[i] = BenefitCalculationEngine.toFixedPoint(row.getDisabilityRating(), 2);
+                    present |= HAS_RATING;
+                }
+                columns.present[i] = present;
+                columns.injuryEpochDay[i] = row.getInjuryDate() != null
+                        ? (int) row.getInjuryDate().toEpochDay()
+                        : NO_DATE;
+                columns.mmiEpochDay[i] = row.getMaxMedicalImprovement() != null
+                        ? (int) row.getMaxMedicalImprovement().toEpochDay()
+                        : NO_DATE;
+                columns.adjuster[i] = encode(adjusterIds, columns.adjusterNames,
+                        row.getAdjusterName() != null ? row.getAdjusterName() : "Unassigned");
+                columns.employer[i] = encode(employerIds, columns.employerNames,
+                        row.getEmployerName() != null ? row.getEmployerName() : "Unknown");
+                columns.status[i] = (byte) row.getStatus().ordinal();
+
+                RateSchedule schedule = rateTable.scheduleFor(row.getInjuryDate());
+                Integer scheduleId = scheduleIds.get(schedule);
+                if (scheduleId == null) {
+                    scheduleId = columns.injurySchedules.size();
+                    scheduleIds.put(schedule, scheduleId);
+                    columns.injurySchedules.add(schedule);
+                }
+                columns.scheduleIndex[i] = scheduleId.byteValue();
+                columns.size++;
+            });
+            return columns;
+        }
+
+        private void allocate(int capacity) {
+            wageCents = wageCents == null ? new long[capacity] : Arrays.copyOf(wageCents, capacity);
+            ratingHundredths = ratingHundredths == null ? new long[capacity] : Arrays.copyOf(ratingHundredths, capacity);
+            present = present == null ? new byte[capacity] : Arrays.copyOf(present, capacity);
+            injuryEpochDay = injuryEpochDay == null ? new int[capacity] : Arrays.copyOf(injuryEpochDay, capacity);
+            mmiEpochDay = mmiEpochDay == null ? new int[capacity] : Arrays.copyOf(mmiEpochDay, capacity);
+            adjuster = adjuster == null ? new int[capacity] : Arrays.copyOf(adjuster, capacity);
+            employer = employer == null ? new int[capacity] : Arrays.copyOf(employer, capacity);
+            status = status == null ? new byte[capacity] : Arrays.copyOf(status, capacity);
+            scheduleIndex = scheduleIndex == null ? new byte[capacity] : Arrays.copyOf(scheduleIndex, capacity);
+        }
+
+        private static int encode(Map<String, Integer> ids, List<String> names, String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = names.size();
+                ids.put(value, id);
+                names.add(value);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Scenario settings reduced to primitives for the leaf loop
+     */
+    static final class ScenarioParameters {
+        RateSchedule fixedSchedule;
+        long wageFactor;
+        int asOfEpochDay;
+        int capDays;
+        int leafSize = MIN_LEAF_SIZE;
+
+        static ScenarioParameters of(ProjectionScenario scenario, BenefitRateTable rateTable) {
+            ScenarioParameters parameters = new ScenarioParameters();
+            parameters.fixedSchedule = scenario.getRateEffectiveDate() != null
+                    ? rateTable.scheduleFor(scenario.getRateEffectiveDate())
+                    : null;
+            BigDecimal adjustment = scenario.getWageAdjustmentPercent() != null
+                    ? scenario.getWageAdjustmentPercent()
+                    : BigDecimal.ZERO;
+            // Percent to a factor scaled by 10_000 (basis points on top of 100%)
+            parameters.wageFactor = BenefitRateTable.FACTOR_SCALE
+                    + adjustment.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            LocalDate asOf = scenario.getAsOfDate() != null ? scenario.getAsOfDate() : LocalDate.now();
+            parameters.asOfEpochDay = (int) asOf.toEpochDay();
+            parameters.capDays = Math.max(0, scenario.getTemporaryDisabilityCapWeeks()) * 7;
+            return parameters;
+        }
+    }
+
+    static final class ExposureTask extends RecursiveTask<ExposureAccumulator> {
+        private final PortfolioColumns columns;
+        private final ScenarioParameters parameters;
+        private final int from;
+        private final int to;
+
+        ExposureTask(PortfolioColumns columns, ScenarioParameters parameters, int from, int to) {
+            this.columns = columns;
+            this.parameters = parameters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ExposureAccumulator compute() {
+            if (to - from <= parameters.leafSize) {
+                return computeLeaf();
+            }
+            int mid = (from + to) >>> 1;
+            ExposureTask left = new ExposureTask(columns, parameters, from, mid);
+            ExposureTask right = new ExposureTask(columns, parameters, mid, to);
+            left.fork();
+            ExposureAccumulator result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+
+        private ExposureAccumulator computeLeaf() {
+            ExposureAccumulator acc = new ExposureAccumulator(columns.adjusterNames.size(),
+                    columns.employerNames.size());
+            PortfolioColumns c = columns;
+            ScenarioParameters p = parameters;
+
+            for (int i = from; i < to; i++) {
+                long tdCents = 0;
+                long pdCents = 0;
+                long wage = c.wageCents[i];
+                boolean hasRating = (c.present[i] & HAS_RATING) != 0;
+                if ((c.present[i] & HAS_WAGE) == 0) {
+                    acc.casesWithoutWage++;
+                } else if (wage == BenefitCalculationEngine.NOT_REPRESENTABLE
+                        || hasRating && c.ratingHundredths[i] == BenefitCalculationEngine.NOT_REPRESENTABLE) {
+                    // Left out of the totals, but counted so the shortfall is visible
+                    acc.casesUnrepresentable++;
+                } else {
+                    try {
+                        long adjustedWage = (Math.multiplyExact(wage, p.wageFactor)
+                                + BenefitRateTable.FACTOR_SCALE / 2) / BenefitRateTable.FACTOR_SCALE;
+                        RateSchedule schedule = p.fixedSchedule != null
+                                ? p.fixedSchedule
+                                : c.injurySchedules.get(c.scheduleIndex[i]);
+
+                        long weeklyRate = BenefitCalculationEngine.temporaryDisabilityRateCents(adjustedWage, schedule);
+                        long days = remainingTemporaryDisabilityDays(c.injuryEpochDay[i], c.mmiEpochDay[i], p);
+                        tdCents = (Math.multiplyExact(weeklyRate, days) + 3) / 7;
+
+                        if (hasRating) {
+                            pdCents = BenefitCalculationEngine.permanentDisabilityIndemnityCents(adjustedWage,
+                                    c.ratingHundredths[i], schedule);
+                        }
+                    } catch (ArithmeticException overflow) {
+                        acc.casesSkipped++;
+                    }
+                }
+                acc.add(c.adjuster[i], c.employer[i], c.status[i], tdCents, pdCents);
+            }
+            return acc;
+        }
+
+        /**
+         * Days of TD still payable: from the later of today and injury until MMI,
+         * never beyond the cap measured from the injury date
+         */
+        private static long remainingTemporaryDisabilityDays(int injuryDay, int mmiDay, ScenarioParameters p) {
+            if (injuryDay == NO_DATE) {
+                return 0;
+            }
+            long capEnd = (long) injuryDay + p.capDays;
+            long end = mmiDay != NO_DATE ? Math.min(mmiDay, capEnd) : capEnd;
+            long start = Math.max(injuryDay, p.asOfEpochDay);
+            return Math.max(0, end - start);
+        }
+    }
+
+    /**
+     * Per-dimension [count, td, pd] triples held in flat long arrays
+     */
+    static final class ExposureAccumulator {
+        private static final int STATUS_COUNT = WorkersCompCase.CaseStatus.values().length;
+
+        final long[] byAdjuster;
+        final long[] byEmployer;
+        final long[] byStatus;
+        long casesWithoutWage;
+        long casesUnrepresentable;
+        long casesSkipped;
+
+        ExposureAccumulator(int adjusters, int employers) {
+            byAdjuster = new long[adjusters * 3];
+            byEmployer = new long[employers * 3];
+            byStatus = new long[STATUS_COUNT * 3];
+        }
+
+        void add(int adjuster, int employer, int status, long tdCents, long pdCents) {
+            accumulate(byAdjuster, adjuster * 3, tdCents, pdCents);
+            accumulate(byEmployer, employer * 3, tdCents, pdCents);
+            accumulate(byStatus, status * 3, tdCents, pdCents);
+        }
+
+        private static void accumulate(long[] totals, int offset, long tdCents, long pdCents) {
+            totals[offset]++;
+            totals[offset + 1] += tdCents;
+            totals[offset + 2] += pdCents;
+        }
+
+        void merge(ExposureAccumulator other) {
+            for (int i = 0; i < byAdjuster.length; i++)
+                byAdjuster[i] += other.byAdjuster[i];
+            for (int i = 0; i < byEmployer.length; i++)
+                byEmployer[i] += other.byEmployer[i];
+            for (int i = 0; i < byStatus.length; i++)
+                byStatus[i] += other.byStatus[i];
+            casesWithoutWage += other.casesWithoutWage;
+            casesUnrepresentable += other.casesUnrepresentable;
+            casesSkipped += other.casesSkipped;
+        }
+
+        ScenarioExposure toScenarioExposure(String name, PortfolioColumns columns) {
+            Map<String, ExposureTotals> adjusters = toTotals(byAdjuster, columns.adjusterNames);
+            Map<String, ExposureTotals> employers = toTotals(byEmployer, columns.employerNames);
+            List<String> statusNames = new ArrayList<>();
+            for (WorkersCompCase.CaseStatus status : WorkersCompCase.CaseStatus.values()) {
+                statusNames.add(status.name());
+            }
+            Map<String, ExposureTotals> statuses = toTotals(byStatus, statusNames);
+
+            long td = 0;
+            long pd = 0;
+            for (int i = 0; i < byStatus.length; i += 3) {
+                td += byStatus[i + 1];
+                pd += byStatus[i + 2];
+            }
+            return new ScenarioExposure(name, BigDecimal.valueOf(td, 2), BigDecimal.valueOf(pd, 2),
+                    casesWithoutWage, casesUnrepresentable, casesSkipped, adjusters, employers, statuses);
+        }
+
+        private static Map<String, ExposureTotals> toTotals(long[] totals, List<String> names) {
+            Map<String, ExposureTotals> result = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                long count = totals[i * 3];
+                if (count > 0) {
+                    result.put(names.get(i), new ExposureTotals(count, BigDecimal.valueOf(totals[i * 3 + 1], 2),
+                            BigDecimal.valueOf(totals[i * 3 + 2], 2)));
+                }
+            }
+            return result;
+        }
+    }
+
+    // Projection DTOs
+    public static class PortfolioProjection {
+        private final long caseCount;
+        private final long elapsedMillis;
+        private final List<ScenarioExposure> scenarios;
+
+        public PortfolioProjection(long caseCount, long elapsedMillis, List<ScenarioExposure> scenarios) {
+            this.caseCount = caseCount;
+            this.elapsedMillis = elapsedMillis;
+            this.scenarios = scenarios;
+        }
+
+        public long getCaseCount() {
+            return caseCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public List<ScenarioExposure> getScenarios() {
+            return scenarios;
+        }
+    }
+
+    public static class ScenarioExposure {
+        private final String name;
+        private final BigDecimal temporaryDisabilityExposure;
+        private final BigDecimal permanentDisabilityExposure;
+        private final long casesWithoutWage;
+        private final long casesUnrepresentable;
+        private final long casesSkipped;
+        private final Map<String, ExposureTotals> byAdjuster;
+        private final Map<String, ExposureTotals> byEmployer;
+        private final Map<String, ExposureTotals> byStatus;
+
+        public ScenarioExposure(String name, BigDecimal temporaryDisabilityExposure,
+                BigDecimal permanentDisabilityExposure, long casesWithoutWage, long casesUnrepresentable,
+                long casesSkipped, Map<String, ExposureTotals> byAdjuster, Map<String, ExposureTotals> byEmployer,
+                Map<String, ExposureTotals> byStatus) {
+            this.name = name;
+            this.temporaryDisabilityExposure = temporaryDisabilityExposure;
+            this.permanentDisabilityExposure = permanentDisabilityExposure;
+            this.casesWithoutWage = casesWithoutWage;
+            this.casesUnrepresentable = casesUnrepresentable;
+            this.casesSkipped = casesSkipped;
+            this.byAdjuster = byAdjuster;
+            this.byEmployer = byEmployer;
+            this.byStatus = byStatus;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BigDecimal getTemporaryDisabilityExposure() {
+            return temporaryDisabilityExposure;
+        }
+
+        public BigDecimal getPermanentDisabilityExposure() {
+            return permanentDisabilityExposure;
+        }
+
+        public BigDecimal getTotalExposure() {
+            return temporaryDisabilityExposure.add(permanentDisabilityExposure);
+        }
+
+        public long getCasesWithoutWage() {
+            return casesWithoutWage;
+        }
+
+        /**
+         * Cases left out because a wage or rating has more than two decimals or does not fit a long
+         */
+        public long getCasesUnrepresentable() {
+            return casesUnrepresentable;
+        }
+
+        public long getCasesSkipped() {
+            return casesSkipped;
+        }
+
+        public Map<String, ExposureTotals> getByAdjuster() {
+            return byAdjuster;
+        }
+
+        public Map<String, ExposureTotals> getByEmployer() {
+            return byEmployer;
+        }
+
+        public Map<String, ExposureTotals> getByStatus() {
+            return byStatus;
+        }
+    }
+
+    public static class ExposureTotals {
+        private final long caseCount;
+        private final BigDecimal temporaryDisabilityExposure;
+        private final BigDecimal permanentDisabilityExposure;
+
+        public ExposureTotals(long caseCount, BigDecimal temporaryDisabilityExposure,
+                BigDecimal permanentDisabilityExposure) {
+            this.caseCount = caseCount;
+            this.temporaryDisabilityExposure = temporaryDisabilityExposure;
+            this.permanentDisabilityExposure = permanentDisabilityExposure;
+        }
+
+        public long getCaseCount() {
+            return caseCount;
+        }
+
+        public BigDecimal getTemporaryDisabilityExposure() {
+            return temporaryDisabilityExposure;
+        }
+
+        public BigDecimal getPermanentDisabilityExposure() {
+            return permanentDisabilityExposure;
+        }
+
+        public BigDecimal getTotalExposure() {
+            return temporaryDisabilityExposure.add(permanentDisabilityExposure);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.ChangeNotification;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters per record type, bumped from the change bus.
+ * Read endpoints derive their ETags from these counters, so an unchanged resource
+ * can be confirmed without touching the database.
+ */
+@Component
+public class ResourceVersions {
+
+    // Counters restart with the process; the start time keeps old ETags from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<ChangeNotification.Topic, AtomicLong> versions = new EnumMap<>(ChangeNotification.Topic.class);
+
+    public ResourceVersions(ChangeBus changeBus) {
+        for (ChangeNotification.Topic topic : ChangeNotification.Topic.values()) {
+            versions.put(topic, new AtomicLong());
+        }
+        changeBus.addListener(change -> bump(change.getTopic()));
+    }
+
+    /**
+     * Record a change made outside the change bus, such as a bulk JDBC import
+     */
+    public void bump(ChangeNotification.Topic... topics) {
+        for (ChangeNotification.Topic topic : topics) {
+            versions.get(topic).incrementAndGet();
+        }
+    }
+
+    public long version(ChangeNotification.Topic topic) {
+        return versions.get(topic).get();
+    }
+
+    /**
+     * Weak ETag covering the given record types, plus an optional qualifier such as the current date
+     */
+    public String etag(ChangeNotification.Topic[] topics, String qualifier) {
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch);
+        for (ChangeNotification.Topic topic : topics) {
+            tag.append('-').append(topic.getWireName().charAt(0)).append(version(topic));
+        }
+        if (qualifier != null) {
+            tag.append('-').append(qualifier);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Weak ETag for a single entity, derived from its update timestamp
+     */
+    public static String entityETag(LocalDateTime updatedAt) {
+        Instant instant = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        return "W/\"" + instant.getEpochSecond() + "." + instant.getNano() / 1000 + "\"";
+    }
+
+    public static long toEpochMilli(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
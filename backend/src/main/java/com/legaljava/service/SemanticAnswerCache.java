@@ -0,0 +1,192 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.QueryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers to recent questions, found by meaning rather than exact text.
+ * Questions are embedded without their numbers by {@link QueryEmbedder} and searched in an
+ * {@link HnswIndex}; a cached answer is reused when the best match clears the similarity
+ * threshold, is younger than the TTL and has the same {@link QueryEmbedder#qualifiers}:
+ * negation, before or after, benefit type and party, none of which the hashed vector
+ * reliably separates, and the same numbers when both questions give some (a 2024 rate is
+ * not a 2023 rate, but may be the one asked for without a year). Answers depend on the
+ * documents, so the cache is emptied whenever they change, and an answer to a question
+ * asked before the change is not stored. The cache keeps at most max-entries answers and evicts the least
+ * recently used. Evicted nodes stay in the graph until they outnumber the live ones, then
+ * it is rebuilt.
+ */
+@Component
+public class SemanticAnswerCache {
+
+    private static final int CANDIDATES = 4;
+
+    private final QueryEmbedder embedder;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final double threshold;
+    private final long ttlMillis;
+    private final int maxLinks;
+    private final int efConstruction;
+    private final int efSearch;
+
+    private HnswIndex index;
+    // Keyed by graph node, in least-recently-used order
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    public SemanticAnswerCache(QueryEmbedder embedder,
+            @Value("${app.semantic-cache.enabled:false}") boolean enabled,
+            @Value("${app.semantic-cache.max-entries:5000}") int maxEntries,
+            @Value("${app.semantic-cache.similarity-threshold:0.85}") double threshold,
+            @Value("${app.semantic-cache.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${app.semantic-cache.hnsw-links:16}") int maxLinks,
+            @Value("${app.semantic-cache.hnsw-ef-construction:100}") int efConstruction,
+            @Value("${app.semantic-cache.hnsw-ef-search:64}") int efSearch) {
+        this.embedder = embedder;
+        this.enabled = enabled && maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.threshold = threshold;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.maxLinks = maxLinks;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.index = new HnswIndex(new FloatVectorStore(embedder.dimension()), maxLinks, efConstruction);
+    }
+
+    /**
+     * A cached answer to a question like this one, if there is a close enough match
+     */
+    public Optional<QueryResponse> lookup(String query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        float[] vector = embedder.embedQuestion(query);
+        Set<String> qualifiers = embedder.qualifiers(query);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (HnswIndex.Hit hit : index.search(vector, CANDIDATES, efSearch)) {
+                if (hit.score() < threshold) {
+                    break;
+                }
+                Entry entry = entries.get(hit.node());
+                if (entry == null) {
+                    continue;
+                }
+                if (now - entry.storedAt > ttlMillis) {
+                    evict(hit.node());
+                    continue;
+                }
+                if (QueryEmbedder.sameQualifiers(entry.qualifiers, qualifiers)) {
+                    hits.incrementAndGet();
+                    QueryResponse cached = entry.response;
+                    return Optional.of(new QueryResponse(cached.getResponse(), cached.getCitations(), null,
+                            cached.getConfidence()));
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Remember an answer from py-rag. A previous answer to the same question is replaced.
+     *
+     * @param generation {@link #generation()} from before the question was sent; the answer
+     *                   is dropped if the documents have changed since
+     */
+    public void put(String query, QueryResponse response, long generation) {
+        if (!enabled || response == null || response.getResponse() == null || response.getResponse().isBlank()) {
+            return;
+        }
+        float[] vector = embedder.embedQuestion(query);
+        Set<String> qualifiers = embedder.qualifiers(query);
+        QueryResponse stored = new QueryResponse(response.getResponse(),
+                response.getCitations() != null ? List.copyOf(response.getCitations()) : null, null,
+                response.getConfidence());
+        synchronized (this) {
+            if (generation != this.generation.get()) {
+                return;
+            }
+            for (HnswIndex.Hit hit : index.search(vector, 1, efSearch)) {
+                Entry existing = entries.get(hit.node());
+                if (hit.score() > 0.999f && existing != null && existing.qualifiers.equals(qualifiers)) {
+                    evict(hit.node());
+                }
+            }
+            int node = index.add(vector);
+            entries.put(node, new Entry(stored, qualifiers, System.currentTimeMillis()));
+            Iterator<Map.Entry<Integer, Entry>> oldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && oldest.hasNext()) {
+                index.remove(oldest.next().getKey());
+                oldest.remove();
+            }
+            if (index.removedCount() > Math.max(index.size(), 64)) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Changes whenever the cache is invalidated
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Forget every answer, e.g. because the documents they were drawn from have changed
+     */
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        if (!entries.isEmpty()) {
+            entries.clear();
+            index = new HnswIndex(new FloatVectorStore(embedder.dimension()), maxLinks, efConstruction);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void evict(int node) {
+        entries.remove(node);
+        index.remove(node);
+    }
+
+    // Re-insert the live answers, oldest first so the recency order carries over
+    private void rebuild() {
+        HnswIndex rebuilt = new HnswIndex(new FloatVectorStore(embedder.dimension()), maxLinks, efConstruction);
+        Map<Integer, Entry> renumbered = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Entry> live : new ArrayList<>(entries.entrySet())) {
+            int node = rebuilt.add(index.vector(live.getKey()));
+            renumbered.put(node, live.getValue());
+        }
+        entries.clear();
+        entries.putAll(renumbered);
+        index = rebuilt;
+    }
+
+    private record Entry(QueryResponse response, Set<String> qualifiers, long storedAt) {
+    }
+}
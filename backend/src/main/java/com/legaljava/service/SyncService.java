@@ -0,0 +1,198 @@
+package com.legaljava.service;
+
+import com.legaljava.config.ReplicaRoutingDataSource;
+import com.legaljava.entity.DeletedRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "What changed since" reads for cases, tasks and AME reports.
+ * Changed rows are found with a keyset scan over the (updated_at, id) index and deletes
+ * come from tombstones, so a sync costs in proportion to what changed. Rows touched in
+ * the last few seconds are held back until in-flight transactions have committed, which
+ * lets the resume token only ever move forward without skipping late commits.
+ */
+@Service
+public class SyncService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.sync.settle-millis:5000}")
+    private long settleMillis;
+
+    @Transactional(readOnly = true)
+    public SyncPage changesSince(ExportService.Dataset dataset, String since, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        SyncToken from = SyncToken.parse(since);
+        // On the primary: a replica may be missing rows committed before the settle horizon,
+        // and the token would then move past them for good
+        return ReplicaRoutingDataSource.onPrimary(() -> readChanges(dataset, from, limit));
+    }
+
+    private SyncPage readChanges(ExportService.Dataset dataset, SyncToken from, int limit) {
+        LocalDateTime until = LocalDateTime.now().minusNanos(settleMillis * 1_000_000).truncatedTo(ChronoUnit.MICROS);
+
+        // One extra row tells us whether another page follows
+        List<Map<String, Object>> changed = jdbcTemplate.query(
+                "SELECT " + dataset.getColumns() + " FROM " + dataset.getTable()
+                        + " WHERE (updated_at, id) > (?, ?) AND updated_at <= ? ORDER BY updated_at, id LIMIT ?",
+                new FlatRowMapper(), Timestamp.valueOf(from.updatedAt), from.updatedId,
+                Timestamp.valueOf(until), limit + 1);
+        List<Tombstone> tombstones = jdbcTemplate.query(
+                "SELECT id, record_id, deleted_at FROM deleted_records WHERE record_type = ? "
+                        + "AND (deleted_at, id) > (?, ?) AND deleted_at <= ? ORDER BY deleted_at, id LIMIT ?",
+                (resultSet, rowNum) -> new Tombstone(resultSet.getLong("id"), resultSet.getLong("record_id"),
+                        resultSet.getTimestamp("deleted_at").toLocalDateTime()),
+                recordType(dataset).name(), Timestamp.valueOf(from.deletedAt), from.deletedId,
+                Timestamp.valueOf(until), limit + 1);
+
+        boolean hasMore = changed.size() > limit || tombstones.size() > limit;
+
+        // A stream that was read to the end catches up to the settle horizon, but never moves back
+        LocalDateTime updatedAt = until.isAfter(from.updatedAt) ? until : from.updatedAt;
+        long updatedId = until.isAfter(from.updatedAt) ? Long.MAX_VALUE : from.updatedId;
+        if (changed.size() > limit) {
+            changed = changed.subList(0, limit);
+            Map<String, Object> last = changed.get(limit - 1);
+            updatedAt = (LocalDateTime) last.get("updatedAt");
+            updatedId = (Long) last.get("id");
+        }
+        LocalDateTime deletedAt = until.isAfter(from.deletedAt) ? until : from.deletedAt;
+        long deletedId = until.isAfter(from.deletedAt) ? Long.MAX_VALUE : from.deletedId;
+        if (tombstones.size() > limit) {
+            tombstones = tombstones.subList(0, limit);
+            Tombstone last = tombstones.get(limit - 1);
+            deletedAt = last.deletedAt;
+            deletedId = last.id;
+        }
+
+        List<Long> deleted = new ArrayList<>(tombstones.size());
+        for (Tombstone tombstone : tombstones) {
+            deleted.add(tombstone.recordId);
+        }
+        String nextToken = new SyncToken(updatedAt, updatedId, deletedAt, deletedId).encode();
+        return new SyncPage(changed, deleted, nextToken, hasMore);
+    }
+
+    private static DeletedRecord.RecordType recordType(ExportService.Dataset dataset) {
+        return switch (dataset) {
+            case CASES -> DeletedRecord.RecordType.CASE;
+            case TASKS -> DeletedRecord.RecordType.TASK;
+            case REPORTS -> DeletedRecord.RecordType.REPORT;
+        };
+    }
+
+    /**
+     * Rows in the same flat shape as the exports
+     */
+    private static final class FlatRowMapper implements RowMapper<Map<String, Object>> {
+        private String[] names;
+        private int[] types;
+
+        @Override
+        public Map<String, Object> mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+            if (names == null) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                names = ExportService.columnNames(metaData);
+                types = ExportService.columnTypes(metaData);
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                row.put(names[i], ExportService.readValue(resultSet, i + 1, types[i]));
+            }
+            return row;
+        }
+    }
+
+    private record Tombstone(long id, long recordId, LocalDateTime deletedAt) {
+    }
+
+    /**
+     * Position in both the changed-row and the tombstone streams. Accepts a token from an
+     * earlier page, a plain ISO date-time watermark, or nothing for a full sync.
+     */
+    private record SyncToken(LocalDateTime updatedAt, long updatedId, LocalDateTime deletedAt, long deletedId) {
+
+        static SyncToken parse(String since) {
+            if (since == null || since.isBlank()) {
+                return new SyncToken(BEGINNING, 0, BEGINNING, 0);
+            }
+            try {
+                LocalDateTime watermark = LocalDateTime.parse(since.trim());
+                return new SyncToken(watermark, Long.MAX_VALUE, watermark, Long.MAX_VALUE);
+            } catch (DateTimeParseException e) {
+                // Not a watermark; try it as a resume token
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(since.trim()), StandardCharsets.UTF_8)
+                        .split("\\|");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Malformed sync token");
+                }
+                return new SyncToken(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("since must be a sync token or an ISO date-time");
+            }
+        }
+
+        String encode() {
+            String raw = updatedAt + "|" + updatedId + "|" + deletedAt + "|" + deletedId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static class SyncPage {
+        private final List<Map<String, Object>> changed;
+        private final List<Long> deleted;
+        private final String nextToken;
+        private final boolean hasMore;
+
+        public SyncPage(List<Map<String, Object>> changed, List<Long> deleted, String nextToken, boolean hasMore) {
+            this.changed = changed;
+            this.deleted = deleted;
+            this.nextToken = nextToken;
+            this.hasMore = hasMore;
+        }
+
+        public List<Map<String, Object>> getChanged() {
+            return changed;
+        }
+
+        public List<Long> getDeleted() {
+            return deleted;
+        }
+
+        public String getNextToken() {
+            return nextToken;
+        }
+
+        public boolean isHasMore() {
+            return hasMore;
+        }
+    }
+}
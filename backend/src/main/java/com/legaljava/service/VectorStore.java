@@ -0,0 +1,23 @@
+package com.legaljava.service;
+
+/**
+ * Vectors of one dimension, numbered in insertion order, as seen by {@link HnswIndex}.
+ * Implementations may store them approximately; scores are dot products.
+ */
+interface VectorStore {
+
+    int dimension();
+
+    int size();
+
+    int add(float[] vector);
+
+    /**
+     * The stored vector, as a new array
+     */
+    float[] vector(int node);
+
+    float score(float[] query, int node);
+
+    float score(int a, int b);
+}
@@ -1,15 +1,28 @@
 package com.legaljava.service;
 
+import com.legaljava.dto.BenefitCalculationRequest;
+import com.legaljava.dto.BenefitCalculationResult;
+import com.legaljava.dto.ChangeNotification;
+import com.legaljava.dto.StatuteRiskCase;
+import com.legaljava.entity.DeletedRecord;
 import com.legaljava.entity.WorkersCompCase;
+import com.legaljava.repository.DeletedRecordRepository;
 import com.legaljava.repository.WorkersCompCaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class WorkersCompCaseService {
@@ -17,6 +30,27 @@ public class WorkersCompCaseService {
     @Autowired
     private WorkersCompCaseRepository caseRepository;
 
+    @Autowired
+    private BenefitCalculationEngine benefitEngine;
+
+    @Autowired
+    private ChangeBus changeBus;
+
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @Value("${app.statute.limitation-days:365}")
+    private int limitationDays;
+
+    @Value("${app.statute.warning-days:65}")
+    private int warningDays;
+
+    private static final List<WorkersCompCase.CaseStatus> OPEN_STATUSES = List.of(
+            WorkersCompCase.CaseStatus.OPEN, WorkersCompCase.CaseStatus.PENDING_REVIEW,
+            WorkersCompCase.CaseStatus.LITIGATED);
+
+    private static final LocalDate EARLIEST_INJURY_DATE = LocalDate.of(1900, 1, 1);
+
     public List<WorkersCompCase> getAllCases() {
         return caseRepository.findAll();
     }
@@ -30,14 +64,22 @@ public class WorkersCompCaseService {
     }
 
     public WorkersCompCase saveCase(WorkersCompCase workersCompCase) {
-        return caseRepository.save(workersCompCase);
+        ChangeNotification.Action action = workersCompCase.getId() == null
+                ? ChangeNotification.Action.CREATED
+                : ChangeNotification.Action.UPDATED;
+        WorkersCompCase saved = caseRepository.save(workersCompCase);
+        changeBus.publish(ChangeNotification.Topic.CASES, action, saved.getId(), saved.getId(), null);
+        return saved;
     }
 
     public WorkersCompCase createCase(String caseNumber, String claimantName, String employerName,
             LocalDate injuryDate, String injuryDescription) {
         WorkersCompCase newCase = new WorkersCompCase(caseNumber, claimantName, employerName,
                 injuryDate, injuryDescription);
-        return caseRepository.save(newCase);
+        WorkersCompCase saved = caseRepository.save(newCase);
+        changeBus.publish(ChangeNotification.Topic.CASES, ChangeNotification.Action.CREATED, saved.getId(),
+                saved.getId(), null);
+        return saved;
     }
 
     public List<WorkersCompCase> searchCasesByClaimant(String claimantName) {
@@ -56,8 +98,14 @@ public class WorkersCompCaseService {
         return caseRepository.findByAdjusterName(adjusterName);
     }
 
+    /**
+     * Delete a case, leaving a tombstone for delta sync in the same transaction
+     */
+    @Transactional
     public void deleteCase(Long id) {
         caseRepository.deleteById(id);
+        deletedRecordRepository.save(new DeletedRecord(DeletedRecord.RecordType.CASE, id));
+        changeBus.publish(ChangeNotification.Topic.CASES, ChangeNotification.Action.DELETED, id, id, null);
     }
 
     // Business logic methods
@@ -66,7 +114,7 @@ public class WorkersCompCaseService {
      * Calculate days since injury for determining statute of limitations
      */
     public long getDaysSinceInjury(WorkersCompCase workersCompCase) {
-        return Period.between(workersCompCase.getInjuryDate(), LocalDate.now()).getDays();
+        return ChronoUnit.DAYS.between(workersCompCase.getInjuryDate(), LocalDate.now());
     }
 
     /**
@@ -74,56 +122,124 @@ public class WorkersCompCaseService {
      */
     public boolean isApproachingStatuteOfLimitations(WorkersCompCase workersCompCase) {
         long daysSinceInjury = getDaysSinceInjury(workersCompCase);
-        return daysSinceInjury > 300; // Alert when within 65 days of 1-year limit
+        return daysSinceInjury > limitationDays - warningDays; // Alert inside the warning window
     }
 
     /**
-     * Calculate temporary disability benefits based on weekly wage
-     * California rate is 2/3 of average weekly wage, subject to min/max
+     * Find every case whose injury date falls inside the statute-of-limitations warning window.
+     * One range query over the injury_date index replaces a per-case check.
      */
-    public BigDecimal calculateTemporaryDisabilityRate(BigDecimal weeklyWage) {
-        if (weeklyWage == null)
-            return BigDecimal.ZERO;
+    public List<StatuteRiskCase> scanStatuteOfLimitations(Integer warningWindowDays, Integer limitDays,
+            boolean includeExpired, List<WorkersCompCase.CaseStatus> statuses) {
+        int limit = limitDays != null ? limitDays : limitationDays;
+        int warning = warningWindowDays != null ? warningWindowDays : warningDays;
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limitation days must be positive");
+        }
+        if (warning < 0) {
+            throw new IllegalArgumentException("Warning days must not be negative");
+        }
 
-        // 2/3 of weekly wage
-        BigDecimal rate = weeklyWage.multiply(new BigDecimal("0.6667"));
+        LocalDate today = LocalDate.now();
+        // days since injury in (limit - warning, limit] <=> injury date in [today - limit, today - limit + warning)
+        LocalDate newestInjury = today.minusDays(Math.max(0, limit - warning) + 1L);
+        LocalDate oldestInjury = includeExpired ? EARLIEST_INJURY_DATE : today.minusDays(limit);
+        if (newestInjury.isBefore(oldestInjury)) {
+            return List.of();
+        }
 
-        // California 2024 TD rates (these would be updated annually)
-        BigDecimal maxRate = new BigDecimal("1539.71"); // Max weekly TD rate
-        BigDecimal minRate = new BigDecimal("230.95"); // Min weekly TD rate
+        List<WorkersCompCase.CaseStatus> scanStatuses = statuses != null && !statuses.isEmpty()
+                ? statuses
+                : OPEN_STATUSES;
+        List<StatuteRiskCase> atRisk = caseRepository.findStatuteRiskCases(oldestInjury, newestInjury, scanStatuses);
+        for (StatuteRiskCase riskCase : atRisk) {
+            LocalDate deadline = riskCase.getInjuryDate().plusDays(limit);
+            riskCase.setFilingDeadline(deadline);
+            riskCase.setDaysSinceInjury(ChronoUnit.DAYS.between(riskCase.getInjuryDate(), today));
+            riskCase.setDaysRemaining(ChronoUnit.DAYS.between(today, deadline));
+        }
+        return atRisk;
+    }
 
-        if (rate.compareTo(maxRate) > 0)
-            return maxRate;
-        if (rate.compareTo(minRate) < 0)
-            return minRate;
+    /**
+     * Calculate temporary disability benefits based on weekly wage
+     * California rate is 2/3 of average weekly wage, subject to the min/max in force today
+     */
+    public BigDecimal calculateTemporaryDisabilityRate(BigDecimal weeklyWage) {
+        return benefitEngine.calculateTemporaryDisabilityRate(weeklyWage, null);
+    }
 
-        return rate.setScale(2, BigDecimal.ROUND_HALF_UP);
+    /**
+     * Calculate temporary disability benefits using the rate schedule in force on the injury date
+     */
+    public BigDecimal calculateTemporaryDisabilityRate(BigDecimal weeklyWage, LocalDate injuryDate) {
+        return benefitEngine.calculateTemporaryDisabilityRate(weeklyWage, injuryDate);
     }
 
     /**
      * Calculate permanent disability indemnity based on disability rating
      */
     public BigDecimal calculatePermanentDisabilityIndemnity(BigDecimal disabilityRating, BigDecimal weeklyWage) {
-        if (disabilityRating == null || weeklyWage == null)
-            return BigDecimal.ZERO;
-
         // California PD calculation is complex - this is a simplified version
         // Real calculation involves age factors, disability rating schedules, etc.
+        // For example: 10% disability = 30 weeks of benefits at the TD base rate
+        return benefitEngine.calculatePermanentDisabilityIndemnity(disabilityRating, weeklyWage, null);
+    }
 
-        BigDecimal baseRate = weeklyWage.multiply(new BigDecimal("0.6667"));
-        BigDecimal maxRate = new BigDecimal("1539.71");
-        BigDecimal minRate = new BigDecimal("230.95");
+    /**
+     * Calculate permanent disability indemnity using the rate schedule in force on the injury date
+     */
+    public BigDecimal calculatePermanentDisabilityIndemnity(BigDecimal disabilityRating, BigDecimal weeklyWage,
+            LocalDate injuryDate) {
+        return benefitEngine.calculatePermanentDisabilityIndemnity(disabilityRating, weeklyWage, injuryDate);
+    }
 
-        if (baseRate.compareTo(maxRate) > 0)
-            baseRate = maxRate;
-        if (baseRate.compareTo(minRate) < 0)
-            baseRate = minRate;
+    /**
+     * Calculate TD/PD for many cases in one pass.
+     * Entries that only carry a caseId are filled in from the case, loaded with a single query.
+     */
+    public List<BenefitCalculationResult> calculateBenefitsBatch(List<BenefitCalculationRequest> requests) {
+        Set<Long> caseIdsToLoad = new HashSet<>();
+        for (BenefitCalculationRequest request : requests) {
+            if (request.getCaseId() != null && request.getWeeklyWage() == null) {
+                caseIdsToLoad.add(request.getCaseId());
+            }
+        }
 
-        // Multiply by disability rating percentage and number of weeks
-        // For example: 10% disability = 30 weeks of benefits
-        BigDecimal weeks = disabilityRating.multiply(new BigDecimal("3"));
+        Map<Long, WorkersCompCase> cases = new HashMap<>();
+        if (!caseIdsToLoad.isEmpty()) {
+            for (WorkersCompCase workersCompCase : caseRepository.findAllById(caseIdsToLoad)) {
+                cases.put(workersCompCase.getId(), workersCompCase);
+            }
+        }
 
-        return baseRate.multiply(weeks).setScale(2, BigDecimal.ROUND_HALF_UP);
+        List<BenefitCalculationResult> results = new ArrayList<>(requests.size());
+        for (BenefitCalculationRequest request : requests) {
+            BigDecimal weeklyWage = request.getWeeklyWage();
+            BigDecimal disabilityRating = request.getDisabilityRating();
+            LocalDate injuryDate = request.getInjuryDate();
+
+            if (weeklyWage == null && request.getCaseId() != null) {
+                WorkersCompCase workersCompCase = cases.get(request.getCaseId());
+                if (workersCompCase == null) {
+                    results.add(BenefitCalculationResult.failed(request.getCaseId(),
+                            "Case not found with ID: " + request.getCaseId()));
+                    continue;
+                }
+                weeklyWage = workersCompCase.getWeeklyWage();
+                if (disabilityRating == null)
+                    disabilityRating = workersCompCase.getDisabilityRating();
+                if (injuryDate == null)
+                    injuryDate = workersCompCase.getInjuryDate();
+            }
+
+            if (weeklyWage == null) {
+                results.add(BenefitCalculationResult.failed(request.getCaseId(), "Weekly wage is required"));
+                continue;
+            }
+            results.add(benefitEngine.calculate(request.getCaseId(), weeklyWage, disabilityRating, injuryDate));
+        }
+        return results;
     }
 
     /**
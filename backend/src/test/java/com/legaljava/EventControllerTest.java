@@ -0,0 +1,96 @@
+package com.legaljava;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legaljava.service.ChangeBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EventControllerTest {
+
+    @TempDir
+    Path directory;
+
+    private EventLog eventLog;
+    private ChangeBus changeBus;
+    private EventService eventService;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventLog = new EventLog(directory.toString(), 1 << 20, 50_000, false);
+        changeBus = new ChangeBus(16, 16, 60, 60_000, 1);
+        eventService = new EventService(eventLog, new ObjectMapper(), changeBus);
+        // Seeds sample events "1" to "3" at version 1
+        eventService.recover();
+
+        EventController controller = new EventController();
+        ReflectionTestUtils.setField(controller, "eventService", eventService);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLog.close();
+        changeBus.shutdown();
+    }
+
+    @Test
+    void matchingIfMatchAppliesTheChange() throws Exception {
+        mvc.perform(patch("/api/events/1").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithTheCurrentEvent() throws Exception {
+        mvc.perform(patch("/api/events/1").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"First\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(patch("/api/events/1").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Second\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.title").value("First"));
+        assertThat(eventService.getEventById("1").getTitle()).isEqualTo("First");
+    }
+
+    @Test
+    void invalidChangeIsABadRequest() throws Exception {
+        mvc.perform(patch("/api/events/1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"start\":\"next tuesday\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changeThatCannotBeLoggedIsUnavailableAndNotApplied() throws Exception {
+        CalendarEvent before = eventService.getEventById("1");
+        eventLog.close();
+
+        mvc.perform(patch("/api/events/1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"start\":\"2030-01-01T09:00:00\"}"))
+                .andExpect(status().isServiceUnavailable());
+
+        assertThat(eventService.getEventById("1")).isSameAs(before);
+        assertThat(eventService.getEventsByDateRange("2025-05-30", "2025-05-31"))
+                .extracting(CalendarEvent::getId).containsExactly("1");
+        assertThat(eventService.getEventsByDateRange("2030-01-01", "2030-01-02")).isEmpty();
+    }
+}
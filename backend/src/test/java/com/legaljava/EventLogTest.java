@@ -0,0 +1,261 @@
+package com.legaljava;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<EventLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeLogs() {
+        opened.forEach(EventLog::close);
+    }
+
+    @Test
+    void recoveryTruncatesTornTailAndKeepsEarlierRecords() throws Exception {
+        EventLog log = open(new EventLog(directory.toString(), 1 << 20, Long.MAX_VALUE, true), new ArrayList<>());
+        append(log, "one").get(5, TimeUnit.SECONDS);
+        append(log, "two").get(5, TimeUnit.SECONDS);
+        log.close();
+
+        // A crash halfway through the next frame
+        Path segment = onlySegment();
+        long intact = Files.size(segment);
+        Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        List<String> replayed = new ArrayList<>();
+        EventLog reopened = open(new EventLog(directory.toString(), 1 << 20, Long.MAX_VALUE, true), replayed);
+        assertThat(replayed).containsExactly("one", "two");
+        assertThat(Files.size(segment)).isEqualTo(intact);
+
+        append(reopened, "three").get(5, TimeUnit.SECONDS);
+        reopened.close();
+        List<String> again = new ArrayList<>();
+        open(new EventLog(directory.toString(), 1 << 20, Long.MAX_VALUE, true), again);
+        assertThat(again).containsExactly("one", "two", "three");
+    }
+
+    @Test
+    void failedWriteDoesNotHideLaterRecords() throws Exception {
+        FailingEventLog log = new FailingEventLog(directory.toString());
+        open(log, new ArrayList<>());
+        append(log, "before").get(5, TimeUnit.SECONDS);
+
+        log.failNextWrite = true;
+        CompletableFuture<Void> failed = append(log, "lost");
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class);
+
+        append(log, "after").get(5, TimeUnit.SECONDS);
+        log.close();
+
+        List<String> replayed = new ArrayList<>();
+        open(new EventLog(directory.toString(), 1 << 20, Long.MAX_VALUE, true), replayed);
+        assertThat(replayed).containsExactly("before", "after");
+    }
+
+    @Test
+    void everyAppendRacingCloseCompletes() throws Exception {
+        EventLog log = open(new EventLog(directory.toString(), 1 << 20, Long.MAX_VALUE, false), new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+        List<Thread> appenders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread appender = new Thread(() -> {
+                try {
+                    while (true) {
+                        futures.add(append(log, "x"));
+                    }
+                } catch (IllegalStateException closed) {
+                    // Expected once close() has started
+                }
+            });
+            appender.start();
+            appenders.add(appender);
+        }
+        Thread.sleep(50);
+        log.close();
+        for (Thread appender : appenders) {
+            appender.join(5000);
+        }
+
+        assertThat(futures).isNotEmpty();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> append(log, "late")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private EventLog open(EventLog log, List<String> replayed) throws IOException {
+        // An empty snapshot at sequence 0 keeps every record in the segments
+        log.open((op, payload) -> replayed.add(new String(payload, StandardCharsets.UTF_8)),
+                () -> new EventLog.Snapshot(0, List.of()));
+        opened.add(log);
+        return log;
+    }
+
+    private static CompletableFuture<Void> append(EventLog log, String payload) {
+        return log.append(log.nextSequence(), EventLog.PUT, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().startsWith("segment-"))
+                    .filter(path -> {
+                        try {
+                            return Files.size(path) > 0;
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .toList();
+            assertThat(segments).hasSize(1);
+            return segments.get(0);
+        }
+    }
+
+    /**
+     * Writes half of the next batch and then fails, as a full disk or I/O error would
+     */
+    private static final class FailingEventLog extends EventLog {
+
+        volatile boolean failNextWrite;
+
+        FailingEventLog(String directory) {
+            super(directory, 1 << 20, Long.MAX_VALUE, true);
+        }
+
+        @Override
+        FileChannel openSegmentChannel(Path path) throws IOException {
+            return new FailingChannel(super.openSegmentChannel(path));
+        }
+
+        private final class FailingChannel extends FileChannel {
+
+            private final FileChannel delegate;
+
+            FailingChannel(FileChannel delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                if (failNextWrite) {
+                    failNextWrite = false;
+                    ByteBuffer half = source.duplicate();
+                    half.limit(half.position() + half.remaining() / 2);
+                    delegate.write(half);
+                    throw new IOException("Simulated write failure");
+                }
+                return delegate.write(source);
+            }
+
+            @Override
+            public int read(ByteBuffer destination) throws IOException {
+                return delegate.read(destination);
+            }
+
+            @Override
+            public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+                return delegate.read(destinations, offset, length);
+            }
+
+            @Override
+            public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+                return delegate.write(sources, offset, length);
+            }
+
+            @Override
+            public long position() throws IOException {
+                return delegate.position();
+            }
+
+            @Override
+            public FileChannel position(long newPosition) throws IOException {
+                delegate.position(newPosition);
+                return this;
+            }
+
+            @Override
+            public long size() throws IOException {
+                return delegate.size();
+            }
+
+            @Override
+            public FileChannel truncate(long size) throws IOException {
+                delegate.truncate(size);
+                return this;
+            }
+
+            @Override
+            public void force(boolean metaData) throws IOException {
+                delegate.force(metaData);
+            }
+
+            @Override
+            public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                return delegate.transferTo(position, count, target);
+            }
+
+            @Override
+            public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+                return delegate.transferFrom(source, position, count);
+            }
+
+            @Override
+            public int read(ByteBuffer destination, long position) throws IOException {
+                return delegate.read(destination, position);
+            }
+
+            @Override
+            public int write(ByteBuffer source, long position) throws IOException {
+                return delegate.write(source, position);
+            }
+
+            @Override
+            public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+                return delegate.map(mode, position, size);
+            }
+
+            @Override
+            public FileLock lock(long position, long size, boolean shared) throws IOException {
+                return delegate.lock(position, size, shared);
+            }
+
+            @Override
+            public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+                return delegate.tryLock(position, size, shared);
+            }
+
+            @Override
+            protected void implCloseChannel() throws IOException {
+                delegate.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.legaljava.service;
+
+import com.legaljava.entity.LegalDocument;
+import com.legaljava.repository.LegalDocumentRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentIngestionServiceTest {
+
+    private static final LocalDateTime V1 = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final LocalDateTime V2 = V1.plusMinutes(1);
+
+    private final LegalDocumentRepository repository = mock(LegalDocumentRepository.class);
+    private final SemanticAnswerCache answerCache = mock(SemanticAnswerCache.class);
+
+    // Request bodies py-rag received, in arrival order
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private HttpServer pyRag;
+    private DocumentIngestionService service;
+
+    @BeforeEach
+    void startPyRag() throws IOException {
+        pyRag = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        pyRag.createContext("/ingest/batch", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                release.await(10, TimeUnit.SECONDS);
+                int status = failuresLeft.getAndDecrement() > 0 ? 503 : 200;
+                exchange.sendResponseHeaders(status, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        pyRag.setExecutor(Executors.newCachedThreadPool());
+        pyRag.start();
+
+        when(repository.findIngestPendingIds()).thenReturn(List.of());
+        when(repository.markIngested(anyLong(), any())).thenReturn(1);
+        service = new DocumentIngestionService(WebClient.builder(), mock(PlatformTransactionManager.class),
+                "http://127.0.0.1:" + pyRag.getAddress().getPort(),
+                true, 32, 20, 2, 1000, 200, 0, 10, 5, 200);
+        ReflectionTestUtils.setField(service, "documentRepository", repository);
+        ReflectionTestUtils.setField(service, "chunkIndex", mock(DocumentChunkIndex.class));
+        ReflectionTestUtils.setField(service, "answerCache", answerCache);
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        release.countDown();
+        service.shutdown();
+        pyRag.stop(0);
+    }
+
+    @Test
+    void documentSavedAgainWhileInFlightIsSentAfterTheEarlierVersion() throws Exception {
+        release = new CountDownLatch(1);
+        saved(1L, "first version", V1);
+        service.enqueue(1L);
+        awaitReceived(1);
+
+        saved(1L, "second version", V2);
+        service.enqueue(1L);
+        // Free permits and plenty of linger time, yet the newer version must wait
+        Thread.sleep(300);
+        assertThat(received).hasSize(1);
+
+        release.countDown();
+        awaitReceived(2);
+        assertThat(received.get(0)).contains("first version");
+        assertThat(received.get(1)).contains("second version");
+        assertThat(maxInFlight.get()).isEqualTo(1);
+        verify(repository, timeout(5000)).markIngested(1L, V2);
+    }
+
+    @Test
+    void batchFailingEveryRetryIsQueuedAgain() throws Exception {
+        failuresLeft.set(1);
+        saved(1L, "text", V1);
+        service.enqueue(1L);
+
+        awaitReceived(2);
+        verify(repository, timeout(5000)).markIngested(1L, V1);
+        verify(answerCache, timeout(5000)).invalidate();
+        assertThat(service.getFailedCount()).isEqualTo(1);
+        assertThat(service.getIngestedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void documentAlreadyIngestedIsNotSentAgainNorInvalidatesAnswers() throws Exception {
+        LegalDocument document = saved(1L, "text", V1);
+        document.setIngestPending(false);
+        service.enqueue(1L);
+
+        Thread.sleep(300);
+        assertThat(received).isEmpty();
+        assertThat(service.getIngestedCount()).isEqualTo(1);
+        verify(answerCache, never()).invalidate();
+        verify(repository, never()).markIngested(anyLong(), any());
+    }
+
+    @Test
+    void documentsLeftPendingByAnEarlierRunAreQueuedAtStartup() throws Exception {
+        saved(7L, "unfinished", V1);
+        when(repository.findIngestPendingIds()).thenReturn(List.of(7L));
+
+        service.requeueUnfinished();
+
+        awaitReceived(1);
+        assertThat(received.get(0)).contains("unfinished");
+        verify(repository, timeout(5000)).markIngested(7L, V1);
+    }
+
+    private LegalDocument saved(Long id, String content, LocalDateTime updatedAt) {
+        LegalDocument document = new LegalDocument("Title", content, "statute");
+        document.setId(id);
+        document.setUpdatedAt(updatedAt);
+        document.setIngestPending(true);
+        when(repository.findAllById(any())).thenReturn(List.of(document));
+        return document;
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(received).hasSizeGreaterThanOrEqualTo(count);
+    }
+}
@@ -0,0 +1,60 @@
+package com.legaljava.service;
+
+import com.legaljava.dto.QueryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticAnswerCacheTest {
+
+    private final SemanticAnswerCache cache = new SemanticAnswerCache(new QueryEmbedder(512), true, 100, 0.85, 60,
+            16, 100, 64);
+
+    @Test
+    void abbreviatedQuestionFindsTheSpelledOutOne() {
+        answer("maximum temporary disability rate", "TD max");
+
+        assertThat(lookup("TD max 2024")).contains("TD max");
+        assertThat(lookup("What's the max TD amount?")).contains("TD max");
+        assertThat(lookup("highest temp disability rate")).contains("TD max");
+    }
+
+    @Test
+    void spelledOutQuestionFindsTheAbbreviatedOne() {
+        answer("TD max 2024", "TD max 2024");
+
+        assertThat(lookup("maximum temporary disability rate")).contains("TD max 2024");
+        assertThat(lookup("maximum temporary disability rate for 2024")).contains("TD max 2024");
+    }
+
+    @Test
+    void differentYearOrBenefitMisses() {
+        answer("TD max 2024", "TD max 2024");
+
+        assertThat(lookup("TD max 2023")).isEmpty();
+        assertThat(lookup("PD max 2024")).isEmpty();
+        assertThat(lookup("TD min 2024")).isEmpty();
+    }
+
+    @Test
+    void numbersCountOnlyWhenBothQuestionsGiveThem() {
+        QueryEmbedder embedder = new QueryEmbedder(512);
+        assertThat(QueryEmbedder.sameQualifiers(embedder.qualifiers("TD max 2024"),
+                embedder.qualifiers("maximum temporary disability rate"))).isTrue();
+        assertThat(QueryEmbedder.sameQualifiers(embedder.qualifiers("TD max 2024"),
+                embedder.qualifiers("TD max 2023"))).isFalse();
+        assertThat(QueryEmbedder.sameQualifiers(embedder.qualifiers("TD max"),
+                embedder.qualifiers("PD max"))).isFalse();
+    }
+
+    private void answer(String question, String response) {
+        cache.put(question, new QueryResponse(response, List.of("LC 4653"), null, 0.9), cache.generation());
+    }
+
+    private Optional<String> lookup(String question) {
+        return cache.lookup(question).map(QueryResponse::getResponse);
+    }
+}
@@ -13,6 +13,7 @@ CREATE TABLE IF NOT EXISTS legal_documents (
     upload_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     metadata JSONB,
     embedding vector(1536), -- OpenAI embedding dimension
+    ingest_pending BOOLEAN DEFAULT FALSE, -- saved but not yet taken by py-rag's /ingest/batch
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
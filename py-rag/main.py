@@ -14,10 +14,18 @@ from decimal import Decimal
 
 app = FastAPI(title="LegalJava RAG Service", version="1.0.0")
 
+class ContextChunk(BaseModel):
+    documentId: int
+    title: str
+    content: str
+    score: Optional[float] = None
+
 class QueryRequest(BaseModel):
     query: str
     userId: Optional[str] = None
     sessionId: Optional[str] = None
+    # Passages already retrieved by the backend's vector index; skips similarity_search
+    context: Optional[List[ContextChunk]] = None
 
 class QueryResponse(BaseModel):
     response: str
@@ -25,6 +33,13 @@ class QueryResponse(BaseModel):
     sessionId: Optional[str] = None
     confidence: Optional[float] = None
 
+class IngestDocument(BaseModel):
+    documentId: int
+    chunks: List[str]
+
+class IngestBatchRequest(BaseModel):
+    documents: List[IngestDocument]
+
 class SummarizeRequest(BaseModel):
     reportContent: str
 
@@ -102,9 +117,9 @@ class PgVectorRAGService:
                 WHERE id = $2
             """, embedding_str, document_id)
     
-    async def process_query(self, query: str) -> QueryResponse:
+    async def process_query(self, query: str, context_chunks: Optional[List[ContextChunk]] = None) -> QueryResponse:
         """Process a legal query and return response with citations"""
-        if not self.embeddings or not self.llm:
+        if not self.llm or (context_chunks is None and not self.embeddings):
             # Mock response when RAG is not properly initialized
             return QueryResponse(
                 response=f"Mock response for query: '{query}'. This is a placeholder response indicating that the RAG service is not fully configured. Please ensure OPENAI_API_KEY is set and the vector database is populated.",
@@ -113,11 +128,16 @@ class PgVectorRAGService:
             )
         
         try:
-            # Generate embedding for the query
-            query_embedding = self.embeddings.embed_query(query)
-            
-            # Perform similarity search
-            similar_docs = await self.similarity_search(query_embedding)
+            if context_chunks is not None:
+                # Chunks are already passage-sized, so they go into the prompt whole
+                similar_docs = [{'title': c.title, 'excerpt': c.content} for c in context_chunks]
+            else:
+                # Generate embedding for the query
+                query_embedding = self.embeddings.embed_query(query)
+                
+                # Perform similarity search
+                similar_docs = [dict(doc, excerpt=doc['content'][:500] + "...")
+                                for doc in await self.similarity_search(query_embedding)]
             
             if not similar_docs:
                 return QueryResponse(
@@ -131,8 +151,9 @@ class PgVectorRAGService:
             citations = []
             
             for doc in similar_docs:
-                context_parts.append(f"Document: {doc['title']}\nContent: {doc['content'][:500]}...")
-                citations.append(doc['title'])
+                context_parts.append(f"Document: {doc['title']}\nContent: {doc['excerpt']}")
+                if doc['title'] not in citations:
+                    citations.append(doc['title'])
             
             context = "\n\n".join(context_parts)
             
@@ -174,7 +195,7 @@ async def health_check():
 async def process_query(request: QueryRequest):
     """Process a legal query and return AI-generated response with citations"""
     try:
-        response = await rag_service.process_query(request.query)
+        response = await rag_service.process_query(request.query, request.context)
         response.sessionId = request.sessionId
         return response
     except Exception as e:
@@ -209,6 +230,29 @@ async def ingest_document(document_id: int, content: str):
     except Exception as e:
         raise HTTPException(status_code=500, detail=f"Error processing document: {str(e)}")
 
+@app.post("/ingest/batch")
+async def ingest_batch(request: IngestBatchRequest):
+    """Embed already-chunked documents in one call and store an embedding per document"""
+    if not rag_service.embeddings:
+        raise HTTPException(status_code=503, detail="Embedding service not initialized")
+    
+    try:
+        texts = [chunk for document in request.documents for chunk in document.chunks]
+        # One batched embedding request instead of one round trip per chunk
+        embeddings = await asyncio.to_thread(rag_service.embeddings.embed_documents, texts) if texts else []
+        
+        offset = 0
+        for document in request.documents:
+            chunk_embeddings = embeddings[offset:offset + len(document.chunks)]
+            offset += len(document.chunks)
+            if chunk_embeddings:
+                avg_embedding = np.mean(chunk_embeddings, axis=0).tolist()
+                await rag_service.store_embedding(document.documentId, "".join(document.chunks), avg_embedding)
+        
+        return {"documents": len(request.documents), "chunks": len(texts)}
+    except Exception as e:
+        raise HTTPException(status_code=500, detail=f"Error processing documents: {str(e)}")
+
 @app.post("/summarize_ame_report", response_model=SummarizeResponse)
 async def summarize_ame_report(request: SummarizeRequest):
     """Summarize an AME report and extract key information"""
@@ -9,7 +9,7 @@ import {
   Draggable,
   DropResult,
 } from '@hello-pangea/dnd';
-import { fetchColumns, updateColumns } from '../services/api';
+import { fetchColumns, moveCard } from '../services/api';
 
 interface Task {
   id: string;
@@ -36,10 +36,10 @@ export default function Schedule() {
     initialData: [],
   });
 
-  /** 2 Persist drag-and-drop mutations with optimistic UI */
+  /** 2 Persist a drag-and-drop move with optimistic UI; only the moved card is sent */
   const mutateCols = useMutation({
-    mutationFn: updateColumns,
-    onMutate: async (next: Column[]) => {
+    mutationFn: ({ move }: { next: Column[]; move: Parameters<typeof moveCard>[0] }) => moveCard(move),
+    onMutate: async ({ next }) => {
       await qc.cancelQueries({ queryKey: ['columns'] });
       const prev = qc.getQueryData<Column[]>(['columns']) ?? [];
       qc.setQueryData(['columns'], next);
@@ -59,8 +59,9 @@ export default function Schedule() {
     const dstColIdx = columns.findIndex(c => c.id === result.destination!.droppableId);
     if (srcColIdx < 0 || dstColIdx < 0) return;
 
-    const srcCol = { ...columns[srcColIdx] };
-    const dstCol = srcColIdx === dstColIdx ? srcCol : { ...columns[dstColIdx] };
+    const srcCol = { ...columns[srcColIdx], tasks: [...columns[srcColIdx].tasks] };
+    const dstCol =
+      srcColIdx === dstColIdx ? srcCol : { ...columns[dstColIdx], tasks: [...columns[dstColIdx].tasks] };
 
     const [moved] = srcCol.tasks.splice(result.source.index, 1);
     dstCol.tasks.splice(result.destination.index, 0, moved);
@@ -69,7 +70,15 @@ export default function Schedule() {
     next[srcColIdx] = srcCol;
     next[dstColIdx] = dstCol;
 
-    mutateCols.mutate(next);
+    const index = result.destination.index;
+    mutateCols.mutate({
+      next,
+      move: {
+        taskId: moved.id,
+        status: dstCol.id,
+        afterTaskId: index > 0 ? dstCol.tasks[index - 1].id : null,
+      },
+    });
   }
 
   /* ---------- render ---------- */
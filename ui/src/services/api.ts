@@ -108,8 +108,14 @@ export const legalService = {
     return response.data;
   },
 
-  async getUserHistory(userId: string): Promise<any[]> {
-    const response = await api.get(`/chat/history/${userId}`);
+  // Previews only, newest first; pass nextCursor from the previous page to load more
+  async getUserHistory(userId: string, cursor?: string, limit = 30): Promise<{ items: any[]; nextCursor: string | null; hasMore: boolean }> {
+    const response = await api.get(`/chat/history/${userId}`, { params: { cursor, limit } });
+    return response.data;
+  },
+
+  async getQuery(id: number): Promise<any> {
+    const response = await api.get(`/chat/queries/${id}`);
     return response.data;
   },
 
@@ -296,15 +302,13 @@ export const fetchColumns = async () => {
   }
 };
 
-export const updateColumns = async (columns: any[]) => {
-  try {
-    const response = await api.patch('/columns', columns);
-    return response.data;
-  } catch (error) {
-    console.log('Error updating columns, this would save to API in production:', columns);
-    // In a real app, we'd throw the error, but for demo purposes we pretend it succeeded
-    return MOCK_COLUMNS;
-  }
+// Move one card: it lands directly below afterTaskId, or at the top of the column when that is null
+export const moveCard = async (move: { taskId: string; status: string; afterTaskId: string | null }) => {
+  const response = await api.patch(`/columns/tasks/${move.taskId}`, {
+    status: move.status,
+    afterTaskId: move.afterTaskId,
+  });
+  return response.data;
 };
 
 // Simple upload function for DocumentUpload component
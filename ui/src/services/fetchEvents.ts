@@ -1,8 +1,9 @@
 import axios from 'axios';
 
-export async function fetchEvents() {
+// start/end are ISO dates or date-times; end is exclusive, as calendar views supply it
+export async function fetchEvents(range?: { start?: string; end?: string }) {
   try {
-    const response = await axios.get('/api/events');
+    const response = await axios.get('/api/events', { params: range });
     return response.data;
   } catch (error) {
     console.error('Error fetching events:', error);
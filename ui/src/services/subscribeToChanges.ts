@@ -0,0 +1,27 @@
+export type ChangeTopic = 'events' | 'tasks' | 'cases';
+
+export interface ChangeNotification {
+  sequence: number;
+  topic: ChangeTopic;
+  action: 'CREATED' | 'UPDATED' | 'DELETED';
+  id: string;
+  caseId: number | null;
+  version: number | null;
+  occurredAt: string;
+}
+
+// onReset fires on connect and whenever the server could not replay what was missed;
+// reload the affected data then. After a timeout or an eviction for falling behind, the
+// browser reconnects and resumes from Last-Event-ID on its own.
+export function subscribeToChanges(
+  topics: ChangeTopic[],
+  onChange: (change: ChangeNotification) => void,
+  onReset: () => void
+): () => void {
+  const source = new EventSource(`/api/changes/stream?topics=${topics.join(',')}`);
+  topics.forEach((topic) =>
+    source.addEventListener(topic, (message) => onChange(JSON.parse((message as MessageEvent).data)))
+  );
+  source.addEventListener('reset', onReset);
+  return () => source.close();
+}